@@ -0,0 +1,43 @@
+package com.challenge.RentalCar.inventory.adapter.persistence;
+
+import com.challenge.RentalCar.inventory.domain.Car;
+import com.challenge.RentalCar.inventory.domain.CarType;
+import com.challenge.RentalCar.shared.cache.CacheRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CarMappingBenchmark {
+
+    private final CarPersistenceAdapter adapter = new CarPersistenceAdapter(null, null, new CacheRegistry(new StandardEnvironment()), null);
+    private JpaCarEntity entity;
+    private Car car;
+
+    @Setup
+    public void setUp() {
+        entity = new JpaCarEntity();
+        entity.setId(2L);
+        entity.setBrand("Kia");
+        entity.setModel("Sorento");
+        entity.setType(CarType.SUV);
+        entity.setAvailable(true);
+        car = adapter.toDomain(entity);
+    }
+
+    @Benchmark
+    public Car toDomain() {
+        return adapter.toDomain(entity);
+    }
+
+    @Benchmark
+    public JpaCarEntity toEntity() {
+        return adapter.toEntity(car);
+    }
+}
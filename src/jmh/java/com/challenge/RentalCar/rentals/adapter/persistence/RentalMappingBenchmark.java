@@ -0,0 +1,46 @@
+package com.challenge.RentalCar.rentals.adapter.persistence;
+
+import com.challenge.RentalCar.inventory.domain.CarType;
+import com.challenge.RentalCar.rentals.domain.Rental;
+import com.challenge.RentalCar.shared.money.Money;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RentalMappingBenchmark {
+
+    private final RentalPersistenceAdapter adapter = new RentalPersistenceAdapter(null, null, null, null);
+    private JpaRentalEntity entity;
+    private Rental rental;
+
+    @Setup
+    public void setUp() {
+        entity = new JpaRentalEntity();
+        entity.setId(7L);
+        entity.setCustomerId(1L);
+        entity.setCarId(2L);
+        entity.setType(CarType.SUV);
+        entity.setStartDate(LocalDate.of(2025, 9, 7));
+        entity.setDaysBooked(9);
+        entity.setPrepaidAmount(Money.of(129_000));
+        entity.setStatus(JpaRentalEntity.Status.OPEN);
+        rental = adapter.toDomain(entity);
+    }
+
+    @Benchmark
+    public Rental toDomain() {
+        return adapter.toDomain(entity);
+    }
+
+    @Benchmark
+    public JpaRentalEntity toEntity() {
+        return adapter.toEntity(rental);
+    }
+}
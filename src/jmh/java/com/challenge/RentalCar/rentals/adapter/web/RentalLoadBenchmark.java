@@ -0,0 +1,125 @@
+package com.challenge.RentalCar.rentals.adapter.web;
+
+import com.challenge.RentalCar.RentalCarApplication;
+import com.challenge.RentalCar.customers.adapter.persistence.JpaCustomerEntity;
+import com.challenge.RentalCar.customers.adapter.persistence.SpringDataCustomerRepository;
+import com.challenge.RentalCar.inventory.adapter.persistence.JpaCarEntity;
+import com.challenge.RentalCar.inventory.adapter.persistence.SpringDataCarRepository;
+import com.challenge.RentalCar.inventory.domain.CarType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Load test over HTTP: {@value #THREADS} clients, each with its own customer and car, rent and return against a
+ * real Tomcat on the dev-h2 database: with platform request threads and sequential lookups or virtual threads and
+ * parallel lookups, and with each rent in its own transaction or through the group-commit queue. Throughput mode
+ * gives requests per second, sample mode the latency percentiles (look at p0.99). The read-through caches are off
+ * so both lookups of every rent reach the database.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(RentalLoadBenchmark.THREADS)
+@Fork(1)
+public class RentalLoadBenchmark {
+    static final int THREADS = 64;
+
+    @State(Scope.Benchmark)
+    public static class Server {
+        @Param({"false", "true"})
+        public boolean virtualThreads;
+
+        @Param({"false", "true"})
+        public boolean groupCommit;
+
+        ConfigurableApplicationContext ctx;
+        HttpClient http;
+        ObjectMapper json;
+        String baseUrl;
+        List<Long> customerIds = new ArrayList<>();
+        List<Long> carIds = new ArrayList<>();
+        final AtomicInteger nextClient = new AtomicInteger();
+
+        @Setup(Level.Trial)
+        public void start() {
+            ctx = new SpringApplicationBuilder(RentalCarApplication.class)
+                    .profiles("dev-h2")
+                    .properties("server.port=0", "spring.jpa.show-sql=false", "logging.level.root=WARN",
+                            "cache.enabled=false",
+                            "spring.threads.virtual.enabled=" + virtualThreads,
+                            "rentals.group-commit.enabled=" + groupCommit)
+                    .run();
+            var customers = ctx.getBean(SpringDataCustomerRepository.class);
+            var cars = ctx.getBean(SpringDataCarRepository.class);
+            for (int i = 0; i < THREADS; i++) {
+                var customer = new JpaCustomerEntity();
+                customer.setName("Client " + i);
+                customer.setPoints(0);
+                customerIds.add(customers.save(customer).getId());
+
+                var car = new JpaCarEntity();
+                car.setBrand("Load");
+                car.setModel("Test " + i);
+                car.setType(CarType.values()[i % CarType.values().length]);
+                car.setAvailable(true);
+                carIds.add(cars.save(car).getId());
+            }
+            baseUrl = "http://localhost:" + ((WebServerApplicationContext) ctx).getWebServer().getPort();
+            http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            json = ctx.getBean(ObjectMapper.class);
+        }
+
+        @TearDown(Level.Trial)
+        public void stop() {
+            http.close();
+            ctx.close();
+        }
+
+        String post(String path, String body) throws IOException, InterruptedException {
+            var request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+            var response = http.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) throw new IllegalStateException(response.statusCode() + " " + response.body());
+            return response.body();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Client {
+        long customerId;
+        long carId;
+
+        @Setup(Level.Trial)
+        public void pick(Server server) {
+            int i = server.nextClient.getAndIncrement();
+            customerId = server.customerIds.get(i);
+            carId = server.carIds.get(i);
+        }
+    }
+
+    @Benchmark
+    public String rentAndReturn(Server server, Client client) throws Exception {
+        var rented = server.post("/rentals",
+                "{\"customerId\":" + client.customerId + ",\"carId\":" + client.carId + ",\"days\":3}");
+        long rentalId = server.json.readTree(rented).get("rentalId").asLong();
+        return server.post("/rentals/" + rentalId + "/return",
+                "{\"rentalId\":" + rentalId + ",\"actualReturnDate\":\"" + LocalDate.now().plusDays(4) + "\"}");
+    }
+}
@@ -0,0 +1,27 @@
+package com.challenge.RentalCar.rentals.application;
+
+import com.challenge.RentalCar.inventory.domain.CarType;
+import com.challenge.RentalCar.rentals.domain.Rental;
+import com.challenge.RentalCar.rentals.port.in.ListRentals;
+import com.challenge.RentalCar.shared.money.Money;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ListRentalsViewBenchmark {
+
+    private final Rental rental = Rental.reconstitute(
+            7L, 1L, 2L, CarType.SUV, LocalDate.of(2025, 9, 7), 9, Money.of(129_000), Rental.Status.OPEN);
+
+    @Benchmark
+    public ListRentals.View toView() {
+        return ListRentalsUseCase.toView(rental);
+    }
+}
@@ -0,0 +1,94 @@
+package com.challenge.RentalCar.rentals.application;
+
+import com.challenge.RentalCar.RentalCarApplication;
+import com.challenge.RentalCar.customers.adapter.persistence.SpringDataCustomerRepository;
+import com.challenge.RentalCar.inventory.adapter.persistence.SpringDataCarRepository;
+import com.challenge.RentalCar.rentals.port.in.RentCar;
+import com.challenge.RentalCar.rentals.port.in.ReturnCar;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rent and return end to end, through the transactional use cases, against the in-memory H2 of the dev-h2 profile.
+ * Each invocation gets the car back into the state the measured call needs, outside of the measurement.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RentalUseCasesBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class App {
+        ConfigurableApplicationContext ctx;
+        RentCar rentCar;
+        ReturnCar returnCar;
+        long customerId;
+        long carId;
+
+        @Setup(Level.Trial)
+        public void start() {
+            ctx = new SpringApplicationBuilder(RentalCarApplication.class)
+                    .profiles("dev-h2")
+                    .web(WebApplicationType.NONE)
+                    .properties("spring.jpa.show-sql=false", "logging.level.root=WARN")
+                    .run();
+            rentCar = ctx.getBean(RentCar.class);
+            returnCar = ctx.getBean(ReturnCar.class);
+            customerId = ctx.getBean(SpringDataCustomerRepository.class).findAll().getFirst().getId();
+            carId = ctx.getBean(SpringDataCarRepository.class).findAll().getFirst().getId();
+        }
+
+        @TearDown(Level.Trial)
+        public void stop() {
+            ctx.close();
+        }
+
+        long rent() {
+            return rentCar.handle(new RentCar.Command(customerId, carId, 9)).rentalId();
+        }
+
+        void giveBack(long rentalId) {
+            returnCar.handle(new ReturnCar.Command(rentalId, LocalDate.now().plusDays(11)));
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class AvailableCar {
+        Long openRental;
+
+        @Setup(Level.Invocation)
+        public void release(App app) {
+            if (openRental != null) app.giveBack(openRental);
+            openRental = null;
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class RentedCar {
+        long rentalId;
+
+        @Setup(Level.Invocation)
+        public void rent(App app) {
+            rentalId = app.rent();
+        }
+    }
+
+    @Benchmark
+    public RentCar.Result rent(App app, AvailableCar car) {
+        var result = app.rentCar.handle(new RentCar.Command(app.customerId, app.carId, 9));
+        car.openRental = result.rentalId();
+        return result;
+    }
+
+    @Benchmark
+    public ReturnCar.Result giveBack(App app, RentedCar car) {
+        return app.returnCar.handle(new ReturnCar.Command(car.rentalId, LocalDate.now().plusDays(11)));
+    }
+}
@@ -0,0 +1,105 @@
+package com.challenge.RentalCar.rentals.application;
+
+import com.challenge.RentalCar.inventory.domain.Car;
+import com.challenge.RentalCar.inventory.domain.CarType;
+import com.challenge.RentalCar.rentals.port.in.ReportUtilization;
+import com.challenge.RentalCar.rentals.port.out.LoadCar;
+import com.challenge.RentalCar.rentals.port.out.ScanRentalIntervals;
+import com.challenge.RentalCar.shared.metrics.UseCaseMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scaling of {@link ReportUtilizationUseCase} with the fork/join parallelism, on a synthetic fleet of
+ * {@code cars} cars with {@code rentals} rentals in total (10M by default) spread over ten years. The rentals are
+ * generated per car-id range on the fly, seeded by car id, the way a leaf would decode them from its keyset
+ * chunks; no database is involved, so this measures the sweep and the fork/join split, not the scans.
+ * <p>
+ * {@code -p parallelism=1,2,4,8} up to the machine's cores; the speed-up is the 1-worker time over the n-worker one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class UtilizationScalingBenchmark {
+    private static final LocalDate FROM = LocalDate.of(2015, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2024, 12, 31);
+
+    @Param({"1", "2", "4", "8"})
+    int parallelism;
+
+    @Param({"20000"})
+    int cars;
+
+    @Param({"10000000"})
+    long rentals;
+
+    @Param({"MONTH"})
+    ReportUtilization.Granularity granularity;
+
+    private ReportUtilizationUseCase useCase;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        var fleet = new ArrayList<Car>(cars);
+        var types = CarType.values();
+        for (int id = 1; id <= cars; id++) fleet.add(new Car((long) id, "b", "m", types[id % types.length], true));
+        int perCar = (int) (rentals / cars);
+        long span = TO.toEpochDay() - FROM.toEpochDay();
+        // back-to-back rentals of 1-7 days with 0-5 idle days between them fill the window on average
+        double stretch = span / (perCar * 6.5);
+
+        LoadCar loadCar = new LoadCar() {
+            @Override
+            public Optional<Car> byId(long id) {
+                return Optional.of(fleet.get((int) id - 1));
+            }
+
+            @Override
+            public List<Car> byIds(Collection<Long> ids) {
+                return ids.stream().map(id -> fleet.get(id.intValue() - 1)).toList();
+            }
+
+            @Override
+            public List<Car> all() {
+                return fleet;
+            }
+        };
+        ScanRentalIntervals scan = (fromCarId, toCarId, from, to, sink) -> {
+            for (long carId = fromCarId; carId <= toCarId; carId++) {
+                var random = new SplittableRandom(carId);
+                var type = types[(int) (carId % types.length)];
+                double day = FROM.toEpochDay();
+                for (int i = 0; i < perCar; i++) {
+                    day += random.nextInt(6) * stretch;
+                    long start = (long) day;
+                    day += (1 + random.nextInt(7)) * stretch;
+                    sink.accept(new ScanRentalIntervals.Interval(carId, type,
+                            LocalDate.ofEpochDay(start), LocalDate.ofEpochDay((long) day + 1)));
+                }
+            }
+        };
+        useCase = new ReportUtilizationUseCase(loadCar, scan, new UseCaseMetrics(new SimpleMeterRegistry()),
+                parallelism, 256);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        useCase.close();
+    }
+
+    @Benchmark
+    public ReportUtilization.Report utilization() {
+        return useCase.handle(new ReportUtilization.Query(FROM, TO, granularity));
+    }
+}
@@ -0,0 +1,105 @@
+package com.challenge.RentalCar.rentals.domain.rules;
+
+import com.challenge.RentalCar.inventory.domain.CarType;
+import com.challenge.RentalCar.shared.money.Money;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The SUV tiers (150/day, 80% from day 8, 50% from day 31) priced three ways with the same closed form: the
+ * {@code double} arithmetic the policy used before {@link Money}, the {@code long} minor units it uses now, and
+ * {@link BigDecimal}. The {@code *Total} benchmarks price {@link #RENTALS} rentals of 1 to 60 days and sum them,
+ * the shape of a revenue report.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyPricingBenchmark {
+    static final int RENTALS = 1_000;
+    private static final int[] START = {0, 7, 30};
+
+    @Param({"7", "30", "365"})
+    int days;
+
+    private final PricingPolicy policy = new DefaultPricingPolicy(300, 150, 50);
+
+    private final double[] doubleRate = {150.0, 150.0 * 0.80, 150.0 * 0.50};
+    private final double[] doubleBefore = {0, 7 * doubleRate[0], 7 * doubleRate[0] + 23 * doubleRate[1]};
+
+    private final BigDecimal[] decimalRate = {
+            new BigDecimal("150.00"),
+            new BigDecimal("150.00").multiply(new BigDecimal("0.80")).setScale(2, RoundingMode.HALF_UP),
+            new BigDecimal("150.00").multiply(new BigDecimal("0.50")).setScale(2, RoundingMode.HALF_UP)};
+    private final BigDecimal[] decimalBefore = {
+            BigDecimal.ZERO.setScale(2),
+            decimalRate[0].multiply(BigDecimal.valueOf(7)),
+            decimalRate[0].multiply(BigDecimal.valueOf(7)).add(decimalRate[1].multiply(BigDecimal.valueOf(23)))};
+
+    private static int tier(int days) {
+        int i = START.length - 1;
+        while (i > 0 && START[i] >= days) i--;
+        return i;
+    }
+
+    private double doublePrice(int days) {
+        int i = tier(days);
+        return doubleBefore[i] + doubleRate[i] * (days - START[i]);
+    }
+
+    private BigDecimal decimalPrice(int days) {
+        int i = tier(days);
+        return decimalBefore[i].add(decimalRate[i].multiply(BigDecimal.valueOf(days - START[i])));
+    }
+
+    @Benchmark
+    public double doubleBasePrice() {
+        return doublePrice(days);
+    }
+
+    @Benchmark
+    public Money moneyBasePrice() {
+        return policy.basePrice(CarType.SUV, days);
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimalBasePrice() {
+        return decimalPrice(days);
+    }
+
+    @Benchmark
+    public double doubleTotal() {
+        double total = 0;
+        for (int r = 0; r < RENTALS; r++) total += doublePrice(1 + r % 60);
+        return total;
+    }
+
+    @Benchmark
+    public Money moneyTotal() {
+        var total = Money.ZERO;
+        for (int r = 0; r < RENTALS; r++) total = total.plus(policy.basePrice(CarType.SUV, 1 + r % 60));
+        return total;
+    }
+
+    /**
+     * Sums the minor units and wraps once, as {@code RevenueRollupAdapter} does; each price never leaves the loop.
+     */
+    @Benchmark
+    public Money minorUnitsTotal() {
+        long total = 0;
+        for (int r = 0; r < RENTALS; r++) total += policy.basePrice(CarType.SUV, 1 + r % 60).minorUnits();
+        return Money.of(total);
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimalTotal() {
+        var total = BigDecimal.ZERO;
+        for (int r = 0; r < RENTALS; r++) total = total.add(decimalPrice(1 + r % 60));
+        return total;
+    }
+}
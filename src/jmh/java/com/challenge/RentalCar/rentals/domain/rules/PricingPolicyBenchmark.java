@@ -0,0 +1,40 @@
+package com.challenge.RentalCar.rentals.domain.rules;
+
+import com.challenge.RentalCar.inventory.domain.CarType;
+import com.challenge.RentalCar.shared.money.Money;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PricingPolicyBenchmark {
+
+    @Param({"PREMIUM", "SUV", "SMALL"})
+    CarType type;
+
+    @Param({"1", "7", "30", "365", "3000"})
+    int days;
+
+    private final PricingPolicy policy = new DefaultPricingPolicy(300, 150, 50);
+    private final PriceTable table = new PriceTable(policy, 365);
+
+    @Benchmark
+    public Money basePrice() {
+        return policy.basePrice(type, days);
+    }
+
+    @Benchmark
+    public long tableBasePrice() {
+        return table.basePrice(type, days);
+    }
+
+    @Benchmark
+    public Money latePerDay() {
+        return policy.latePerDay(type);
+    }
+}
@@ -1,32 +1,97 @@
 package com.challenge.RentalCar.customers.adapter.persistence;
 
 import com.challenge.RentalCar.customers.domain.Customer;
+import com.challenge.RentalCar.rentals.port.out.AwardPoints;
 import com.challenge.RentalCar.rentals.port.out.LoadCustomer;
 import com.challenge.RentalCar.rentals.port.out.SaveCustomer;
-import lombok.RequiredArgsConstructor;
+import com.challenge.RentalCar.shared.cache.CacheRegistry;
+import com.challenge.RentalCar.shared.cache.ReadThroughCache;
+import com.challenge.RentalCar.shared.version.AggregateVersions;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.OptionalInt;
+
+import static com.challenge.RentalCar.shared.version.AggregateVersions.Aggregate.CUSTOMERS;
 
 @Component
+@Timed(value = "rentalcar.persistence", histogram = true)
 @Primary
-@RequiredArgsConstructor
-public class CustomerPersistenceAdapter implements LoadCustomer, SaveCustomer {
+public class CustomerPersistenceAdapter implements LoadCustomer, SaveCustomer, AwardPoints {
+    /**
+     * The new balance comes back as a generated key: the PostgreSQL driver appends {@code RETURNING points}, H2
+     * returns the updated column itself, so it is one statement on both.
+     */
+    private static final String AWARD = "update customers set points = points + ? where id = ?";
+
+    private record Snapshot(long id, String name, int points) {
+    }
+
     private final SpringDataCustomerRepository repo;
+    private final JdbcTemplate jdbc;
+    private final ReadThroughCache<Long, Snapshot> cache;
+    private final AggregateVersions versions;
+
+    public CustomerPersistenceAdapter(SpringDataCustomerRepository repo, JdbcTemplate jdbc, CacheRegistry caches,
+                                      AggregateVersions versions) {
+        this.repo = repo;
+        this.jdbc = jdbc;
+        this.cache = caches.create("customers");
+        this.versions = versions;
+    }
 
+    /**
+     * Cached rows are immutable snapshots, every caller gets its own {@link Customer}.
+     */
     @Override
     public Optional<Customer> byId(long id) {
-        return repo.findById(id).map(this::toDomain);
+        return cache.get(id, key -> repo.findById(key).map(e -> new Snapshot(e.getId(), e.getName(), e.getPoints())))
+                .map(s -> new Customer(s.id(), s.name(), s.points()));
+    }
+
+    @Override
+    public List<Customer> byIds(Collection<Long> ids) {
+        return repo.findAllById(ids).stream().map(this::toDomain).toList();
     }
 
     @Override
     public Customer save(Customer c) {
+        if (c.getId() != null) {
+            throw new IllegalArgumentException("customer " + c.getId() + " already exists, use award");
+        }
         var saved = repo.save(toEntity(c));
         c.setId(saved.getId());
+        versions.bumpAfterCommit(CUSTOMERS);
         return c;
     }
 
+    /**
+     * The increment happens in the UPDATE itself and the same statement hands back the balance it wrote, so no
+     * second query runs and the balance is exactly ours.
+     */
+    @Override
+    @Transactional
+    public OptionalInt award(long customerId, int points) {
+        cache.invalidateAfterCommit(customerId);
+        var balance = new GeneratedKeyHolder();
+        int updated = jdbc.update(con -> {
+            var ps = con.prepareStatement(AWARD, new String[]{"points"});
+            ps.setInt(1, points);
+            ps.setLong(2, customerId);
+            return ps;
+        }, balance);
+        if (updated == 0) return OptionalInt.empty();
+        versions.bumpAfterCommit(CUSTOMERS);
+        return OptionalInt.of(balance.getKeyAs(Number.class).intValue());
+    }
+
     private Customer toDomain(JpaCustomerEntity e) {
         return new Customer(e.getId(), e.getName(), e.getPoints());
     }
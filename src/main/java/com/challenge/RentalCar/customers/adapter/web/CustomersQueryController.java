@@ -1,22 +1,34 @@
 package com.challenge.RentalCar.customers.adapter.web;
 
 import com.challenge.RentalCar.customers.adapter.persistence.SpringDataCustomerRepository;
+import com.challenge.RentalCar.rentals.port.in.SummarizeCustomer;
+import com.challenge.RentalCar.shared.version.AggregateVersions;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.Map;
 
+import static com.challenge.RentalCar.shared.version.AggregateVersions.Aggregate.CUSTOMERS;
+
 @RestController
 @RequestMapping("/customers")
 @RequiredArgsConstructor
 class CustomersQueryController {
     private final SpringDataCustomerRepository repo;
+    private final AggregateVersions versions;
+    private final SummarizeCustomer summarize;
 
+    /**
+     * GET /customers, 304 without a query while If-None-Match still holds the current customers version
+     */
     @GetMapping
-    public List<Map<String,Object>> all() {
+    public List<Map<String,Object>> all(WebRequest request) {
+        if (request.checkNotModified(versions.etag(CUSTOMERS))) return null;
         return repo.findAll().stream().map(e -> Map.<String,Object>of(
                 "id", e.getId(),
                 "name", e.getName(),
@@ -24,4 +36,13 @@ class CustomersQueryController {
         )).toList();
     }
 
+    /**
+     * GET /customers/{id}/summary, rental count, open rentals, lifetime spend and last start date next to the
+     * points, aggregated by the database instead of by the client over {@code GET /rentals?customerId=}
+     */
+    @GetMapping("/{id}/summary")
+    public SummarizeCustomer.Summary summary(@PathVariable("id") long id) {
+        return summarize.handle(id);
+    }
+
 }
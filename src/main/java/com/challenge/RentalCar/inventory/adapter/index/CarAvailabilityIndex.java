@@ -0,0 +1,179 @@
+package com.challenge.RentalCar.inventory.adapter.index;
+
+import com.challenge.RentalCar.inventory.adapter.persistence.SpringDataCarRepository;
+import com.challenge.RentalCar.inventory.domain.Car;
+import com.challenge.RentalCar.inventory.domain.CarType;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process view of which cars are free, one {@link ConcurrentBitSet} of car ids per {@link CarType}.
+ * Loaded from the cars table once the application is ready, then kept current by the car persistence adapter,
+ * which reports every availability change once its transaction has committed.
+ * <p>
+ * Requests are served while a load runs, so a change committed during the scan may be older in the scanned rows
+ * than in the index: changes reported while loading are kept and applied again once the scan is done. Changes
+ * made by other instances only reach this one through {@link #reconcile}, which reloads the table every
+ * {@code inventory.index.reconcile-interval}; until then this instance may show such a car as free or taken.
+ */
+@Component
+public class CarAvailabilityIndex {
+    public record IndexedCar(long id, String brand, String model, CarType type, boolean available) {
+    }
+
+    private record Metadata(String brand, String model, CarType type) {
+    }
+
+    private final SpringDataCarRepository repo;
+    private final Map<CarType, ConcurrentBitSet> available = new EnumMap<>(CarType.class);
+    private final Map<Long, Metadata> cars = new ConcurrentHashMap<>();
+    /**
+     * Guards every write; non-null while a load runs, holding the changes reported meanwhile in order.
+     */
+    private final Object writes = new Object();
+    private List<Runnable> reportedWhileLoading;
+    private volatile boolean loaded;
+
+    public CarAvailabilityIndex(SpringDataCarRepository repo) {
+        this.repo = repo;
+        for (var type : CarType.values()) available.put(type, new ConcurrentBitSet());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void load() {
+        synchronized (writes) {
+            reportedWhileLoading = new ArrayList<>();
+        }
+        try {
+            for (var e : repo.findAll()) {
+                synchronized (writes) {
+                    put(e.getId(), e.getBrand(), e.getModel(), e.getType(), e.isAvailable());
+                }
+            }
+        } finally {
+            synchronized (writes) {
+                // the scanned rows may predate these changes
+                reportedWhileLoading.forEach(Runnable::run);
+                reportedWhileLoading = null;
+            }
+        }
+        loaded = true;
+    }
+
+    /**
+     * Picks up availability changed by other instances; a no-op until the startup load has run.
+     */
+    @Scheduled(fixedDelayString = "${inventory.index.reconcile-interval:1m}",
+            initialDelayString = "${inventory.index.reconcile-interval:1m}")
+    public void reconcile() {
+        if (loaded) load();
+    }
+
+    /**
+     * False until the startup load finished; callers should read the database meanwhile.
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Cars of {@code type} (any type if null) whose availability equals {@code availableOnly} if given, by id.
+     */
+    public List<IndexedCar> find(CarType type, Boolean availableOnly) {
+        var result = new ArrayList<IndexedCar>();
+        if (Boolean.TRUE.equals(availableOnly)) {
+            for (var t : CarType.values()) {
+                if (type != null && t != type) continue;
+                available.get(t).forEach(id -> {
+                    var m = cars.get(id);
+                    if (m != null) result.add(new IndexedCar(id, m.brand(), m.model(), m.type(), true));
+                });
+            }
+            result.sort(Comparator.comparingLong(IndexedCar::id));
+            return result;
+        }
+        cars.forEach((id, m) -> {
+            if (type != null && m.type() != type) return;
+            boolean free = available.get(m.type()).get(id);
+            if (availableOnly == null || free == availableOnly) {
+                result.add(new IndexedCar(id, m.brand(), m.model(), m.type(), free));
+            }
+        });
+        result.sort(Comparator.comparingLong(IndexedCar::id));
+        return result;
+    }
+
+    public boolean isAvailable(long carId) {
+        var m = cars.get(carId);
+        return m != null && available.get(m.type()).get(carId);
+    }
+
+    public Map<CarType, Integer> availableCounts() {
+        var counts = new EnumMap<CarType, Integer>(CarType.class);
+        available.forEach((type, ids) -> counts.put(type, ids.cardinality()));
+        return counts;
+    }
+
+    public void markRentedAfterCommit(long carId) {
+        afterCommit(() -> report(() -> setAvailable(carId, false)));
+    }
+
+    public void markAvailableAfterCommit(long carId) {
+        afterCommit(() -> report(() -> setAvailable(carId, true)));
+    }
+
+    public void putAfterCommit(Car car) {
+        long id = car.getId();
+        String brand = car.getBrand(), model = car.getModel();
+        CarType type = car.getType();
+        boolean free = car.isAvailable();
+        afterCommit(() -> report(() -> put(id, brand, model, type, free)));
+    }
+
+    private void report(Runnable change) {
+        synchronized (writes) {
+            if (reportedWhileLoading != null) reportedWhileLoading.add(change);
+            change.run();
+        }
+    }
+
+    private void put(long id, String brand, String model, CarType type, boolean free) {
+        var previous = cars.put(id, new Metadata(brand, model, type));
+        if (previous != null && previous.type() != type) available.get(previous.type()).clear(id);
+        setAvailable(id, type, free);
+    }
+
+    private void setAvailable(long carId, boolean free) {
+        var m = cars.get(carId);
+        if (m != null) setAvailable(carId, m.type(), free);
+    }
+
+    private void setAvailable(long carId, CarType type, boolean free) {
+        if (free) available.get(type).set(carId);
+        else available.get(type).clear(carId);
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+}
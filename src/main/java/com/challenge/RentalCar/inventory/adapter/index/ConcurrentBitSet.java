@@ -0,0 +1,91 @@
+package com.challenge.RentalCar.inventory.adapter.index;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongConsumer;
+
+/**
+ * Growable bit set safe for concurrent writers. Bits are flipped with CAS on 64-bit words; the read lock only keeps
+ * writers off the old array while {@link #grow} copies it, readers do not lock at all.
+ */
+final class ConcurrentBitSet {
+    private final ReentrantReadWriteLock resize = new ReentrantReadWriteLock();
+    private volatile AtomicLongArray words = new AtomicLongArray(1);
+
+    void set(long bit) {
+        update(bit, true);
+    }
+
+    void clear(long bit) {
+        update(bit, false);
+    }
+
+    boolean get(long bit) {
+        var w = words;
+        int i = wordIndex(bit);
+        return i < w.length() && (w.get(i) & mask(bit)) != 0;
+    }
+
+    int cardinality() {
+        var w = words;
+        int count = 0;
+        for (int i = 0; i < w.length(); i++) count += Long.bitCount(w.get(i));
+        return count;
+    }
+
+    /**
+     * Visits set bits in increasing order.
+     */
+    void forEach(LongConsumer action) {
+        var w = words;
+        for (int i = 0; i < w.length(); i++) {
+            long word = w.get(i);
+            while (word != 0) {
+                int bit = Long.numberOfTrailingZeros(word);
+                action.accept(((long) i << 6) + bit);
+                word &= word - 1;
+            }
+        }
+    }
+
+    private void update(long bit, boolean value) {
+        if (bit < 0) throw new IndexOutOfBoundsException("bit < 0: " + bit);
+        int i = wordIndex(bit);
+        if (i >= words.length()) {
+            if (!value) return;
+            grow(i + 1);
+        }
+        long mask = mask(bit);
+        resize.readLock().lock();
+        try {
+            var w = words;
+            long prev;
+            do {
+                prev = w.get(i);
+            } while (!w.compareAndSet(i, prev, value ? prev | mask : prev & ~mask));
+        } finally {
+            resize.readLock().unlock();
+        }
+    }
+
+    private void grow(int minWords) {
+        resize.writeLock().lock();
+        try {
+            var old = words;
+            if (old.length() >= minWords) return;
+            var grown = new AtomicLongArray(Math.max(minWords, old.length() * 2));
+            for (int i = 0; i < old.length(); i++) grown.set(i, old.get(i));
+            words = grown;
+        } finally {
+            resize.writeLock().unlock();
+        }
+    }
+
+    private static int wordIndex(long bit) {
+        return Math.toIntExact(bit >>> 6);
+    }
+
+    private static long mask(long bit) {
+        return 1L << (bit & 63);
+    }
+}
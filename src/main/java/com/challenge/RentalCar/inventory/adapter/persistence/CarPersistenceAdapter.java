@@ -1,35 +1,127 @@
 package com.challenge.RentalCar.inventory.adapter.persistence;
 
+import com.challenge.RentalCar.inventory.adapter.index.CarAvailabilityIndex;
 import com.challenge.RentalCar.inventory.domain.Car;
+import com.challenge.RentalCar.inventory.domain.CarType;
 import com.challenge.RentalCar.rentals.port.out.LoadCar;
+import com.challenge.RentalCar.rentals.port.out.ReleaseCar;
+import com.challenge.RentalCar.rentals.port.out.ReserveCar;
 import com.challenge.RentalCar.rentals.port.out.SaveCar;
-import lombok.RequiredArgsConstructor;
+import com.challenge.RentalCar.shared.cache.CacheRegistry;
+import com.challenge.RentalCar.shared.cache.ReadThroughCache;
+import com.challenge.RentalCar.shared.version.AggregateVersions;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+
+import static com.challenge.RentalCar.shared.version.AggregateVersions.Aggregate.CARS;
 
 @Component
-@RequiredArgsConstructor
-public class CarPersistenceAdapter implements LoadCar, SaveCar {
+@Timed(value = "rentalcar.persistence", histogram = true)
+public class CarPersistenceAdapter implements LoadCar, SaveCar, ReserveCar, ReleaseCar {
+    private record Metadata(long id, String brand, String model, CarType type) {
+    }
+
     private final SpringDataCarRepository repo;
+    private final CarAvailabilityIndex index;
+    private final ReadThroughCache<Long, Metadata> cache;
+    private final AggregateVersions versions;
 
+    public CarPersistenceAdapter(SpringDataCarRepository repo, CarAvailabilityIndex index, CacheRegistry caches,
+                                 AggregateVersions versions) {
+        this.repo = repo;
+        this.index = index;
+        this.cache = caches.create("cars");
+        this.versions = versions;
+    }
+
+    /**
+     * Brand/model/type come from the read-through cache, availability from the index, which changes on every
+     * rent and return and is already kept current after commit.
+     */
     @Override
     public Optional<Car> byId(long id) {
-        return repo.findById(id).map(this::toDomain);
+        if (!cache.isEnabled() || !index.isLoaded()) return repo.findById(id).map(this::toDomain);
+        return cache.get(id, key -> repo.findById(key).map(e -> new Metadata(e.getId(), e.getBrand(), e.getModel(), e.getType())))
+                .map(m -> new Car(m.id(), m.brand(), m.model(), m.type(), index.isAvailable(m.id())));
+    }
+
+    @Override
+    public List<Car> byIds(Collection<Long> ids) {
+        return repo.findAllById(ids).stream().map(this::toDomain).toList();
+    }
+
+    /**
+     * From the availability index once it is loaded, so listing the fleet does not read the cars table.
+     */
+    @Override
+    public List<Car> all() {
+        if (!index.isLoaded()) return repo.findAll(Sort.by("id")).stream().map(this::toDomain).toList();
+        return index.find(null, null).stream()
+                .map(c -> new Car(c.id(), c.brand(), c.model(), c.type(), c.available()))
+                .toList();
     }
 
     @Override
     public Car save(Car car) {
+        if (car.getId() != null) {
+            throw new IllegalArgumentException("car " + car.getId() + " already exists, use reserve/release");
+        }
         var saved = repo.save(toEntity(car));
         car.setId(saved.getId());
+        index.putAfterCommit(car);
+        versions.bumpAfterCommit(CARS);
         return car;
     }
 
-    private Car toDomain(JpaCarEntity carEntity) {
+    @Override
+    public boolean reserve(long carId) {
+        if (repo.reserve(carId) != 1) return false;
+        index.markRentedAfterCommit(carId);
+        versions.bumpAfterCommit(CARS);
+        return true;
+    }
+
+    @Override
+    @Transactional
+    public Set<Long> reserveAll(Collection<Long> carIds) {
+        if (carIds.isEmpty()) return Set.of();
+        var taken = new HashSet<Long>();
+        for (var e : repo.lockAvailable(carIds)) taken.add(e.getId());
+        if (!taken.isEmpty()) repo.reserveAll(taken);
+        taken.forEach(index::markRentedAfterCommit);
+        if (!taken.isEmpty()) versions.bumpAfterCommit(CARS);
+        return taken;
+    }
+
+    @Override
+    public boolean release(long carId) {
+        if (repo.release(carId) != 1) return false;
+        index.markAvailableAfterCommit(carId);
+        versions.bumpAfterCommit(CARS);
+        return true;
+    }
+
+    @Override
+    public void releaseAll(Collection<Long> carIds) {
+        if (carIds.isEmpty()) return;
+        repo.releaseAll(carIds);
+        carIds.forEach(index::markAvailableAfterCommit);
+        versions.bumpAfterCommit(CARS);
+    }
+
+    Car toDomain(JpaCarEntity carEntity) {
         return new Car(carEntity.getId(), carEntity.getBrand(), carEntity.getModel(), carEntity.getType(), carEntity.isAvailable());
     }
 
-    private JpaCarEntity toEntity(Car car) {
+    JpaCarEntity toEntity(Car car) {
         var jpaCarEntity = new JpaCarEntity();
         jpaCarEntity.setId(car.getId());
         jpaCarEntity.setBrand(car.getBrand());
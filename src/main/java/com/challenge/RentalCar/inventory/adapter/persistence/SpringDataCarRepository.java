@@ -1,6 +1,41 @@
 package com.challenge.RentalCar.inventory.adapter.persistence;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface SpringDataCarRepository extends JpaRepository<JpaCarEntity, Long> {
+
+    @Transactional
+    @Modifying
+    @Query("update JpaCarEntity c set c.available = false where c.id = :id and c.available = true")
+    int reserve(@Param("id") long id);
+
+    @Transactional
+    @Modifying
+    @Query("update JpaCarEntity c set c.available = true where c.id = :id")
+    int release(@Param("id") long id);
+
+    @Transactional
+    @Modifying
+    @Query("update JpaCarEntity c set c.available = true where c.id in :ids")
+    int releaseAll(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Row-locks the available cars among {@code ids}, in id order so concurrent batches cannot deadlock.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from JpaCarEntity c where c.id in :ids and c.available = true order by c.id")
+    List<JpaCarEntity> lockAvailable(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("update JpaCarEntity c set c.available = false where c.id in :ids and c.available = true")
+    int reserveAll(@Param("ids") Collection<Long> ids);
 }
@@ -1,30 +1,89 @@
 package com.challenge.RentalCar.inventory.adapter.web;
 
+import com.challenge.RentalCar.inventory.adapter.index.CarAvailabilityIndex;
 import com.challenge.RentalCar.inventory.adapter.persistence.SpringDataCarRepository;
+import com.challenge.RentalCar.inventory.domain.CarType;
+import com.challenge.RentalCar.rentals.port.in.SearchAvailableCars;
+import com.challenge.RentalCar.shared.version.AggregateVersions;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.LocalDate;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+
+import static com.challenge.RentalCar.shared.version.AggregateVersions.Aggregate.CARS;
 
 @RestController
 @RequestMapping("/cars")
 @RequiredArgsConstructor
 class CarsQueryController {
     private final SpringDataCarRepository repo;
+    private final CarAvailabilityIndex index;
+    private final AggregateVersions versions;
+    private final SearchAvailableCars search;
 
+    /**
+     * GET /cars?type=SUV&available=true, filtered requests are answered from the availability index;
+     * 304 without a lookup while If-None-Match still holds the current cars version
+     */
     @GetMapping
-    public List<Map<String, Object>> all() {
-        return repo.findAll().stream().map(e -> Map.<String, Object>of(
-                "id", e.getId(),
-                "brand", e.getBrand(),
-                "model", e.getModel(),
-                "type", e.getType(),
-                "available", e.isAvailable()
-        )).toList();
+    public List<Map<String, Object>> all(@RequestParam Optional<CarType> type,
+                                         @RequestParam Optional<Boolean> available,
+                                         WebRequest request) {
+        if (request.checkNotModified(versions.etag(CARS))) return null;
+        if ((type.isPresent() || available.isPresent()) && index.isLoaded()) {
+            return index.find(type.orElse(null), available.orElse(null)).stream().map(c -> Map.<String, Object>of(
+                    "id", c.id(),
+                    "brand", c.brand(),
+                    "model", c.model(),
+                    "type", c.type(),
+                    "available", c.available()
+            )).toList();
+        }
+        return repo.findAll().stream()
+                .filter(e -> type.isEmpty() || e.getType() == type.get())
+                .filter(e -> available.isEmpty() || e.isAvailable() == available.get())
+                .map(e -> Map.<String, Object>of(
+                        "id", e.getId(),
+                        "brand", e.getBrand(),
+                        "model", e.getModel(),
+                        "type", e.getType(),
+                        "available", e.isAvailable()
+                )).toList();
     }
 
-}
+    /**
+     * GET /cars/available?type=SUV&from=2025-10-01&to=2025-10-04, cars that can be picked up on {@code from} and
+     * returned on {@code to}, from each car's booking index
+     */
+    @GetMapping("/available")
+    public List<SearchAvailableCars.AvailableCar> available(
+            @RequestParam Optional<CarType> type,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return search.handle(new SearchAvailableCars.Query(type.orElse(null), from, to));
+    }
 
+    /**
+     * GET /cars/available-count, number of free cars per type
+     */
+    @GetMapping("/available-count")
+    public Map<CarType, Integer> availableCount(WebRequest request) {
+        if (request.checkNotModified(versions.etag(CARS))) return null;
+        if (index.isLoaded()) return index.availableCounts();
+        var counts = new EnumMap<CarType, Integer>(CarType.class);
+        for (var t : CarType.values()) counts.put(t, 0);
+        repo.findAll().forEach(e -> {
+            if (e.isAvailable()) counts.merge(e.getType(), 1, Integer::sum);
+        });
+        return counts;
+    }
+}
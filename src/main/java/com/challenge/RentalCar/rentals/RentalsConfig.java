@@ -3,6 +3,7 @@ package com.challenge.RentalCar.rentals;
 import com.challenge.RentalCar.rentals.domain.rules.DefaultLoyaltyPolicy;
 import com.challenge.RentalCar.rentals.domain.rules.DefaultPricingPolicy;
 import com.challenge.RentalCar.rentals.domain.rules.LoyaltyPolicy;
+import com.challenge.RentalCar.rentals.domain.rules.PriceTable;
 import com.challenge.RentalCar.rentals.domain.rules.PricingPolicy;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -19,6 +20,11 @@ public class RentalsConfig {
         return new DefaultPricingPolicy(premium, suv, small);
     }
 
+    @Bean
+    PriceTable priceTable(PricingPolicy pricingPolicy, @Value("${pricing.table-days:365}") int maxDays) {
+        return new PriceTable(pricingPolicy, maxDays);
+    }
+
     @Bean
     LoyaltyPolicy loyaltyPolicy() {
         return new DefaultLoyaltyPolicy();
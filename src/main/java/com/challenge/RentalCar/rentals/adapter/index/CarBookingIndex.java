@@ -0,0 +1,328 @@
+package com.challenge.RentalCar.rentals.adapter.index;
+
+import com.challenge.RentalCar.rentals.port.out.BookCar;
+import com.challenge.RentalCar.rentals.port.out.LoadBookings;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * In-process interval index of the ranges booked by open rentals: per car, one sorted array of non-overlapping
+ * {@code [start, end)} epoch days, so an overlap check is a binary search. Loaded from the rentals table once the
+ * application is ready (or on first use, if that comes earlier), then kept current by the rent and return use
+ * cases.
+ * <p>
+ * A car's array is replaced as a whole inside {@link ConcurrentHashMap#compute}, so the overlap check and the
+ * booking it guards are one atomic step and readers always see a consistent array. A booking counts from the moment
+ * it is made, before its transaction commits, so two requests in this process never both get the same days; the
+ * exclusion constraint on {@code rentals} has the last word across processes.
+ * <p>
+ * Bookings made by other instances reach this one in three ways: the whole index is rebuilt from {@code rentals}
+ * every {@code rentals.booking-index.rebuild-interval}, a car is reloaded when the exclusion constraint rejects a
+ * booking of it, and {@link #bookedBetween} reloads every car the database shows booked where the index does not.
+ * A scan may miss what this process booked or freed while it ran, so those changes are kept and replayed onto the
+ * scanned ranges.
+ */
+@Component
+@RequiredArgsConstructor
+public class CarBookingIndex implements BookCar, LoadBookings {
+    private static final String LOAD_OPEN = """
+            select car_id, start_date, planned_return_date from rentals
+            where status = 'OPEN'
+            order by car_id, start_date
+            """;
+    private static final String LOAD_CAR = """
+            select car_id, start_date, planned_return_date from rentals
+            where car_id = ? and status = 'OPEN'
+            order by start_date
+            """;
+    private static final String BOOKED_BETWEEN = """
+            select distinct car_id from rentals
+            where status = 'OPEN' and planned_return_date > ? and start_date < ?
+            """;
+    private static final RowMapper<long[]> ROW = (rs, n) -> new long[]{
+            rs.getLong(1), rs.getDate(2).toLocalDate().toEpochDay(), rs.getDate(3).toLocalDate().toEpochDay()};
+    /**
+     * Time of a booking whose transaction has not completed yet: newer than any scan.
+     */
+    private static final long PENDING = Long.MAX_VALUE;
+
+    /**
+     * A range this process booked ({@code booked}) or freed.
+     */
+    private record Change(long from, long to, boolean booked) {
+    }
+
+    private final JdbcTemplate jdbc;
+    private final Map<Long, Ranges> ranges = new ConcurrentHashMap<>();
+    /**
+     * Per car, the changes made since the last rebuild started and when they took effect; each map is replaced,
+     * never modified, so it can be read inside {@code ranges.compute}.
+     */
+    private final Map<Long, Map<Change, Long>> recent = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (loaded) return;
+        synchronized (this) {
+            if (loaded) return;
+            rebuildAll();
+            loaded = true;
+        }
+    }
+
+    /**
+     * Picks up bookings made and freed by other instances; a no-op until the index has been loaded.
+     */
+    @Scheduled(fixedDelayString = "${rentals.booking-index.rebuild-interval:5m}",
+            initialDelayString = "${rentals.booking-index.rebuild-interval:5m}")
+    public void rebuild() {
+        if (!loaded) return;
+        synchronized (this) {
+            rebuildAll();
+        }
+    }
+
+    @Override
+    public boolean book(long carId, LocalDate start, LocalDate end) {
+        load();
+        var change = new Change(start.toEpochDay(), end.toEpochDay(), true);
+        var booked = new boolean[1];
+        ranges.compute(carId, (id, current) -> {
+            var r = current == null ? Ranges.EMPTY : current;
+            if (r.overlaps(change.from(), change.to())) return current;
+            booked[0] = true;
+            remember(carId, change, PENDING);
+            return r.with(change.from(), change.to());
+        });
+        if (booked[0]) {
+            whenCompleted(committed -> {
+                if (committed) {
+                    remember(carId, change, System.nanoTime());
+                } else {
+                    forget(carId, change);
+                    remove(carId, change.from(), change.to());
+                }
+            });
+        }
+        return booked[0];
+    }
+
+    @Override
+    public void unbook(long carId, LocalDate start, LocalDate end) {
+        var change = new Change(start.toEpochDay(), end.toEpochDay(), false);
+        afterCommit(() -> {
+            remember(carId, change, System.nanoTime());
+            remove(carId, change.from(), change.to());
+        });
+    }
+
+    @Override
+    public void reload(long carId) {
+        whenCompleted(committed -> {
+            long scanStart = System.nanoTime();
+            var fromDb = group(jdbc.query(LOAD_CAR, ROW, carId));
+            apply(carId, fromDb.get(carId), scanStart);
+            prune(carId, scanStart);
+        });
+    }
+
+    @Override
+    public boolean isFree(long carId, LocalDate start, LocalDate end) {
+        load();
+        var r = ranges.get(carId);
+        return r == null || !r.overlaps(start.toEpochDay(), end.toEpochDay());
+    }
+
+    /**
+     * One query over the open rentals overlapping the window; a car the index still shows free there was booked by
+     * another instance, so it is reloaded on the way.
+     */
+    @Override
+    public Set<Long> bookedBetween(LocalDate start, LocalDate end) {
+        load();
+        var booked = new HashSet<>(jdbc.queryForList(BOOKED_BETWEEN, Long.class, Date.valueOf(start), Date.valueOf(end)));
+        for (long carId : booked) {
+            if (isFree(carId, start, end)) reload(carId);
+        }
+        return booked;
+    }
+
+    private void rebuildAll() {
+        long scanStart = System.nanoTime();
+        var fromDb = group(jdbc.query(LOAD_OPEN, ROW));
+        var carIds = new HashSet<>(fromDb.keySet());
+        carIds.addAll(ranges.keySet());
+        carIds.addAll(recent.keySet());
+        for (long carId : carIds) apply(carId, fromDb.get(carId), scanStart);
+        for (long carId : recent.keySet()) prune(carId, scanStart);
+    }
+
+    /**
+     * Replaces the car's ranges with the scanned ones plus what this process changed since the scan started, in
+     * the order it happened.
+     */
+    private void apply(long carId, Ranges scanned, long scanStart) {
+        ranges.compute(carId, (id, current) -> {
+            var r = scanned == null ? Ranges.EMPTY : scanned;
+            var changes = recent.getOrDefault(carId, Map.of()).entrySet().stream()
+                    .filter(e -> e.getValue() >= scanStart)
+                    .sorted(Map.Entry.comparingByValue())
+                    .map(Map.Entry::getKey)
+                    .toList();
+            for (var c : changes) {
+                if (!c.booked()) r = r.without(c.from(), c.to());
+                else if (!r.overlaps(c.from(), c.to())) r = r.with(c.from(), c.to());
+            }
+            return r.starts().length == 0 ? null : r;
+        });
+    }
+
+    private static Map<Long, Ranges> group(List<long[]> rows) {
+        var byCar = new HashMap<Long, Ranges>();
+        for (int first = 0, next; first < rows.size(); first = next) {
+            long carId = rows.get(first)[0];
+            next = first;
+            while (next < rows.size() && rows.get(next)[0] == carId) next++;
+            var starts = new long[next - first];
+            var ends = new long[next - first];
+            for (int i = first; i < next; i++) {
+                starts[i - first] = rows.get(i)[1];
+                ends[i - first] = rows.get(i)[2];
+            }
+            byCar.put(carId, new Ranges(starts, ends));
+        }
+        return byCar;
+    }
+
+    private void remember(long carId, Change change, long at) {
+        recent.compute(carId, (id, changes) -> {
+            var copy = changes == null ? new HashMap<Change, Long>() : new HashMap<>(changes);
+            copy.put(change, at);
+            return Map.copyOf(copy);
+        });
+    }
+
+    private void forget(long carId, Change change) {
+        recent.computeIfPresent(carId, (id, changes) -> {
+            var copy = new HashMap<>(changes);
+            copy.remove(change);
+            return copy.isEmpty() ? null : Map.copyOf(copy);
+        });
+    }
+
+    /**
+     * Drops the changes a scan started at {@code scanStart} has seen.
+     */
+    private void prune(long carId, long scanStart) {
+        recent.computeIfPresent(carId, (id, changes) -> {
+            var copy = new HashMap<>(changes);
+            copy.values().removeIf(at -> at < scanStart);
+            return copy.isEmpty() ? null : Map.copyOf(copy);
+        });
+    }
+
+    private void remove(long carId, long from, long to) {
+        ranges.computeIfPresent(carId, (id, r) -> {
+            var rest = r.without(from, to);
+            return rest.starts().length == 0 ? null : rest;
+        });
+    }
+
+    /**
+     * Sorted, non-overlapping ranges of one car, never modified once published. Because they do not overlap, the
+     * ends are sorted too.
+     */
+    private record Ranges(long[] starts, long[] ends) {
+        static final Ranges EMPTY = new Ranges(new long[0], new long[0]);
+
+        /** Index of the first range that ends after {@code day}, or the length if there is none. */
+        int firstEndingAfter(long day) {
+            int lo = 0, hi = ends.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (ends[mid] <= day) lo = mid + 1;
+                else hi = mid;
+            }
+            return lo;
+        }
+
+        boolean overlaps(long from, long to) {
+            int i = firstEndingAfter(from);
+            return i < ends.length && starts[i] < to;
+        }
+
+        /** Copy with {@code [from, to)} inserted; the caller has checked it overlaps nothing. */
+        Ranges with(long from, long to) {
+            int at = firstEndingAfter(from);
+            return new Ranges(insert(starts, at, from), insert(ends, at, to));
+        }
+
+        Ranges without(long from, long to) {
+            int at = firstEndingAfter(from);
+            if (at == ends.length || starts[at] != from || ends[at] != to) return this;
+            return new Ranges(delete(starts, at), delete(ends, at));
+        }
+
+        private static long[] insert(long[] a, int at, long value) {
+            var copy = Arrays.copyOf(a, a.length + 1);
+            System.arraycopy(a, at, copy, at + 1, a.length - at);
+            copy[at] = value;
+            return copy;
+        }
+
+        private static long[] delete(long[] a, int at) {
+            var copy = Arrays.copyOf(a, a.length - 1);
+            System.arraycopy(a, at + 1, copy, at, a.length - at - 1);
+            return copy;
+        }
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+
+    /**
+     * Runs {@code outcome} with whether the current transaction committed once it has completed, or right away
+     * (as committed) outside of one.
+     */
+    private static void whenCompleted(Consumer<Boolean> outcome) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            outcome.accept(true);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                outcome.accept(status == STATUS_COMMITTED);
+            }
+        });
+    }
+}
@@ -1,6 +1,7 @@
 package com.challenge.RentalCar.rentals.adapter.persistence;
 
 import com.challenge.RentalCar.inventory.domain.CarType;
+import com.challenge.RentalCar.shared.money.Money;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
@@ -8,7 +9,13 @@ import lombok.Setter;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "rentals")
+@Table(name = "rentals", indexes = {
+        @Index(name = "idx_rentals_status_planned_return", columnList = "status, planned_return_date"),
+        @Index(name = "idx_rentals_status_id", columnList = "status, id"),
+        @Index(name = "idx_rentals_customer_status_id", columnList = "customer_id, status, id"),
+        @Index(name = "idx_rentals_customer_summary", columnList = "customer_id, status, start_date, prepaid_amount"),
+        @Index(name = "idx_rentals_car_start", columnList = "car_id, start_date, id")
+})
 @Getter
 @Setter
 public class JpaRentalEntity {
@@ -21,9 +28,12 @@ public class JpaRentalEntity {
     CarType type;
     LocalDate startDate;
     int daysBooked;
-    double prepaidAmount;
+    LocalDate plannedReturnDate;
+    Money prepaidAmount;
     @Enumerated(EnumType.STRING)
     Status status;
+    LocalDate actualReturnDate;
+    Money surcharge;
 
     public enum Status {OPEN, RETURNED}
 }
@@ -1,65 +1,263 @@
 package com.challenge.RentalCar.rentals.adapter.persistence;
 
+import com.challenge.RentalCar.inventory.domain.CarType;
 import com.challenge.RentalCar.rentals.domain.Rental;
+import com.challenge.RentalCar.rentals.port.out.LoadOverdueRentals;
+import com.challenge.RentalCar.rentals.port.out.LoadPickUps;
 import com.challenge.RentalCar.rentals.port.out.LoadRental;
+import com.challenge.RentalCar.rentals.port.out.LoadRentalTotals;
+import com.challenge.RentalCar.rentals.port.out.ScanRentalIntervals;
 import com.challenge.RentalCar.rentals.port.out.SaveRental;
-import com.challenge.RentalCar.rentals.port.out.LoadRentals;
+import com.challenge.RentalCar.rentals.port.out.StreamRentals;
+import com.challenge.RentalCar.shared.money.Money;
+import com.challenge.RentalCar.shared.version.AggregateVersions;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static com.challenge.RentalCar.shared.version.AggregateVersions.Aggregate.RENTALS;
 
 @Component
+@Timed(value = "rentalcar.persistence", histogram = true)
 @RequiredArgsConstructor
-public class RentalPersistenceAdapter implements LoadRental, SaveRental, LoadRentals {
+public class RentalPersistenceAdapter implements LoadRental, SaveRental, StreamRentals, LoadOverdueRentals,
+        LoadRentalTotals, ScanRentalIntervals, LoadPickUps {
+    static final int SCAN_CHUNK = 5_000;
+
+    private static final String INSERT_RENTAL = """
+            insert into rentals (customer_id, car_id, type, start_date, days_booked, planned_return_date,
+                                 prepaid_amount, status, actual_return_date, surcharge)
+            values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+    private static final String MARK_RETURNED = """
+            update rentals set status = 'RETURNED', actual_return_date = ?, surcharge = ?
+            where id = ? and status = 'OPEN'
+            """;
+    private static final String STARTED_AVAILABLE = """
+            select distinct r.car_id from rentals r
+            join cars c on c.id = r.car_id
+            where r.car_id > ? and r.status = 'OPEN' and r.start_date <= ? and c.available
+            order by r.car_id
+            limit ?
+            """;
+    private static final String SCAN_FIRST = """
+            select id, car_id, type, start_date, coalesce(actual_return_date, planned_return_date) from rentals
+            where car_id between ? and ? and start_date <= ?
+              and coalesce(actual_return_date, planned_return_date) > ?
+              and coalesce(actual_return_date, planned_return_date) > start_date
+            order by car_id, start_date, id
+            limit ?
+            """;
+    private static final String SCAN_NEXT = """
+            select id, car_id, type, start_date, coalesce(actual_return_date, planned_return_date) from rentals
+            where car_id between ? and ? and start_date <= ?
+              and coalesce(actual_return_date, planned_return_date) > ?
+              and coalesce(actual_return_date, planned_return_date) > start_date
+              and (car_id, start_date, id) > (?, ?, ?)
+            order by car_id, start_date, id
+            limit ?
+            """;
+
     private final SpringDataRentalRepository repo;
+    private final JdbcTemplate jdbc;
+    private final EntityManager em;
+    private final AggregateVersions versions;
 
     @Override
     public Optional<Rental> byId(long id) {
         return repo.findById(id).map(this::toDomain);
     }
 
+    @Override
+    public List<Rental> byIds(Collection<Long> ids) {
+        return repo.findAllById(ids).stream().map(this::toDomain).toList();
+    }
+
     @Override
     public Rental save(Rental rental) {
+        if (rental.getId() != null) {
+            throw new IllegalArgumentException("rental " + rental.getId() + " already exists, use markReturned");
+        }
         var saved = repo.save(toEntity(rental));
-        if (rental.getId() == null) rental.assignId(saved.getId());
+        rental.assignId(saved.getId());
+        versions.bumpAfterCommit(RENTALS);
         return rental;
     }
 
+    /**
+     * Touches only the return columns, without the SELECT and full-row write a merge of a detached entity costs.
+     */
+    @Override
+    public boolean markReturned(Return returned) {
+        if (repo.updateReturned(returned.rentalId(), returned.actualReturnDate(), returned.surcharge(),
+                JpaRentalEntity.Status.OPEN, JpaRentalEntity.Status.RETURNED) != 1) return false;
+        versions.bumpAfterCommit(RENTALS);
+        return true;
+    }
+
+    /**
+     * Locks the open rows first so the caller learns exactly which rentals it returned, the same way
+     * {@code reserveAll} hands back the cars it took, then writes each one's date and surcharge in one JDBC batch.
+     */
     @Override
-    public List<Rental> findAll() {
-        return repo.findAll().stream().map(this::toDomain).toList();
+    @Transactional
+    public Set<Long> markAllReturned(Collection<Return> returns) {
+        if (returns.isEmpty()) return Set.of();
+        var byId = new HashMap<Long, Return>();
+        for (var r : returns) byId.putIfAbsent(r.rentalId(), r);
+        var returned = new HashSet<Long>();
+        var rows = new ArrayList<Object[]>();
+        for (var e : repo.lockByStatus(byId.keySet(), JpaRentalEntity.Status.OPEN)) {
+            var r = byId.get(e.getId());
+            returned.add(r.rentalId());
+            rows.add(new Object[]{Date.valueOf(r.actualReturnDate()), r.surcharge().minorUnits(), r.rentalId()});
+        }
+        if (returned.isEmpty()) return returned;
+        jdbc.batchUpdate(MARK_RETURNED, rows);
+        versions.bumpAfterCommit(RENTALS);
+        return returned;
     }
 
+    /**
+     * IDENTITY ids make Hibernate give up on insert batching, so new rentals go through one JDBC batch.
+     */
     @Override
-    public List<Rental> findByStatus(Rental.Status status) {
-        var statusCheck = status == Rental.Status.OPEN
-                ? JpaRentalEntity.Status.OPEN : JpaRentalEntity.Status.RETURNED;
-        return repo.findByStatus(statusCheck).stream().map(this::toDomain).toList();
+    public List<Rental> saveAll(List<Rental> rentals) {
+        if (rentals.isEmpty()) return rentals;
+        var keys = new GeneratedKeyHolder();
+        jdbc.batchUpdate(con -> con.prepareStatement(INSERT_RENTAL, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        var rental = rentals.get(i);
+                        ps.setLong(1, rental.getCustomerId());
+                        ps.setLong(2, rental.getCarId());
+                        ps.setString(3, rental.getType().name());
+                        ps.setDate(4, Date.valueOf(rental.getStartDate()));
+                        ps.setInt(5, rental.getDaysBooked());
+                        ps.setDate(6, Date.valueOf(rental.getPlannedReturnDate()));
+                        ps.setLong(7, rental.getPrepaidAmount().minorUnits());
+                        ps.setString(8, rental.getStatus().name());
+                        ps.setObject(9, rental.getActualReturnDate() == null ? null
+                                : Date.valueOf(rental.getActualReturnDate()), Types.DATE);
+                        ps.setLong(10, rental.getSurcharge().minorUnits());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return rentals.size();
+                    }
+                }, keys);
+        var generated = keys.getKeyList();
+        for (int i = 0; i < rentals.size(); i++) {
+            rentals.get(i).assignId(((Number) generated.get(i).get("id")).longValue());
+        }
+        versions.bumpAfterCommit(RENTALS);
+        return rentals;
     }
 
     @Override
-    public List<Rental> findByCustomer(long customerId) {
-        return repo.findByCustomerId(customerId).stream().map(this::toDomain).toList();
+    public List<Rental> findOverdue(LocalDate asOf) {
+        return repo.findByStatusAndPlannedReturnDateLessThanOrderByPlannedReturnDateAsc(JpaRentalEntity.Status.OPEN, asOf)
+                .stream().map(this::toDomain).toList();
     }
 
     @Override
-    public List<Rental> findByCustomerAndStatus(long customerId, Rental.Status status) {
-        var statusCheck = status == Rental.Status.OPEN
-                ? JpaRentalEntity.Status.OPEN : JpaRentalEntity.Status.RETURNED;
-        return repo.findByCustomerIdAndStatus(customerId, statusCheck).stream().map(this::toDomain).toList();
+    public List<Long> startedAvailableCarIds(LocalDate day, long afterCarId, int limit) {
+        return jdbc.queryForList(STARTED_AVAILABLE, Long.class, afterCarId, Date.valueOf(day), limit);
     }
 
-    private Rental toDomain(JpaRentalEntity jpaRentalEntity) {
+    @Override
+    public Set<Long> startedCarIds(Collection<Long> carIds, LocalDate day) {
+        if (carIds.isEmpty()) return Set.of();
+        return repo.carIdsStartedBy(carIds, JpaRentalEntity.Status.OPEN, day);
+    }
+
+    @Override
+    public Totals forCustomer(long customerId) {
+        var row = repo.totalsByCustomerId(customerId, JpaRentalEntity.Status.OPEN);
+        return new Totals(row.rentals(), row.openRentals(), Money.of(row.prepaidMinorUnits()), row.lastStartDate());
+    }
+
+    /**
+     * Keyset chunks over {@code idx_rentals_car_start}: each statement resumes after the last (car, start, id) it
+     * saw, so a chunk costs the same wherever it is in the range and no statement stays open between chunks. A
+     * returned rental ends on its actual return date, late or early; one returned on or before its start date was
+     * cancelled and is skipped.
+     */
+    @Override
+    public void scan(long fromCarId, long toCarId, LocalDate from, LocalDate to, Consumer<Interval> sink) {
+        var before = Date.valueOf(to);
+        var after = Date.valueOf(from);
+        ScannedRow last = null;
+        while (true) {
+            var chunk = last == null
+                    ? jdbc.query(SCAN_FIRST, SCAN_ROW, fromCarId, toCarId, before, after, SCAN_CHUNK)
+                    : jdbc.query(SCAN_NEXT, SCAN_ROW, fromCarId, toCarId, before, after,
+                    last.interval().carId(), Date.valueOf(last.interval().start()), last.id(), SCAN_CHUNK);
+            for (var row : chunk) sink.accept(row.interval());
+            if (chunk.size() < SCAN_CHUNK) return;
+            last = chunk.getLast();
+        }
+    }
+
+    private record ScannedRow(long id, Interval interval) {
+    }
+
+    private static final RowMapper<ScannedRow> SCAN_ROW = (rs, n) -> new ScannedRow(rs.getLong(1), new Interval(
+            rs.getLong(2), CarType.valueOf(rs.getString(3)),
+            rs.getDate(4).toLocalDate(), rs.getDate(5).toLocalDate()));
+
+    /**
+     * Each row is detached once mapped so the persistence context stays empty however long the export runs.
+     */
+    @Override
+    public Stream<Rental> streamAll(Long customerId, Rental.Status status) {
+        Stream<JpaRentalEntity> rows;
+        if (customerId == null) {
+            rows = status == null ? repo.streamAllByOrderByIdAsc() : repo.streamByStatusOrderByIdAsc(toEntityStatus(status));
+        } else {
+            rows = status == null ? repo.streamByCustomerIdOrderByIdAsc(customerId)
+                    : repo.streamByCustomerIdAndStatusOrderByIdAsc(customerId, toEntityStatus(status));
+        }
+        return rows.map(e -> {
+            var rental = toDomain(e);
+            em.detach(e);
+            return rental;
+        });
+    }
+
+    Rental toDomain(JpaRentalEntity jpaRentalEntity) {
         return Rental.reconstitute(
                 jpaRentalEntity.getId(), jpaRentalEntity.getCustomerId(), jpaRentalEntity.getCarId(), jpaRentalEntity.getType(),
                 jpaRentalEntity.getStartDate(), jpaRentalEntity.getDaysBooked(), jpaRentalEntity.getPrepaidAmount(),
-                jpaRentalEntity.getStatus() == JpaRentalEntity.Status.OPEN ? Rental.Status.OPEN : Rental.Status.RETURNED
+                jpaRentalEntity.getStatus() == JpaRentalEntity.Status.OPEN ? Rental.Status.OPEN : Rental.Status.RETURNED,
+                jpaRentalEntity.getActualReturnDate(), jpaRentalEntity.getSurcharge()
         );
     }
 
-    private JpaRentalEntity toEntity(Rental rental) {
+    JpaRentalEntity toEntity(Rental rental) {
         var jpaRentalEntity = new JpaRentalEntity();
         jpaRentalEntity.setId(rental.getId());
         jpaRentalEntity.setCustomerId(rental.getCustomerId());
@@ -67,9 +265,15 @@ public class RentalPersistenceAdapter implements LoadRental, SaveRental, LoadRen
         jpaRentalEntity.setType(rental.getType());
         jpaRentalEntity.setStartDate(rental.getStartDate());
         jpaRentalEntity.setDaysBooked(rental.getDaysBooked());
+        jpaRentalEntity.setPlannedReturnDate(rental.getPlannedReturnDate());
         jpaRentalEntity.setPrepaidAmount(rental.getPrepaidAmount());
-        jpaRentalEntity.setStatus(rental.getStatus() == Rental.Status.OPEN
-                ? JpaRentalEntity.Status.OPEN : JpaRentalEntity.Status.RETURNED);
+        jpaRentalEntity.setStatus(toEntityStatus(rental.getStatus()));
+        jpaRentalEntity.setActualReturnDate(rental.getActualReturnDate());
+        jpaRentalEntity.setSurcharge(rental.getSurcharge());
         return jpaRentalEntity;
     }
+
+    private static JpaRentalEntity.Status toEntityStatus(Rental.Status status) {
+        return status == Rental.Status.OPEN ? JpaRentalEntity.Status.OPEN : JpaRentalEntity.Status.RETURNED;
+    }
 }
@@ -1,12 +1,100 @@
 package com.challenge.RentalCar.rentals.adapter.persistence;
 
 import com.challenge.RentalCar.rentals.adapter.persistence.JpaRentalEntity.Status;
+import com.challenge.RentalCar.shared.money.Money;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
 
 public interface SpringDataRentalRepository extends JpaRepository<JpaRentalEntity, Long> {
-    List<JpaRentalEntity> findByStatus(Status status);
-    List<JpaRentalEntity> findByCustomerId(long customerId);
-    List<JpaRentalEntity> findByCustomerIdAndStatus(long customerId, Status status);
+    int STREAM_FETCH_SIZE = 500;
+
+    /**
+     * Range scan on {@code (status, planned_return_date)}: the index hands rows back already in order.
+     */
+    List<JpaRentalEntity> findByStatusAndPlannedReturnDateLessThanOrderByPlannedReturnDateAsc(Status status,
+                                                                                            LocalDate before);
+
+    /**
+     * Aggregates over one customer's rentals; the prepaid sum is in minor units.
+     */
+    record TotalsRow(long rentals, long openRentals, long prepaidMinorUnits, LocalDate lastStartDate) {
+    }
+
+    /**
+     * One row of aggregates over the customer's rentals, read from {@code idx_rentals_customer_summary} alone.
+     */
+    @Query("""
+            select new com.challenge.RentalCar.rentals.adapter.persistence.SpringDataRentalRepository$TotalsRow(
+                count(r), coalesce(sum(case when r.status = :open then 1L else 0L end), 0L),
+                coalesce(sum(cast(r.prepaidAmount as Long)), 0L), max(r.startDate))
+            from JpaRentalEntity r where r.customerId = :customerId
+            """)
+    TotalsRow totalsByCustomerId(@Param("customerId") long customerId, @Param("open") Status open);
+
+    @Transactional
+    @Modifying
+    @Query("""
+            update JpaRentalEntity r set r.status = :to, r.actualReturnDate = :actualReturnDate, r.surcharge = :surcharge
+            where r.id = :id and r.status = :from
+            """)
+    int updateReturned(@Param("id") long id, @Param("actualReturnDate") LocalDate actualReturnDate,
+                       @Param("surcharge") Money surcharge, @Param("from") Status from, @Param("to") Status to);
+
+    /**
+     * Row-locks the rentals among {@code ids} still in {@code status}, in id order so concurrent batches cannot
+     * deadlock.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from JpaRentalEntity r where r.id in :ids and r.status = :status order by r.id")
+    List<JpaRentalEntity> lockByStatus(@Param("ids") Collection<Long> ids, @Param("status") Status status);
+
+    @Query("""
+            select distinct r.carId from JpaRentalEntity r
+            where r.carId in :carIds and r.status = :status and r.startDate <= :day
+            """)
+    Set<Long> carIdsStartedBy(@Param("carIds") Collection<Long> carIds, @Param("status") Status status,
+                              @Param("day") LocalDate day);
+
+    /**
+     * Cursor-backed reads for exports: the driver fetches {@value #STREAM_FETCH_SIZE} rows at a time instead of
+     * buffering the whole result. One method per filter combination, so each one gets its own index instead of
+     * an {@code :x is null or ...} predicate no planner can use.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<JpaRentalEntity> streamAllByOrderByIdAsc();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<JpaRentalEntity> streamByStatusOrderByIdAsc(Status status);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<JpaRentalEntity> streamByCustomerIdOrderByIdAsc(long customerId);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<JpaRentalEntity> streamByCustomerIdAndStatusOrderByIdAsc(long customerId, Status status);
 }
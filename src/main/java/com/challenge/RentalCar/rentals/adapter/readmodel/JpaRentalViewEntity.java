@@ -0,0 +1,36 @@
+package com.challenge.RentalCar.rentals.adapter.readmodel;
+
+import com.challenge.RentalCar.shared.money.Money;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+/**
+ * One row per rental in exactly the {@code ListRentals.View} shape: ids are the rental's own, type and status
+ * are plain strings and the planned return date is stored, so reads select straight into the view.
+ */
+@Entity
+@Table(name = "rental_views", indexes = {
+        @Index(name = "idx_rental_views_status_id", columnList = "status, id"),
+        @Index(name = "idx_rental_views_customer_id", columnList = "customer_id, id"),
+        @Index(name = "idx_rental_views_customer_status_id", columnList = "customer_id, status, id")
+})
+@Getter
+@Setter
+public class JpaRentalViewEntity {
+    @Id
+    Long id;
+    Long customerId;
+    Long carId;
+    String type;
+    LocalDate startDate;
+    int daysBooked;
+    LocalDate plannedReturnDate;
+    Money prepaidAmount;
+    String status;
+}
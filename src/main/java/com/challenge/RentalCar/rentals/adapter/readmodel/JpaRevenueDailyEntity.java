@@ -0,0 +1,46 @@
+package com.challenge.RentalCar.rentals.adapter.readmodel;
+
+import com.challenge.RentalCar.inventory.domain.CarType;
+import com.challenge.RentalCar.shared.money.Money;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * One row per day and car type with running totals, added to by the rent and return transactions; the primary key
+ * leads with the date, so a report over a window is one range scan.
+ */
+@Entity
+@Table(name = "revenue_daily")
+@IdClass(JpaRevenueDailyEntity.Key.class)
+@Getter
+@Setter
+public class JpaRevenueDailyEntity {
+    @Id
+    LocalDate revenueDate;
+    @Id
+    @Enumerated(EnumType.STRING)
+    CarType carType;
+    Money prepaidTotal;
+    Money surchargeTotal;
+    long rentals;
+
+    @EqualsAndHashCode
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        LocalDate revenueDate;
+        CarType carType;
+    }
+}
@@ -0,0 +1,106 @@
+package com.challenge.RentalCar.rentals.adapter.readmodel;
+
+import com.challenge.RentalCar.rentals.domain.Rental;
+import com.challenge.RentalCar.rentals.port.in.ListRentals.View;
+import com.challenge.RentalCar.rentals.port.out.LoadRentalViews;
+import com.challenge.RentalCar.rentals.port.out.ProjectRentals;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The {@code rental_views} table: written by the rent and return transactions, read by {@code GET /rentals}
+ * without touching {@code rentals} or the domain mapping.
+ */
+@Component
+@Timed(value = "rentalcar.persistence", histogram = true)
+@RequiredArgsConstructor
+public class RentalViewAdapter implements LoadRentalViews, ProjectRentals {
+    private static final String INSERT_VIEW = """
+            insert into rental_views (id, customer_id, car_id, type, start_date, days_booked,
+                                      planned_return_date, prepaid_amount, status)
+            values (?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final SpringDataRentalViewRepository repo;
+    private final JdbcTemplate jdbc;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Plain INSERTs: the id is the rental's, so a repository save would merge and SELECT first.
+     */
+    @Override
+    public void opened(Rental rental) {
+        jdbc.update(INSERT_VIEW, row(rental));
+    }
+
+    @Override
+    public void openedAll(List<Rental> rentals) {
+        if (rentals.isEmpty()) return;
+        jdbc.batchUpdate(INSERT_VIEW, rentals.stream().map(RentalViewAdapter::row).toList());
+    }
+
+    @Override
+    public void returned(long rentalId) {
+        repo.updateStatus(rentalId, Rental.Status.RETURNED.name());
+    }
+
+    @Override
+    public void returnedAll(Collection<Long> rentalIds) {
+        if (rentalIds.isEmpty()) return;
+        repo.updateStatusAll(rentalIds, Rental.Status.RETURNED.name());
+    }
+
+    @Override
+    public List<View> findAll(long afterId, int limit) {
+        return recordSize("all", repo.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(limit)));
+    }
+
+    @Override
+    public List<View> findByStatus(Rental.Status status, long afterId, int limit) {
+        return recordSize("status",
+                repo.findByStatusAndIdGreaterThanOrderByIdAsc(status.name(), afterId, Limit.of(limit)));
+    }
+
+    @Override
+    public List<View> findByCustomer(long customerId, long afterId, int limit) {
+        return recordSize("customer",
+                repo.findByCustomerIdAndIdGreaterThanOrderByIdAsc(customerId, afterId, Limit.of(limit)));
+    }
+
+    @Override
+    public List<View> findByCustomerAndStatus(long customerId, Rental.Status status, long afterId, int limit) {
+        return recordSize("customer_status", repo.findByCustomerIdAndStatusAndIdGreaterThanOrderByIdAsc(
+                customerId, status.name(), afterId, Limit.of(limit)));
+    }
+
+    /**
+     * Rows per LoadRentalViews query as {@code rentalcar.rentals.load.size}; a page that is mostly empty or
+     * always full shows up here before it shows up in latency.
+     */
+    private List<View> recordSize(String query, List<View> rows) {
+        DistributionSummary.builder("rentalcar.rentals.load.size")
+                .tag("query", query)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(rows.size());
+        return rows;
+    }
+
+    static Object[] row(Rental rental) {
+        return new Object[]{
+                rental.getId(), rental.getCustomerId(), rental.getCarId(), rental.getType().name(),
+                Date.valueOf(rental.getStartDate()), rental.getDaysBooked(),
+                Date.valueOf(rental.getPlannedReturnDate()),
+                rental.getPrepaidAmount().minorUnits(), rental.getStatus().name()
+        };
+    }
+}
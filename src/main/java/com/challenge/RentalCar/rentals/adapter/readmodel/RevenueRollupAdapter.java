@@ -0,0 +1,109 @@
+package com.challenge.RentalCar.rentals.adapter.readmodel;
+
+import com.challenge.RentalCar.inventory.domain.CarType;
+import com.challenge.RentalCar.rentals.domain.Rental;
+import com.challenge.RentalCar.rentals.port.in.ReportRevenue.Day;
+import com.challenge.RentalCar.rentals.port.out.LoadRevenue;
+import com.challenge.RentalCar.rentals.port.out.RecordRevenue;
+import com.challenge.RentalCar.shared.money.Money;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The {@code revenue_daily} table: rent and return add their amounts to the row of the day and car type they
+ * belong to, so {@code GET /analytics/revenue} reads one row per day and type instead of every rental.
+ */
+@Component
+@Timed(value = "rentalcar.persistence", histogram = true)
+@RequiredArgsConstructor
+public class RevenueRollupAdapter implements RecordRevenue, LoadRevenue {
+    private static final String CREATE_ROW = """
+            insert into revenue_daily (revenue_date, car_type, prepaid_total, surcharge_total, rentals)
+            values (?, ?, 0, 0, 0)
+            on conflict do nothing
+            """;
+    private static final String ADD_TO_ROW = """
+            update revenue_daily
+            set prepaid_total = prepaid_total + ?, surcharge_total = surcharge_total + ?, rentals = rentals + ?
+            where revenue_date = ? and car_type = ?
+            """;
+    private static final String SELECT_BETWEEN = """
+            select revenue_date, car_type, prepaid_total, surcharge_total, rentals from revenue_daily
+            where revenue_date between ? and ?
+            order by revenue_date, car_type
+            """;
+    private static final Comparator<Key> KEY_ORDER = Comparator.comparing(Key::date).thenComparing(Key::type);
+
+    private final JdbcTemplate jdbc;
+
+    @Override
+    public void rented(Collection<Rental> rentals) {
+        var deltas = new TreeMap<Key, Delta>(KEY_ORDER);
+        for (var r : rentals) {
+            deltas.merge(new Key(r.getStartDate(), r.getType()),
+                    new Delta(r.getPrepaidAmount().minorUnits(), 0, 1), Delta::plus);
+        }
+        apply(deltas);
+    }
+
+    /**
+     * On-time returns add nothing and leave the rollup untouched.
+     */
+    @Override
+    public void returned(Collection<Rental> rentals) {
+        var deltas = new TreeMap<Key, Delta>(KEY_ORDER);
+        for (var r : rentals) {
+            if (r.getSurcharge().minorUnits() == 0) continue;
+            deltas.merge(new Key(r.getActualReturnDate(), r.getType()),
+                    new Delta(0, r.getSurcharge().minorUnits(), 0), Delta::plus);
+        }
+        apply(deltas);
+    }
+
+    @Override
+    public List<Day> between(LocalDate from, LocalDate to) {
+        return jdbc.query(SELECT_BETWEEN, DAY, Date.valueOf(from), Date.valueOf(to));
+    }
+
+    /**
+     * One batch creating whatever rows are missing, then one batch of relative updates, both in (date, type)
+     * order: concurrent transactions take the row locks in the same order and cannot deadlock, and an increment
+     * never overwrites another transaction's.
+     */
+    private void apply(Map<Key, Delta> deltas) {
+        if (deltas.isEmpty()) return;
+        jdbc.batchUpdate(CREATE_ROW, deltas.keySet().stream()
+                .map(k -> new Object[]{Date.valueOf(k.date()), k.type().name()})
+                .toList());
+        jdbc.batchUpdate(ADD_TO_ROW, deltas.entrySet().stream()
+                .map(e -> new Object[]{e.getValue().prepaid(), e.getValue().surcharge(), e.getValue().rentals(),
+                        Date.valueOf(e.getKey().date()), e.getKey().type().name()})
+                .toList());
+    }
+
+    private record Key(LocalDate date, CarType type) {
+    }
+
+    /**
+     * Amounts in minor units of {@link Money#CURRENCY}, the unit of the rollup's columns.
+     */
+    private record Delta(long prepaid, long surcharge, long rentals) {
+        Delta plus(Delta other) {
+            return new Delta(prepaid + other.prepaid, surcharge + other.surcharge, rentals + other.rentals);
+        }
+    }
+
+    private static final RowMapper<Day> DAY = (rs, n) -> new Day(rs.getDate(1).toLocalDate(),
+            CarType.valueOf(rs.getString(2)), Money.of(rs.getLong(3)), Money.of(rs.getLong(4)), rs.getLong(5));
+}
@@ -0,0 +1,35 @@
+package com.challenge.RentalCar.rentals.adapter.readmodel;
+
+import com.challenge.RentalCar.rentals.port.in.ListRentals.View;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Derived queries project straight into {@link View} with a constructor expression: no entity is
+ * materialized or managed on the read path.
+ */
+public interface SpringDataRentalViewRepository extends JpaRepository<JpaRentalViewEntity, Long> {
+
+    List<View> findByIdGreaterThanOrderByIdAsc(long afterId, Limit limit);
+    List<View> findByStatusAndIdGreaterThanOrderByIdAsc(String status, long afterId, Limit limit);
+    List<View> findByCustomerIdAndIdGreaterThanOrderByIdAsc(long customerId, long afterId, Limit limit);
+    List<View> findByCustomerIdAndStatusAndIdGreaterThanOrderByIdAsc(long customerId, String status,
+                                                                     long afterId, Limit limit);
+
+    @Transactional
+    @Modifying
+    @Query("update JpaRentalViewEntity v set v.status = :status where v.id = :id")
+    int updateStatus(@Param("id") long id, @Param("status") String status);
+
+    @Transactional
+    @Modifying
+    @Query("update JpaRentalViewEntity v set v.status = :status where v.id in :ids")
+    int updateStatusAll(@Param("ids") Collection<Long> ids, @Param("status") String status);
+}
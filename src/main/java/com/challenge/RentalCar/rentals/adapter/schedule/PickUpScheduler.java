@@ -0,0 +1,40 @@
+package com.challenge.RentalCar.rentals.adapter.schedule;
+
+import com.challenge.RentalCar.rentals.port.in.PickUpBookedCars;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Runs the pick-up once the application is ready, to catch up on bookings that started while it was down, and
+ * then at the start of every day ({@code rentals.pick-up.cron}).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PickUpScheduler {
+    private final PickUpBookedCars pickUp;
+
+    /**
+     * A failed catch-up must not keep the application from starting; the next scheduled run picks up what it
+     * missed.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void catchUp() {
+        try {
+            pickUp.handle(LocalDate.now());
+        } catch (RuntimeException e) {
+            log.error("Pick-up at startup failed; started bookings get their cars on the next scheduled run", e);
+        }
+    }
+
+    @Scheduled(cron = "${rentals.pick-up.cron:0 0 0 * * *}")
+    public void pickUp() {
+        pickUp.handle(LocalDate.now());
+    }
+}
@@ -0,0 +1,54 @@
+package com.challenge.RentalCar.rentals.adapter.web;
+
+import com.challenge.RentalCar.rentals.port.in.ReportRevenue;
+import com.challenge.RentalCar.rentals.port.in.ReportUtilization;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.util.Locale;
+
+@RestController
+@RequestMapping("/analytics")
+@RequiredArgsConstructor
+public class AnalyticsController {
+    private final ReportUtilization reportUtilization;
+    private final ReportRevenue reportRevenue;
+
+    /**
+     * GET /analytics/utilization?from=2025-09-01&to=2025-09-30&granularity=day|week|month (default day), share of
+     * rented days per car type and period, and per car over the whole window
+     */
+    @GetMapping("/utilization")
+    public ReportUtilization.Report utilization(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "day") String granularity) {
+        return reportUtilization.handle(new ReportUtilization.Query(from, to, granularity(granularity)));
+    }
+
+    /**
+     * GET /analytics/revenue?from=2025-09-01&to=2025-09-30, prepaid and surcharge revenue per day and car type,
+     * read from the daily rollup
+     */
+    @GetMapping("/revenue")
+    public ReportRevenue.Report revenue(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return reportRevenue.handle(new ReportRevenue.Query(from, to));
+    }
+
+    private static ReportUtilization.Granularity granularity(String value) {
+        try {
+            return ReportUtilization.Granularity.valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "granularity must be day, week or month");
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.challenge.RentalCar.rentals.adapter.web;
+
+import com.challenge.RentalCar.inventory.domain.CarType;
+import com.challenge.RentalCar.rentals.port.in.QuotePrices;
+import com.challenge.RentalCar.shared.money.MoneyJson;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.exc.StreamReadException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+@RestController
+@RequestMapping("/quotes")
+@RequiredArgsConstructor
+public class QuoteController {
+    private static final CarType[] TYPES = CarType.values();
+    private static final char[][] TYPE_NAMES =
+            Arrays.stream(TYPES).map(t -> t.name().toCharArray()).toArray(char[][]::new);
+
+    private final QuotePrices quotePrices;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * POST /quotes with [{"type":"SUV","days":9,"lateDays":2}, ...] (lateDays optional), the prepaid amount and
+     * late fee of each item in request order. Request and response go token by token through the parser and
+     * generator, no item is bound to or written from an object.
+     */
+    @PostMapping
+    public void quote(InputStream body, HttpServletResponse response) throws IOException {
+        var batch = read(body);
+        var quotes = quotePrices.handle(batch);
+        var currency = quotes.currency();
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        try (JsonGenerator gen = objectMapper.createGenerator(response.getOutputStream())) {
+            gen.writeStartArray();
+            for (int i = 0; i < batch.size(); i++) {
+                gen.writeStartObject();
+                gen.writeStringField("type", batch.types()[i].name());
+                gen.writeNumberField("days", batch.days()[i]);
+                gen.writeNumberField("lateDays", batch.lateDays()[i]);
+                gen.writeFieldName("prepaid");
+                MoneyJson.writeAmount(gen, quotes.prepaid()[i], currency);
+                gen.writeFieldName("lateFee");
+                MoneyJson.writeAmount(gen, quotes.lateFee()[i], currency);
+                gen.writeEndObject();
+            }
+            gen.writeEndArray();
+        }
+    }
+
+    private QuotePrices.Batch read(InputStream body) throws IOException {
+        try (JsonParser p = objectMapper.createParser(body)) {
+            if (p.nextToken() != JsonToken.START_ARRAY) throw badRequest("expected an array of quotes");
+            var types = new CarType[16];
+            var days = new int[16];
+            var lateDays = new int[16];
+            int n = 0;
+            while (p.nextToken() == JsonToken.START_OBJECT) {
+                if (n == types.length) {
+                    types = Arrays.copyOf(types, n * 2);
+                    days = Arrays.copyOf(days, n * 2);
+                    lateDays = Arrays.copyOf(lateDays, n * 2);
+                }
+                String field;
+                while ((field = p.nextFieldName()) != null) {
+                    p.nextToken();
+                    switch (field) {
+                        case "type" -> types[n] = carType(p);
+                        case "days" -> days[n] = intValue(p, "days");
+                        case "lateDays" -> lateDays[n] =
+                                p.currentToken() == JsonToken.VALUE_NULL ? 0 : intValue(p, "lateDays");
+                        default -> p.skipChildren();
+                    }
+                }
+                n++;
+            }
+            if (p.currentToken() != JsonToken.END_ARRAY) throw badRequest("expected an array of quotes");
+            return new QuotePrices.Batch(types, days, lateDays, n);
+        } catch (StreamReadException e) {
+            throw badRequest("malformed quote request");
+        }
+    }
+
+    /**
+     * Matches the token's characters against the type names, so known types cost no string.
+     */
+    private static CarType carType(JsonParser p) throws IOException {
+        if (p.currentToken() == JsonToken.VALUE_NULL) return null;
+        if (p.currentToken() != JsonToken.VALUE_STRING) throw badRequest("type must be a string");
+        char[] text = p.getTextCharacters();
+        int from = p.getTextOffset();
+        int to = from + p.getTextLength();
+        for (int i = 0; i < TYPES.length; i++) {
+            if (Arrays.equals(TYPE_NAMES[i], 0, TYPE_NAMES[i].length, text, from, to)) return TYPES[i];
+        }
+        throw badRequest("unknown car type " + p.getText());
+    }
+
+    private static int intValue(JsonParser p, String field) throws IOException {
+        if (p.currentToken() != JsonToken.VALUE_NUMBER_INT) throw badRequest(field + " must be an integer");
+        return p.getIntValue();
+    }
+
+    private static ResponseStatusException badRequest(String reason) {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, reason);
+    }
+}
@@ -2,26 +2,67 @@ package com.challenge.RentalCar.rentals.adapter.web;
 
 import com.challenge.RentalCar.rentals.port.in.RentCar;
 import com.challenge.RentalCar.rentals.port.in.ReturnCar;
+import com.challenge.RentalCar.rentals.port.in.SubmitRentCar;
+import com.challenge.RentalCar.shared.idempotency.IdempotentRequests;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/rentals")
 @RequiredArgsConstructor
 public class RentalController {
     private final RentCar rentCar;
     private final ReturnCar returnCar;
+    private final ObjectProvider<SubmitRentCar> groupCommit;
+    private final IdempotentRequests idempotent;
 
+    /**
+     * POST /rentals, answered from the group-commit queue when {@code rentals.group-commit.enabled} is on,
+     * otherwise in its own transaction on the request thread. With an {@code Idempotency-Key} a retry gets
+     * the first result back instead of a second rental.
+     */
     @PostMapping
-    public RentCar.Result rent(@RequestBody RentCar.Command cmd) {
-        return rentCar.handle(cmd);
+    public CompletableFuture<RentCar.Result> rent(@RequestBody RentCar.Command cmd,
+                                                  @RequestHeader(name = "Idempotency-Key", required = false)
+                                                  String key) {
+        if (key == null) return submit(cmd);
+        return idempotent.execute("rent", key, cmd, RentCar.Result.class, () -> submit(cmd));
+    }
+
+    private CompletableFuture<RentCar.Result> submit(RentCar.Command cmd) {
+        var pipeline = groupCommit.getIfAvailable();
+        return pipeline != null ? pipeline.submit(cmd) : CompletableFuture.completedFuture(rentCar.handle(cmd));
+    }
+
+    /**
+     * POST /rentals/batch, one item per command in request order
+     */
+    @PostMapping("/batch")
+    public List<RentCar.BatchItem> rentBatch(@RequestBody List<RentCar.Command> cmds) {
+        return rentCar.handleBatch(cmds);
+    }
+
+    /**
+     * POST /rentals/returns, one item per command in request order
+     */
+    @PostMapping("/returns")
+    public List<ReturnCar.BatchItem> returnBatch(@RequestBody List<ReturnCar.Command> cmds) {
+        return returnCar.handleBatch(cmds);
     }
 
     @PostMapping("/{id}/return")
-    public ReturnCar.Result doReturn(@PathVariable("id") long id,
-                                     @RequestBody ReturnCar.Command body) {
+    public CompletableFuture<ReturnCar.Result> doReturn(@PathVariable("id") long id,
+                                                        @RequestBody ReturnCar.Command body,
+                                                        @RequestHeader(name = "Idempotency-Key", required = false)
+                                                        String key) {
         var cmd = new ReturnCar.Command(id, body.actualReturnDate());
-        return returnCar.handle(cmd);
+        if (key == null) return CompletableFuture.completedFuture(returnCar.handle(cmd));
+        return idempotent.execute("return", key, cmd, ReturnCar.Result.class,
+                () -> CompletableFuture.completedFuture(returnCar.handle(cmd)));
     }
 }
 
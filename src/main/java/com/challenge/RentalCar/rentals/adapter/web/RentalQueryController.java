@@ -1,25 +1,101 @@
 package com.challenge.RentalCar.rentals.adapter.web;
 
+import com.challenge.RentalCar.rentals.port.in.ExportRentals;
+import com.challenge.RentalCar.rentals.port.in.ListOverdueRentals;
 import com.challenge.RentalCar.rentals.port.in.ListRentals;
-import lombok.RequiredArgsConstructor;
+import com.challenge.RentalCar.shared.version.AggregateVersions;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
+import static com.challenge.RentalCar.shared.version.AggregateVersions.Aggregate.RENTALS;
+
 @RestController
 @RequestMapping("/rentals")
-@RequiredArgsConstructor
 public class RentalQueryController {
+    static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     private final ListRentals listRentals;
+    private final ExportRentals exportRentals;
+    private final ListOverdueRentals listOverdue;
+    private final ObjectMapper objectMapper;
+    private final AggregateVersions versions;
+    private final Duration exportTimeout;
+
+    public RentalQueryController(ListRentals listRentals, ExportRentals exportRentals, ListOverdueRentals listOverdue,
+                                 ObjectMapper objectMapper, AggregateVersions versions,
+                                 @Value("${rentals.export.timeout:1h}") Duration exportTimeout) {
+        this.listRentals = listRentals;
+        this.exportRentals = exportRentals;
+        this.listOverdue = listOverdue;
+        this.objectMapper = objectMapper;
+        this.versions = versions;
+        this.exportTimeout = exportTimeout;
+    }
 
     /**
-     * GET /rentals?status=OPEN|RETURNED&customerId=1
+     * GET /rentals?status=OPEN|RETURNED&customerId=1&limit=50&after=cursor, 304 without a query while
+     * If-None-Match still holds the current rentals version
      */
     @GetMapping
-    public List<ListRentals.View> history(@RequestParam Optional<String> status,
-                                          @RequestParam Optional<Long> customerId) {
-        var filter = new ListRentals.Filter(customerId, status);
+    public ListRentals.Page history(@RequestParam Optional<String> status,
+                                    @RequestParam Optional<Long> customerId,
+                                    @RequestParam Optional<Integer> limit,
+                                    @RequestParam Optional<String> after,
+                                    WebRequest request) {
+        if (request.checkNotModified(versions.etag(RENTALS))) return null;
+        var filter = new ListRentals.Filter(customerId, status, limit, after);
         return listRentals.handle(filter);
     }
+
+    /**
+     * GET /rentals/overdue?asOf=2025-09-20 (default today), open rentals past their planned return date with the
+     * late fee accrued so far
+     */
+    @GetMapping("/overdue")
+    public List<ListOverdueRentals.Overdue> overdue(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+                                                    Optional<LocalDate> asOf) {
+        return listOverdue.handle(asOf.orElseGet(LocalDate::now));
+    }
+
+    /**
+     * GET /rentals/export?status=OPEN|RETURNED&customerId=1, one JSON rental per line. Streaming the whole table
+     * can take long, so the export alone gets {@code rentals.export.timeout} instead of the default async timeout;
+     * it is set on this request before the body starts streaming.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam Optional<String> status,
+                                                        @RequestParam Optional<Long> customerId,
+                                                        WebRequest request) {
+        WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest().setTimeout(exportTimeout.toMillis());
+        var filter = new ListRentals.Filter(customerId, status);
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator gen = objectMapper.createGenerator(out)) {
+                gen.setRootValueSeparator(null);
+                exportRentals.handle(filter, view -> {
+                    try {
+                        gen.writeObject(view);
+                        gen.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(APPLICATION_NDJSON).body(body);
+    }
 }
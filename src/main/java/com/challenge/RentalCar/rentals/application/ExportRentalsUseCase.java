@@ -0,0 +1,25 @@
+package com.challenge.RentalCar.rentals.application;
+
+import com.challenge.RentalCar.rentals.port.in.ExportRentals;
+import com.challenge.RentalCar.rentals.port.in.ListRentals;
+import com.challenge.RentalCar.rentals.port.out.StreamRentals;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.function.Consumer;
+
+@Service
+@RequiredArgsConstructor
+public class ExportRentalsUseCase implements ExportRentals {
+    private final StreamRentals streamRentals;
+
+    @Override
+    @Transactional(readOnly = true)
+    public void handle(ListRentals.Filter filter, Consumer<ListRentals.View> sink) {
+        try (var rentals = streamRentals.streamAll(
+                filter.customerId().orElse(null), ListRentalsUseCase.statusFrom(filter))) {
+            rentals.map(ListRentalsUseCase::toView).forEach(sink);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.challenge.RentalCar.rentals.application;
+
+import com.challenge.RentalCar.rentals.port.in.RentCar;
+import com.challenge.RentalCar.rentals.port.in.SubmitRentCar;
+import com.challenge.RentalCar.shared.error.NotFoundException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Group commit for rent commands: callers enqueue into a bounded queue and a single writer thread commits up to
+ * {@code max-batch} of them per transaction through {@link RentCar#handleBatch}, waiting at most {@code max-wait}
+ * after the first one for more to arrive. One connection then serves a whole batch instead of one command.
+ * <p>
+ * A command that fails validation, a lookup or the reservation only fails its own future. If the batch
+ * transaction itself fails, its commands are retried one by one so the rest still go through.
+ */
+@Service
+@ConditionalOnProperty(prefix = "rentals.group-commit", name = "enabled", havingValue = "true")
+public class GroupCommitRentCar implements SubmitRentCar, AutoCloseable {
+    private record Pending(RentCar.Command command, CompletableFuture<RentCar.Result> result) {
+    }
+
+    private final RentCar rentCar;
+    private final BlockingQueue<Pending> queue;
+    private final int maxBatch;
+    private final long maxWaitNanos;
+    private final DistributionSummary batchSizes;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public GroupCommitRentCar(RentCar rentCar, MeterRegistry meterRegistry,
+                              @Value("${rentals.group-commit.queue-capacity:10000}") int queueCapacity,
+                              @Value("${rentals.group-commit.max-batch:64}") int maxBatch,
+                              @Value("${rentals.group-commit.max-wait:5ms}") Duration maxWait) {
+        this.rentCar = rentCar;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.maxBatch = maxBatch;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.batchSizes = DistributionSummary.builder("rentalcar.groupcommit.batch.size")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("rentalcar.groupcommit.queue.size", queue, BlockingQueue::size).register(meterRegistry);
+        this.writer = Thread.ofPlatform().name("rent-group-commit").daemon().start(this::drain);
+    }
+
+    @Override
+    public CompletableFuture<RentCar.Result> submit(RentCar.Command cmd) {
+        var pending = new Pending(cmd, new CompletableFuture<>());
+        if (!running || !queue.offer(pending)) {
+            pending.result().completeExceptionally(
+                    new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "rent queue is full"));
+        }
+        return pending.result();
+    }
+
+    /**
+     * Stops taking commands, lets the writer commit what is already queued, then fails anything left.
+     */
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(30));
+        writer.interrupt();
+        Pending left;
+        while ((left = queue.poll()) != null) {
+            left.result().completeExceptionally(
+                    new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "shutting down"));
+        }
+    }
+
+    private void drain() {
+        var batch = new ArrayList<Pending>(maxBatch);
+        while (running || !queue.isEmpty()) {
+            try {
+                var first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                long deadline = System.nanoTime() + maxWaitNanos;
+                while (batch.size() < maxBatch) {
+                    queue.drainTo(batch, maxBatch - batch.size());
+                    long left = deadline - System.nanoTime();
+                    if (batch.size() >= maxBatch || left <= 0) break;
+                    var next = queue.poll(left, TimeUnit.NANOSECONDS);
+                    if (next == null) break;
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                batch.forEach(p -> p.result().completeExceptionally(
+                        new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "shutting down")));
+                return;
+            }
+            commit(batch);
+            batch.clear();
+        }
+    }
+
+    private void commit(List<Pending> batch) {
+        batchSizes.record(batch.size());
+        List<RentCar.BatchItem> items;
+        try {
+            items = rentCar.handleBatch(batch.stream().map(Pending::command).toList());
+        } catch (RuntimeException e) {
+            // the whole transaction rolled back: give every command its own so one bad row cannot sink the rest
+            for (var pending : batch) {
+                try {
+                    pending.result().complete(rentCar.handle(pending.command()));
+                } catch (RuntimeException single) {
+                    pending.result().completeExceptionally(single);
+                }
+            }
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            var item = items.get(i);
+            var result = batch.get(i).result();
+            if (item.result() != null) {
+                result.complete(item.result());
+            } else if (item.status() == HttpStatus.NOT_FOUND.value()) {
+                result.completeExceptionally(new NotFoundException(item.message()));
+            } else {
+                result.completeExceptionally(
+                        new ResponseStatusException(HttpStatusCode.valueOf(item.status()), item.message()));
+            }
+        }
+    }
+}
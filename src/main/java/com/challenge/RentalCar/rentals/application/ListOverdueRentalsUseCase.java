@@ -0,0 +1,42 @@
+package com.challenge.RentalCar.rentals.application;
+
+import com.challenge.RentalCar.rentals.domain.rules.PricingPolicy;
+import com.challenge.RentalCar.rentals.port.in.ListOverdueRentals;
+import com.challenge.RentalCar.rentals.port.out.LoadOverdueRentals;
+import com.challenge.RentalCar.shared.metrics.UseCaseMetrics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class ListOverdueRentalsUseCase implements ListOverdueRentals {
+    private final LoadOverdueRentals loadOverdue;
+    private final PricingPolicy pricingPolicy;
+    private final UseCaseMetrics metrics;
+
+    /**
+     * The late fee is what returning the car on {@code asOf} would be charged, same rule as {@link ReturnCarUseCase}.
+     */
+    @Override
+    public List<Overdue> handle(LocalDate asOf) {
+        var sample = metrics.start();
+        RuntimeException failure = null;
+        try {
+            return loadOverdue.findOverdue(asOf).stream().map(rental -> {
+                long daysLate = rental.daysLate(asOf);
+                return new Overdue(
+                        rental.getId(), rental.getCustomerId(), rental.getCarId(), rental.getType().name(),
+                        rental.getPlannedReturnDate(), daysLate,
+                        pricingPolicy.latePerDay(rental.getType()).times(daysLate));
+            }).toList();
+        } catch (RuntimeException e) {
+            failure = e;
+            throw e;
+        } finally {
+            metrics.stop(sample, "overdue", null, failure);
+        }
+    }
+}
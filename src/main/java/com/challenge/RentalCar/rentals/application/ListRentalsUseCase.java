@@ -2,31 +2,63 @@ package com.challenge.RentalCar.rentals.application;
 
 import com.challenge.RentalCar.rentals.domain.Rental;
 import com.challenge.RentalCar.rentals.port.in.ListRentals;
-import com.challenge.RentalCar.rentals.port.out.LoadRentals;
+import com.challenge.RentalCar.rentals.port.out.LoadRentalViews;
+import com.challenge.RentalCar.shared.metrics.UseCaseMetrics;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
-import java.util.List;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 
 @Service
 @RequiredArgsConstructor
 public class ListRentalsUseCase implements ListRentals {
-    private final LoadRentals loadRentals;
+    private final LoadRentalViews loadViews;
+    private final UseCaseMetrics metrics;
 
+    /**
+     * Served from the rentals read model, which already holds rows in the {@link View} shape: no rentals
+     * table, no domain mapping.
+     */
     @Override
-    public List<View> handle(Filter filter) {
-        var rentals = switch (statusFrom(filter)) {
+    public Page handle(Filter filter) {
+        var sample = metrics.start();
+        RuntimeException failure = null;
+        try {
+            return list(filter);
+        } catch (RuntimeException e) {
+            failure = e;
+            throw e;
+        } finally {
+            metrics.stop(sample, "list", null, failure);
+        }
+    }
+
+    private Page list(Filter filter) {
+        int limit = Math.clamp(filter.limit().orElse(DEFAULT_LIMIT), 1, MAX_LIMIT);
+        long afterId = filter.after().map(ListRentalsUseCase::decodeCursor).orElse(0L);
+
+        // one extra row tells whether there is a next page without a COUNT
+        int fetch = limit + 1;
+        var views = switch (statusFrom(filter)) {
             case null -> filter.customerId().isPresent()
-                    ? loadRentals.findByCustomer(filter.customerId().get())
-                    : loadRentals.findAll();
+                    ? loadViews.findByCustomer(filter.customerId().get(), afterId, fetch)
+                    : loadViews.findAll(afterId, fetch);
             case Rental.Status s -> filter.customerId().isPresent()
-                    ? loadRentals.findByCustomerAndStatus(filter.customerId().get(), s)
-                    : loadRentals.findByStatus(s);
+                    ? loadViews.findByCustomerAndStatus(filter.customerId().get(), s, afterId, fetch)
+                    : loadViews.findByStatus(s, afterId, fetch);
         };
-        return rentals.stream().map(this::toView).toList();
+
+        if (views.size() <= limit) {
+            return new Page(views, null);
+        }
+        var page = views.subList(0, limit);
+        return new Page(page, encodeCursor(page.getLast().id()));
     }
 
-    private Rental.Status statusFrom(Filter filter) {
+    static Rental.Status statusFrom(Filter filter) {
         return filter.status().map(String::toUpperCase).map(s -> switch (s) {
             case "OPEN" -> Rental.Status.OPEN;
             case "RETURNED" -> Rental.Status.RETURNED;
@@ -34,14 +66,26 @@ public class ListRentalsUseCase implements ListRentals {
         }).orElse(null);
     }
 
-    private View toView(Rental rental) {
-        var planned = rental.getStartDate().plusDays(rental.getDaysBooked());
+    static View toView(Rental rental) {
         return new View(
                 rental.getId(), rental.getCustomerId(), rental.getCarId(),
                 rental.getType().name(),
                 rental.getStartDate(), rental.getDaysBooked(),
-                planned, rental.getPrepaidAmount(),
+                rental.getPlannedReturnDate(), rental.getPrepaidAmount(),
                 rental.getStatus().name()
         );
     }
+
+    static String encodeCursor(long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(Long.toString(lastId).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    static long decodeCursor(String cursor) {
+        try {
+            return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "invalid cursor");
+        }
+    }
 }
@@ -0,0 +1,72 @@
+package com.challenge.RentalCar.rentals.application;
+
+import com.challenge.RentalCar.rentals.port.in.PickUpBookedCars;
+import com.challenge.RentalCar.rentals.port.out.LoadPickUps;
+import com.challenge.RentalCar.rentals.port.out.ReleaseCar;
+import com.challenge.RentalCar.rentals.port.out.ReserveCar;
+import com.challenge.RentalCar.shared.metrics.UseCaseMetrics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class PickUpBookedCarsUseCase implements PickUpBookedCars {
+    /**
+     * Cars per transaction: bounds both the IN lists and how long a chunk holds its car rows.
+     */
+    static final int CHUNK = 500;
+
+    private final LoadPickUps loadPickUps;
+    private final ReserveCar reserveCar;
+    private final ReleaseCar releaseCar;
+    private final UseCaseMetrics metrics;
+    private final TransactionOperations tx;
+
+    /**
+     * Walks the cars still here whose booking has started, in car-id chunks, each reserved with one set-based
+     * update in its own short transaction. Cars already out are never read, so running it again (on every
+     * instance, or after downtime) only touches the ones whose booking has started since.
+     */
+    @Override
+    public int handle(LocalDate day) {
+        var sample = metrics.start();
+        RuntimeException failure = null;
+        try {
+            int taken = 0;
+            long afterCarId = 0;
+            List<Long> chunk;
+            do {
+                chunk = loadPickUps.startedAvailableCarIds(day, afterCarId, CHUNK);
+                if (chunk.isEmpty()) break;
+                afterCarId = chunk.get(chunk.size() - 1);
+                var carIds = chunk;
+                taken += tx.execute(status -> pickUp(carIds, day));
+            } while (chunk.size() == CHUNK);
+            return taken;
+        } catch (RuntimeException e) {
+            failure = e;
+            throw e;
+        } finally {
+            metrics.stop(sample, "pick_up", null, failure);
+        }
+    }
+
+    /**
+     * The rentals were read without locks, so once the cars are held their bookings are checked again: a booking
+     * returned in between gives its car back here, and a return still to come waits for the car row and then sees
+     * the car as taken.
+     */
+    private int pickUp(List<Long> carIds, LocalDate day) {
+        var taken = reserveCar.reserveAll(carIds);
+        var started = loadPickUps.startedCarIds(taken, day);
+        var cancelled = new HashSet<>(taken);
+        cancelled.removeAll(started);
+        if (!cancelled.isEmpty()) releaseCar.releaseAll(cancelled);
+        return taken.size() - cancelled.size();
+    }
+}
@@ -0,0 +1,56 @@
+package com.challenge.RentalCar.rentals.application;
+
+import com.challenge.RentalCar.rentals.domain.rules.PriceTable;
+import com.challenge.RentalCar.rentals.port.in.QuotePrices;
+import com.challenge.RentalCar.shared.metrics.UseCaseMetrics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+@Service
+@RequiredArgsConstructor
+public class QuotePricesUseCase implements QuotePrices {
+    private final PriceTable priceTable;
+    private final UseCaseMetrics metrics;
+
+    /**
+     * Reads nothing but the price table. One metric sample covers the whole batch, the items themselves
+     * allocate nothing past the two result arrays.
+     */
+    @Override
+    public Quotes handle(Batch batch) {
+        var sample = metrics.start();
+        RuntimeException failure = null;
+        try {
+            int n = batch.size();
+            var types = batch.types();
+            var days = batch.days();
+            var lateDays = batch.lateDays();
+            for (int i = 0; i < n; i++) {
+                if (types[i] == null) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "item " + i + ": type is required");
+                }
+                if (days[i] <= 0) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "item " + i + ": days must be > 0");
+                }
+                if (lateDays[i] < 0) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "item " + i + ": lateDays must be >= 0");
+                }
+            }
+
+            var prepaid = new long[n];
+            var lateFee = new long[n];
+            for (int i = 0; i < n; i++) {
+                prepaid[i] = priceTable.basePrice(types[i], days[i]);
+                lateFee[i] = priceTable.latePerDay(types[i]) * lateDays[i];
+            }
+            return new Quotes(prepaid, lateFee, priceTable.currency());
+        } catch (RuntimeException e) {
+            failure = e;
+            throw e;
+        } finally {
+            metrics.stop(sample, "quote", null, failure);
+        }
+    }
+}
@@ -1,66 +1,264 @@
 package com.challenge.RentalCar.rentals.application;
 
+import com.challenge.RentalCar.customers.domain.Customer;
+import com.challenge.RentalCar.inventory.domain.Car;
+import com.challenge.RentalCar.inventory.domain.CarType;
 import com.challenge.RentalCar.rentals.domain.Rental;
 import com.challenge.RentalCar.rentals.domain.rules.LoyaltyPolicy;
 import com.challenge.RentalCar.rentals.domain.rules.PricingPolicy;
 import com.challenge.RentalCar.rentals.port.in.RentCar;
+import com.challenge.RentalCar.rentals.port.out.AwardPoints;
+import com.challenge.RentalCar.rentals.port.out.BookCar;
 import com.challenge.RentalCar.rentals.port.out.LoadCar;
-import com.challenge.RentalCar.rentals.port.out.SaveCar;
 import com.challenge.RentalCar.rentals.port.out.LoadCustomer;
-import com.challenge.RentalCar.rentals.port.out.SaveCustomer;
+import com.challenge.RentalCar.rentals.port.out.ProjectRentals;
+import com.challenge.RentalCar.rentals.port.out.RecordRevenue;
+import com.challenge.RentalCar.rentals.port.out.ReserveCar;
 import com.challenge.RentalCar.rentals.port.out.SaveRental;
 import com.challenge.RentalCar.shared.error.NotFoundException;
+import com.challenge.RentalCar.shared.concurrency.ParallelLookups;
+import com.challenge.RentalCar.shared.metrics.UseCaseMetrics;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionOperations;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
 @Service
 @RequiredArgsConstructor
 public class RentCarUseCase implements RentCar {
+    private static final String NOT_AVAILABLE = "car is not available";
+    private static final String ALREADY_BOOKED = "car is already booked for these dates";
 
     private final LoadCar loadCar;
-    private final SaveCar saveCar;
+    private final ReserveCar reserveCar;
+    private final BookCar bookCar;
     private final LoadCustomer loadCustomer;
-    private final SaveCustomer saveCustomer;
+    private final AwardPoints awardPoints;
     private final SaveRental saveRental;
+    private final ProjectRentals projectRentals;
+    private final RecordRevenue recordRevenue;
     private final PricingPolicy pricingPolicy;
     private final LoyaltyPolicy loyaltyPolicy;
+    private final UseCaseMetrics metrics;
+    private final ParallelLookups lookups;
+    private final TransactionOperations tx;
 
+    /**
+     * Car and customer are read before the transaction starts, so no connection is held while they load (in
+     * parallel if {@code rentals.parallel-lookups} is on); everything that writes runs in one transaction.
+     * A rental starting today also takes the car; one starting later only books its dates, and
+     * {@link PickUpBookedCarsUseCase} takes the car on its start date.
+     */
     @Override
-    @Transactional
     public Result handle(Command cmd) {
-        // 1) Validate
-        if (cmd.days() <= 0) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "days must be > 0");
+        var sample = metrics.start();
+        CarType carType = null;
+        RuntimeException failure = null;
+        try {
+            // 1) Validate
+            if (cmd.days() <= 0) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "days must be > 0");
+            }
+            var today = LocalDate.now();
+            var start = cmd.startDate() == null ? today : cmd.startDate();
+            if (start.isBefore(today)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "startDate must not be in the past");
+            }
+
+            // 2) Load aggregate roots (404 if missing; the first one cancels the other lookup)
+            var loaded = lookups.both(
+                    () -> loadCar.byId(cmd.carId()).orElseThrow(() -> new NotFoundException("Car", cmd.carId())),
+                    () -> loadCustomer.byId(cmd.customerId())
+                            .orElseThrow(() -> new NotFoundException("Customer", cmd.customerId())),
+                    Loaded::new);
+            var car = loaded.car();
+            var customer = loaded.customer();
+            carType = car.getType();
+
+            return tx.execute(status -> {
+                // 3) Business rules: the dates are booked atomically in the booking index (undone if this
+                //    transaction rolls back), and a car taken today is flipped by one conditional update,
+                //    so two concurrent rentals of the same car cannot both win
+                if (!bookCar.book(car.getId(), start, start.plusDays(cmd.days()))) {
+                    throw new ResponseStatusException(HttpStatus.CONFLICT, ALREADY_BOOKED);
+                }
+                if (!start.isAfter(today) && !reserveCar.reserve(car.getId())) {
+                    throw new ResponseStatusException(HttpStatus.CONFLICT, NOT_AVAILABLE);
+                }
+
+                var prepaid = pricingPolicy.basePrice(car.getType(), cmd.days());
+                int points = loyaltyPolicy.pointsFor(car.getType());
+
+                // 4) Persist changes
+                var rental = Rental.open(customer.getId(), car.getId(), car.getType(), start, cmd.days(), prepaid);
+                var persisted = insert(car.getId(), () -> saveRental.save(rental));
+                projectRentals.opened(persisted);
+
+                // one relative UPDATE: concurrent rentals by the same customer never lose points
+                awardPoints.award(customer.getId(), points);
+                recordRevenue.rented(List.of(persisted));
+
+                // 5) Return result DTO
+                return new Result(persisted.getId(), prepaid, points);
+            });
+        } catch (RuntimeException e) {
+            failure = e;
+            throw e;
+        } finally {
+            metrics.stop(sample, "rent", carType, failure);
         }
+    }
 
-        // 2) Load aggregate roots (404 if missing)
-        var car = loadCar.byId(cmd.carId())
-                .orElseThrow(() -> new NotFoundException("Car", cmd.carId()));
-        var customer = loadCustomer.byId(cmd.customerId())
-                .orElseThrow(() -> new NotFoundException("Customer", cmd.customerId()));
+    /**
+     * The batch runs in one transaction. If another instance booked one of its cars first, the exclusion
+     * constraint rejects the whole insert; the batch is then rolled back and each command it had accepted is
+     * rented again on its own, so only the conflicting ones answer 409.
+     */
+    @Override
+    public List<BatchItem> handleBatch(List<Command> cmds) {
+        var sample = metrics.start();
+        RuntimeException failure = null;
+        try {
+            var items = new BatchItem[cmds.size()];
+            var retry = tx.execute(status -> rentBatch(cmds, items, status));
+            for (int i : retry) items[i] = rentOne(cmds.get(i));
+            return Arrays.asList(items);
+        } catch (RuntimeException e) {
+            failure = e;
+            throw e;
+        } finally {
+            metrics.stop(sample, "rent_batch", null, failure);
+        }
+    }
 
-        // 3) Business rules
-        if (!car.isAvailable()) {
-            throw new ResponseStatusException(HttpStatus.CONFLICT, "car is not available");
+    /**
+     * Fills {@code items}; returns the indexes to retry one by one when the insert hit the exclusion constraint.
+     */
+    private List<Integer> rentBatch(List<Command> cmds, BatchItem[] items, TransactionStatus status) {
+        var today = LocalDate.now();
+        var starts = new LocalDate[cmds.size()];
+
+        // 1) Validate and load every referenced car and customer with one query each
+        for (int i = 0; i < cmds.size(); i++) {
+            var cmd = cmds.get(i);
+            starts[i] = cmd.startDate() == null ? today : cmd.startDate();
+            if (cmd.days() <= 0) {
+                items[i] = BatchItem.failed(HttpStatus.BAD_REQUEST.value(), "days must be > 0");
+            } else if (starts[i].isBefore(today)) {
+                items[i] = BatchItem.failed(HttpStatus.BAD_REQUEST.value(), "startDate must not be in the past");
+            }
+        }
+        var carIds = new HashSet<Long>();
+        var customerIds = new HashSet<Long>();
+        for (int i = 0; i < cmds.size(); i++) {
+            if (items[i] != null) continue;
+            carIds.add(cmds.get(i).carId());
+            customerIds.add(cmds.get(i).customerId());
         }
+        Map<Long, Car> cars = carIds.isEmpty() ? Map.of()
+                : loadCar.byIds(carIds).stream().collect(Collectors.toMap(Car::getId, Function.identity()));
+        Map<Long, Customer> customers = customerIds.isEmpty() ? Map.of()
+                : loadCustomer.byIds(customerIds).stream().collect(Collectors.toMap(Customer::getId, Function.identity()));
 
-        double prepaid = pricingPolicy.basePrice(car.getType(), cmd.days());
-        int points = loyaltyPolicy.pointsFor(car.getType());
+        // 2) Resolve 404s and book the dates in request order; a car asked for overlapping dates twice in the
+        //    same batch only goes to the first command
+        var wanted = new LinkedHashSet<Long>();
+        for (int i = 0; i < cmds.size(); i++) {
+            if (items[i] != null) continue;
+            var cmd = cmds.get(i);
+            if (!cars.containsKey(cmd.carId())) {
+                items[i] = BatchItem.failed(HttpStatus.NOT_FOUND.value(), "Car not found: " + cmd.carId());
+            } else if (!customers.containsKey(cmd.customerId())) {
+                items[i] = BatchItem.failed(HttpStatus.NOT_FOUND.value(), "Customer not found: " + cmd.customerId());
+            } else if (!bookCar.book(cmd.carId(), starts[i], starts[i].plusDays(cmd.days()))) {
+                items[i] = BatchItem.failed(HttpStatus.CONFLICT.value(), ALREADY_BOOKED);
+            } else if (!starts[i].isAfter(today)) {
+                wanted.add(cmd.carId());
+            }
+        }
 
-        // 4) Persist changes
-        var rental = Rental.open(customer.getId(), car.getId(), car.getType(), cmd.days(), prepaid);
-        var persisted = saveRental.save(rental);
+        // 3) Flip availability of every car taken today with one set-based update
+        var reserved = reserveCar.reserveAll(wanted);
 
-        car.setAvailable(false);
-        saveCar.save(car);
+        // 4) Price the winners and persist them in one batch, points grouped per customer
+        var accepted = new ArrayList<Accepted>();
+        var pointsByCustomer = new LinkedHashMap<Long, Integer>();
+        for (int i = 0; i < cmds.size(); i++) {
+            if (items[i] != null) continue;
+            var cmd = cmds.get(i);
+            if (!starts[i].isAfter(today) && !reserved.contains(cmd.carId())) {
+                bookCar.unbook(cmd.carId(), starts[i], starts[i].plusDays(cmd.days()));
+                items[i] = BatchItem.failed(HttpStatus.CONFLICT.value(), NOT_AVAILABLE);
+                continue;
+            }
+            var car = cars.get(cmd.carId());
+            var prepaid = pricingPolicy.basePrice(car.getType(), cmd.days());
+            int points = loyaltyPolicy.pointsFor(car.getType());
+            var rental = Rental.open(cmd.customerId(), car.getId(), car.getType(), starts[i], cmd.days(), prepaid);
+            accepted.add(new Accepted(i, rental, points));
+            pointsByCustomer.merge(cmd.customerId(), points, Integer::sum);
+        }
+        var rentals = accepted.stream().map(Accepted::rental).toList();
+        try {
+            saveRental.saveAll(rentals);
+        } catch (DataIntegrityViolationException e) {
+            status.setRollbackOnly();
+            return accepted.stream().map(Accepted::index).toList();
+        }
+        projectRentals.openedAll(rentals);
 
-        customer.addPoints(points);
-        saveCustomer.save(customer);
+        pointsByCustomer.forEach(awardPoints::award);
+        recordRevenue.rented(rentals);
+
+        // 5) Results in request order
+        for (var a : accepted) {
+            items[a.index()] = BatchItem.ok(new Result(a.rental().getId(), a.rental().getPrepaidAmount(), a.points()));
+        }
+        return List.of();
+    }
+
+    private BatchItem rentOne(Command cmd) {
+        try {
+            return BatchItem.ok(handle(cmd));
+        } catch (NotFoundException e) {
+            return BatchItem.failed(HttpStatus.NOT_FOUND.value(), e.getMessage());
+        } catch (ResponseStatusException e) {
+            return BatchItem.failed(e.getStatusCode().value(), e.getReason());
+        }
+    }
+
+    /**
+     * The booking index only sees this process; a booking another instance committed for the same dates
+     * surfaces here as the exclusion constraint on {@code rentals} rejecting the insert. The car's bookings are
+     * then reloaded, so this process stops offering those dates.
+     */
+    private <T> T insert(long carId, Supplier<T> insert) {
+        try {
+            return insert.get();
+        } catch (DataIntegrityViolationException e) {
+            bookCar.reload(carId);
+            throw new ResponseStatusException(HttpStatus.CONFLICT, ALREADY_BOOKED, e);
+        }
+    }
+
+    private record Loaded(Car car, Customer customer) {
+    }
 
-        // 5) Return result DTO
-        return new Result(persisted.getId(), prepaid, points);
+    private record Accepted(int index, Rental rental, int points) {
     }
 }
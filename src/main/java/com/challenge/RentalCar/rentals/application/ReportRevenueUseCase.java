@@ -0,0 +1,55 @@
+package com.challenge.RentalCar.rentals.application;
+
+import com.challenge.RentalCar.inventory.domain.CarType;
+import com.challenge.RentalCar.rentals.port.in.ReportRevenue;
+import com.challenge.RentalCar.rentals.port.out.LoadRevenue;
+import com.challenge.RentalCar.shared.metrics.UseCaseMetrics;
+import com.challenge.RentalCar.shared.money.Money;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+public class ReportRevenueUseCase implements ReportRevenue {
+    private final LoadRevenue loadRevenue;
+    private final UseCaseMetrics metrics;
+
+    /**
+     * Reads the rollup only: at most one row per day and car type in the window, however many rentals it holds.
+     */
+    @Override
+    public Report handle(Query query) {
+        var sample = metrics.start();
+        RuntimeException failure = null;
+        try {
+            if (query.to().isBefore(query.from())) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "to must not be before from");
+            }
+            var days = loadRevenue.between(query.from(), query.to());
+
+            Map<CarType, Totals> byType = new EnumMap<>(CarType.class);
+            for (var type : CarType.values()) byType.put(type, new Totals(Money.ZERO, Money.ZERO, 0));
+            var total = new Totals(Money.ZERO, Money.ZERO, 0);
+            for (var day : days) {
+                var totals = new Totals(day.prepaid(), day.surcharge(), day.rentals());
+                byType.merge(day.type(), totals, ReportRevenueUseCase::plus);
+                total = plus(total, totals);
+            }
+            return new Report(query.from(), query.to(), total, byType, days);
+        } catch (RuntimeException e) {
+            failure = e;
+            throw e;
+        } finally {
+            metrics.stop(sample, "revenue", null, failure);
+        }
+    }
+
+    private static Totals plus(Totals a, Totals b) {
+        return new Totals(a.prepaid().plus(b.prepaid()), a.surcharge().plus(b.surcharge()), a.rentals() + b.rentals());
+    }
+}
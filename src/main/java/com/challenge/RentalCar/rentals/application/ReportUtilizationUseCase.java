@@ -0,0 +1,167 @@
+package com.challenge.RentalCar.rentals.application;
+
+import com.challenge.RentalCar.inventory.domain.Car;
+import com.challenge.RentalCar.inventory.domain.CarType;
+import com.challenge.RentalCar.rentals.domain.OccupancySweep;
+import com.challenge.RentalCar.rentals.port.in.ReportUtilization;
+import com.challenge.RentalCar.rentals.port.out.LoadCar;
+import com.challenge.RentalCar.rentals.port.out.ScanRentalIntervals;
+import com.challenge.RentalCar.shared.metrics.UseCaseMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Fleet utilization over a date window. The fleet is split by car id into ranges of at most
+ * {@code rentals.utilization.cars-per-task} cars, which a dedicated fork/join pool scans and sweeps side by side;
+ * the per-range {@link OccupancySweep}s are merged on the way back up. Each worker holds one connection while it
+ * scans, so {@code rentals.utilization.parallelism} should stay below the connection pool size.
+ */
+@Service
+public class ReportUtilizationUseCase implements ReportUtilization, AutoCloseable {
+    static final int MAX_PERIODS = 10_000;
+
+    private final LoadCar loadCar;
+    private final ScanRentalIntervals scanIntervals;
+    private final UseCaseMetrics metrics;
+    private final ForkJoinPool pool;
+    private final int carsPerTask;
+
+    public ReportUtilizationUseCase(LoadCar loadCar, ScanRentalIntervals scanIntervals, UseCaseMetrics metrics,
+                                    @Value("${rentals.utilization.parallelism:4}") int parallelism,
+                                    @Value("${rentals.utilization.cars-per-task:512}") int carsPerTask) {
+        this.loadCar = loadCar;
+        this.scanIntervals = scanIntervals;
+        this.metrics = metrics;
+        this.pool = new ForkJoinPool(parallelism);
+        this.carsPerTask = carsPerTask;
+    }
+
+    @Override
+    public Report handle(Query query) {
+        var sample = metrics.start();
+        RuntimeException failure = null;
+        try {
+            return report(query);
+        } catch (RuntimeException e) {
+            failure = e;
+            throw e;
+        } finally {
+            metrics.stop(sample, "utilization", null, failure);
+        }
+    }
+
+    private Report report(Query query) {
+        if (query.to().isBefore(query.from())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "to must not be before from");
+        }
+        long fromDay = query.from().toEpochDay();
+        long toDayExclusive = query.to().toEpochDay() + 1;
+        var periodStarts = periodStarts(query.from(), query.to(), query.granularity());
+
+        var fleet = loadCar.all();
+        var fleetSize = new EnumMap<CarType, Integer>(CarType.class);
+        for (var type : CarType.values()) fleetSize.put(type, 0);
+        for (var car : fleet) fleetSize.merge(car.getType(), 1, Integer::sum);
+
+        var sweep = fleet.isEmpty() ? new OccupancySweep(fromDay, toDayExclusive, periodStarts)
+                : pool.invoke(new SweepTask(query, periodStarts, fleet, 0, fleet.size()));
+
+        long windowDays = toDayExclusive - fromDay;
+        var periods = new ArrayList<Period>(periodStarts.length);
+        var rentedInWindow = new EnumMap<CarType, Long>(CarType.class);
+        for (int p = 0; p < periodStarts.length; p++) {
+            long end = p + 1 < periodStarts.length ? periodStarts[p + 1] : toDayExclusive;
+            var byType = new EnumMap<CarType, Double>(CarType.class);
+            for (var type : CarType.values()) {
+                long rented = sweep.rentedDays(type, p);
+                rentedInWindow.merge(type, rented, Long::sum);
+                byType.put(type, share(rented, (long) fleetSize.get(type) * (end - periodStarts[p])));
+            }
+            periods.add(new Period(LocalDate.ofEpochDay(periodStarts[p]), LocalDate.ofEpochDay(end - 1), byType));
+        }
+        var byType = new EnumMap<CarType, Double>(CarType.class);
+        for (var type : CarType.values()) {
+            byType.put(type, share(rentedInWindow.getOrDefault(type, 0L), (long) fleetSize.get(type) * windowDays));
+        }
+        var cars = fleet.stream().map(car -> {
+            long rented = sweep.rentedDays(car.getId());
+            return new CarShare(car.getId(), car.getType(), rented, share(rented, windowDays));
+        }).toList();
+        return new Report(query.from(), query.to(), query.granularity(), byType, periods, cars);
+    }
+
+    /**
+     * A leaf scans one contiguous car-id range in a single keyset-chunked pass; larger ranges are halved by car
+     * count, so every leaf gets about the same number of cars whatever the gaps between ids.
+     */
+    private final class SweepTask extends RecursiveTask<OccupancySweep> {
+        private final Query query;
+        private final long[] periodStarts;
+        private final List<Car> fleet;
+        private final int lo;
+        private final int hi;
+
+        SweepTask(Query query, long[] periodStarts, List<Car> fleet, int lo, int hi) {
+            this.query = query;
+            this.periodStarts = periodStarts;
+            this.fleet = fleet;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected OccupancySweep compute() {
+            if (hi - lo <= carsPerTask) {
+                var sweep = new OccupancySweep(query.from().toEpochDay(), query.to().toEpochDay() + 1, periodStarts);
+                scanIntervals.scan(fleet.get(lo).getId(), fleet.get(hi - 1).getId(), query.from(), query.to(),
+                        i -> sweep.accept(i.carId(), i.type(), i.start().toEpochDay(), i.end().toEpochDay()));
+                return sweep.finish();
+            }
+            int mid = (lo + hi) >>> 1;
+            var left = new SweepTask(query, periodStarts, fleet, lo, mid);
+            left.fork();
+            var right = new SweepTask(query, periodStarts, fleet, mid, hi).compute();
+            return right.merge(left.join());
+        }
+    }
+
+    static long[] periodStarts(LocalDate from, LocalDate to, Granularity granularity) {
+        var starts = new ArrayList<Long>();
+        for (var start = from; !start.isAfter(to); start = next(start, granularity)) {
+            if (starts.size() == MAX_PERIODS) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "window has more than " + MAX_PERIODS + " periods, use a coarser granularity");
+            }
+            starts.add(start.toEpochDay());
+        }
+        return starts.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private static LocalDate next(LocalDate start, Granularity granularity) {
+        return switch (granularity) {
+            case DAY -> start.plusDays(1);
+            case WEEK -> start.with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+            case MONTH -> start.with(TemporalAdjusters.firstDayOfNextMonth());
+        };
+    }
+
+    private static double share(long rented, long available) {
+        return available == 0 ? 0.0 : (double) rented / available;
+    }
+
+    @Override
+    public void close() {
+        pool.close();
+    }
+}
@@ -1,44 +1,178 @@
 package com.challenge.RentalCar.rentals.application;
 
+import com.challenge.RentalCar.inventory.domain.CarType;
 import com.challenge.RentalCar.rentals.domain.Rental;
 import com.challenge.RentalCar.rentals.domain.rules.PricingPolicy;
 import com.challenge.RentalCar.rentals.port.in.ReturnCar;
-import com.challenge.RentalCar.rentals.port.out.LoadCar;
+import com.challenge.RentalCar.rentals.port.out.BookCar;
+import com.challenge.RentalCar.rentals.port.out.LoadPickUps;
 import com.challenge.RentalCar.rentals.port.out.LoadRental;
-import com.challenge.RentalCar.rentals.port.out.SaveCar;
+import com.challenge.RentalCar.rentals.port.out.ProjectRentals;
+import com.challenge.RentalCar.rentals.port.out.RecordRevenue;
+import com.challenge.RentalCar.rentals.port.out.ReleaseCar;
+import com.challenge.RentalCar.rentals.port.out.ReserveCar;
 import com.challenge.RentalCar.rentals.port.out.SaveRental;
+import com.challenge.RentalCar.shared.metrics.UseCaseMetrics;
+import com.challenge.RentalCar.shared.money.Money;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.temporal.ChronoUnit;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ReturnCarUseCase implements ReturnCar {
     private final LoadRental loadRental;
     private final SaveRental saveRental;
-    private final LoadCar loadCar;
-    private final SaveCar saveCar;
+    private final ProjectRentals projectRentals;
+    private final ReleaseCar releaseCar;
+    private final ReserveCar reserveCar;
+    private final LoadPickUps loadPickUps;
+    private final BookCar bookCar;
+    private final RecordRevenue recordRevenue;
     private final PricingPolicy pricingPolicy;
+    private final UseCaseMetrics metrics;
 
     @Override
     @Transactional
     public Result handle(Command cmd) {
-        var rental = loadRental.byId(cmd.rentalId()).orElseThrow();
-        if (rental.getStatus() == Rental.Status.RETURNED) return new Result(rental.getId(), 0.0);
+        var sample = metrics.start();
+        CarType carType = null;
+        RuntimeException failure = null;
+        try {
+            var rental = loadRental.byId(cmd.rentalId()).orElseThrow();
+            carType = rental.getType();
+            if (rental.getStatus() == Rental.Status.RETURNED) return new Result(rental.getId(), Money.ZERO);
 
-        var planned = rental.getStartDate().plusDays(rental.getDaysBooked());
-        long extra = Math.max(0, ChronoUnit.DAYS.between(planned, cmd.actualReturnDate()));
-        double surcharge = extra * pricingPolicy.latePerDay(rental.getType());
+            var surcharge = pricingPolicy.latePerDay(rental.getType()).times(rental.daysLate(cmd.actualReturnDate()));
 
-        rental.markReturned();
-        saveRental.save(rental);
+            // a concurrent return of the same rental may have won since the read: same answer as above
+            var returned = new SaveRental.Return(rental.getId(), cmd.actualReturnDate(), surcharge);
+            if (!saveRental.markReturned(returned)) return new Result(rental.getId(), Money.ZERO);
+            rental.markReturned(cmd.actualReturnDate(), surcharge);
+            projectRentals.returned(rental.getId());
 
-        var car = loadCar.byId(rental.getCarId()).orElseThrow();
-        car.setAvailable(true);
-        saveCar.save(car);
+            // a booking returned before its start date is a cancellation: it never took the car
+            if (hasStarted(rental)) {
+                if (!releaseCar.release(rental.getCarId())) {
+                    throw new NoSuchElementException("Car not found: " + rental.getCarId());
+                }
+                handOver(List.of(rental.getCarId()));
+            }
+            bookCar.unbook(rental.getCarId(), rental.getStartDate(), rental.getPlannedReturnDate());
+            recordRevenue.returned(List.of(rental));
 
-        return new Result(rental.getId(), surcharge);
+            return new Result(rental.getId(), surcharge);
+        } catch (RuntimeException e) {
+            failure = e;
+            throw e;
+        } finally {
+            metrics.stop(sample, "return", carType, failure);
+        }
+    }
+
+    /**
+     * End-of-day check-in: one IN query to load, one batch for the rentals, one set-based UPDATE each for their
+     * views and their cars, and one batch for the revenue rollup, however many rentals come back.
+     */
+    @Override
+    @Transactional
+    public List<BatchItem> handleBatch(List<Command> cmds) {
+        var sample = metrics.start();
+        RuntimeException failure = null;
+        try {
+            return returnBatch(cmds);
+        } catch (RuntimeException e) {
+            failure = e;
+            throw e;
+        } finally {
+            metrics.stop(sample, "return_batch", null, failure);
+        }
+    }
+
+    private List<BatchItem> returnBatch(List<Command> cmds) {
+        var items = new BatchItem[cmds.size()];
+
+        // 1) Validate and load every referenced rental with one query
+        var ids = new HashSet<Long>();
+        for (int i = 0; i < cmds.size(); i++) {
+            if (cmds.get(i).actualReturnDate() == null) {
+                items[i] = BatchItem.failed(HttpStatus.BAD_REQUEST.value(), "actualReturnDate is required");
+            } else {
+                ids.add(cmds.get(i).rentalId());
+            }
+        }
+        Map<Long, Rental> rentals = ids.isEmpty() ? Map.of()
+                : loadRental.byIds(ids).stream().collect(Collectors.toMap(Rental::getId, Function.identity()));
+
+        // 2) Resolve 404s and price the rentals still open; the first command for a rental is the one that counts
+        var open = new LinkedHashMap<Long, SaveRental.Return>();
+        for (int i = 0; i < cmds.size(); i++) {
+            if (items[i] != null) continue;
+            var cmd = cmds.get(i);
+            var rental = rentals.get(cmd.rentalId());
+            if (rental == null) {
+                items[i] = BatchItem.failed(HttpStatus.NOT_FOUND.value(), "Rental not found: " + cmd.rentalId());
+            } else if (rental.getStatus() == Rental.Status.OPEN && !open.containsKey(rental.getId())) {
+                var surcharge = pricingPolicy.latePerDay(rental.getType())
+                        .times(rental.daysLate(cmd.actualReturnDate()));
+                open.put(rental.getId(), new SaveRental.Return(rental.getId(), cmd.actualReturnDate(), surcharge));
+            }
+        }
+
+        // 3) Flip them in one batch, free their cars with one set-based update and their dates in the booking
+        //    index, and add their surcharges up
+        var returned = saveRental.markAllReturned(open.values());
+        projectRentals.returnedAll(returned);
+        var released = returned.stream().map(rentals::get).filter(ReturnCarUseCase::hasStarted)
+                .map(Rental::getCarId).toList();
+        releaseCar.releaseAll(released);
+        handOver(released);
+        var returnedRentals = new ArrayList<Rental>();
+        for (var r : open.values()) {
+            if (!returned.contains(r.rentalId())) continue;
+            var rental = rentals.get(r.rentalId());
+            rental.markReturned(r.actualReturnDate(), r.surcharge());
+            bookCar.unbook(rental.getCarId(), rental.getStartDate(), rental.getPlannedReturnDate());
+            returnedRentals.add(rental);
+        }
+        recordRevenue.returned(returnedRentals);
+
+        // 4) Surcharges in request order; a rental returned before (or earlier in this batch) answers 0,
+        //    as the single return does
+        var unanswered = new HashSet<>(returned);
+        for (int i = 0; i < cmds.size(); i++) {
+            if (items[i] != null) continue;
+            var rentalId = cmds.get(i).rentalId();
+            var surcharge = unanswered.remove(rentalId) ? open.get(rentalId).surcharge() : Money.ZERO;
+            items[i] = BatchItem.ok(new Result(rentalId, surcharge));
+        }
+        return Arrays.asList(items);
+    }
+
+    /**
+     * A car that comes back late may already be due to a booking whose start date has passed; the midnight
+     * pick-up skipped it because the car was still out, so it goes straight to that booking instead of back
+     * on offer. Checked after the release, whose update holds the car's row, so of two rentals of one car
+     * returned at once the later one sees the earlier as returned.
+     */
+    private void handOver(List<Long> releasedCarIds) {
+        if (releasedCarIds.isEmpty()) return;
+        reserveCar.reserveAll(loadPickUps.startedCarIds(releasedCarIds, LocalDate.now()));
+    }
+
+    private static boolean hasStarted(Rental rental) {
+        return !rental.getStartDate().isAfter(LocalDate.now());
     }
 }
@@ -0,0 +1,62 @@
+package com.challenge.RentalCar.rentals.application;
+
+import com.challenge.RentalCar.rentals.port.in.SearchAvailableCars;
+import com.challenge.RentalCar.rentals.port.out.LoadBookings;
+import com.challenge.RentalCar.rentals.port.out.LoadCar;
+import com.challenge.RentalCar.shared.metrics.UseCaseMetrics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class SearchAvailableCarsUseCase implements SearchAvailableCars {
+    private final LoadCar loadCar;
+    private final LoadBookings loadBookings;
+    private final UseCaseMetrics metrics;
+
+    /**
+     * The fleet comes from the availability index and each car costs one binary search over its bookings. The
+     * index only knows what this process booked since its last rebuild, so the candidates are confirmed with one
+     * query for the cars the rentals table shows booked in the window. A window starting today also needs the car
+     * to be here now, which rules out cars still out on an overdue rental, including a booking made ahead once it
+     * has been picked up.
+     */
+    @Override
+    public List<AvailableCar> handle(Query query) {
+        var sample = metrics.start();
+        RuntimeException failure = null;
+        try {
+            var today = LocalDate.now();
+            if (!query.to().isAfter(query.from())) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "to must be after from");
+            }
+            if (query.from().isBefore(today)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "from must not be in the past");
+            }
+            boolean startsToday = !query.from().isAfter(today);
+
+            var candidates = new ArrayList<AvailableCar>();
+            for (var car : loadCar.all()) {
+                if (query.type() != null && car.getType() != query.type()) continue;
+                if (startsToday && !car.isAvailable()) continue;
+                if (!loadBookings.isFree(car.getId(), query.from(), query.to())) continue;
+                candidates.add(new AvailableCar(car.getId(), car.getBrand(), car.getModel(), car.getType()));
+            }
+            if (candidates.isEmpty()) return candidates;
+            var booked = loadBookings.bookedBetween(query.from(), query.to());
+            candidates.removeIf(car -> booked.contains(car.id()));
+            return candidates;
+        } catch (RuntimeException e) {
+            failure = e;
+            throw e;
+        } finally {
+            metrics.stop(sample, "car_search", query.type(), failure);
+        }
+    }
+}
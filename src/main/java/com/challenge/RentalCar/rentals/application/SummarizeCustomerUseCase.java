@@ -0,0 +1,38 @@
+package com.challenge.RentalCar.rentals.application;
+
+import com.challenge.RentalCar.rentals.port.in.SummarizeCustomer;
+import com.challenge.RentalCar.rentals.port.out.LoadCustomer;
+import com.challenge.RentalCar.rentals.port.out.LoadRentalTotals;
+import com.challenge.RentalCar.shared.error.NotFoundException;
+import com.challenge.RentalCar.shared.metrics.UseCaseMetrics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+public class SummarizeCustomerUseCase implements SummarizeCustomer {
+    private final LoadCustomer loadCustomer;
+    private final LoadRentalTotals loadTotals;
+    private final UseCaseMetrics metrics;
+
+    /**
+     * One cached customer lookup and one aggregate row, however many rentals the customer has.
+     */
+    @Override
+    public Summary handle(long customerId) {
+        var sample = metrics.start();
+        RuntimeException failure = null;
+        try {
+            var customer = loadCustomer.byId(customerId)
+                    .orElseThrow(() -> new NotFoundException("Customer", customerId));
+            var totals = loadTotals.forCustomer(customerId);
+            return new Summary(customer.getId(), customer.getName(), customer.getPoints(),
+                    totals.rentals(), totals.openRentals(), totals.prepaid(), totals.lastStartDate());
+        } catch (RuntimeException e) {
+            failure = e;
+            throw e;
+        } finally {
+            metrics.stop(sample, "customer_summary", null, failure);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.challenge.RentalCar.rentals.domain;
+
+import com.challenge.RentalCar.inventory.domain.CarType;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Sweep-line coverage of rental intervals over a window of epoch days cut into periods. Intervals must arrive
+ * grouped by car and sorted by start within a car; the sweep then merges the overlapping or touching ones of a
+ * car into a single run, so a day is never counted twice, and splits each run across the periods it covers.
+ * <p>
+ * Not thread-safe: one instance per car-id range, combined with {@link #merge}.
+ */
+public final class OccupancySweep {
+    private final long fromDay;
+    private final long toDayExclusive;
+    private final long[] periodStarts;
+    private final long[][] rentedDays;
+    private final Map<Long, Long> rentedDaysByCar = new HashMap<>();
+
+    private long car = -1;
+    private CarType carType;
+    private long runStart;
+    private long runEnd;
+
+    /**
+     * @param periodStarts ascending epoch days, the first one {@code fromDay}; the last period ends at
+     *                     {@code toDayExclusive}
+     */
+    public OccupancySweep(long fromDay, long toDayExclusive, long[] periodStarts) {
+        this.fromDay = fromDay;
+        this.toDayExclusive = toDayExclusive;
+        this.periodStarts = periodStarts;
+        this.rentedDays = new long[CarType.values().length][periodStarts.length];
+    }
+
+    public void accept(long carId, CarType type, long startDay, long endDayExclusive) {
+        if (carId == car && startDay <= runEnd) {
+            runEnd = Math.max(runEnd, endDayExclusive);
+            return;
+        }
+        flush();
+        car = carId;
+        carType = type;
+        runStart = startDay;
+        runEnd = endDayExclusive;
+    }
+
+    /**
+     * Closes the run of the last car; call once the scan is done.
+     */
+    public OccupancySweep finish() {
+        flush();
+        car = -1;
+        return this;
+    }
+
+    /**
+     * Adds up the counts of a sweep over a disjoint car-id range.
+     */
+    public OccupancySweep merge(OccupancySweep other) {
+        for (int t = 0; t < rentedDays.length; t++) {
+            for (int p = 0; p < periodStarts.length; p++) rentedDays[t][p] += other.rentedDays[t][p];
+        }
+        other.rentedDaysByCar.forEach((id, days) -> rentedDaysByCar.merge(id, days, Long::sum));
+        return this;
+    }
+
+    public long rentedDays(CarType type, int period) {
+        return rentedDays[type.ordinal()][period];
+    }
+
+    public long rentedDays(long carId) {
+        return rentedDaysByCar.getOrDefault(carId, 0L);
+    }
+
+    private void flush() {
+        if (car < 0) return;
+        long start = Math.max(runStart, fromDay);
+        long end = Math.min(runEnd, toDayExclusive);
+        if (start >= end) return;
+        rentedDaysByCar.merge(car, end - start, Long::sum);
+
+        var byPeriod = rentedDays[carType.ordinal()];
+        int p = periodOf(start);
+        while (start < end) {
+            long periodEnd = p + 1 < periodStarts.length ? periodStarts[p + 1] : toDayExclusive;
+            long upTo = Math.min(end, periodEnd);
+            byPeriod[p] += upTo - start;
+            start = upTo;
+            p++;
+        }
+    }
+
+    private int periodOf(long day) {
+        int i = Arrays.binarySearch(periodStarts, day);
+        return i >= 0 ? i : -i - 2;
+    }
+}
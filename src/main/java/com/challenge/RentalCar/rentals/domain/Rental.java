@@ -1,9 +1,11 @@
 package com.challenge.RentalCar.rentals.domain;
 
 import com.challenge.RentalCar.inventory.domain.CarType;
+import com.challenge.RentalCar.shared.money.Money;
 import lombok.Getter;
 
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 
 @Getter
 public class Rental {
@@ -15,11 +17,13 @@ public class Rental {
     private final CarType type;
     private final LocalDate startDate;
     private final int daysBooked;
-    private final double prepaidAmount;
+    private final Money prepaidAmount;
     private Status status = Status.OPEN;
+    private LocalDate actualReturnDate;
+    private Money surcharge;
 
     private Rental(Long id, long customerId, long carId, CarType type,
-                   LocalDate startDate, int daysBooked, double prepaidAmount) {
+                   LocalDate startDate, int daysBooked, Money prepaidAmount) {
         this.id = id;
         this.customerId = customerId;
         this.carId = carId;
@@ -27,25 +31,53 @@ public class Rental {
         this.startDate = startDate;
         this.daysBooked = daysBooked;
         this.prepaidAmount = prepaidAmount;
+        this.surcharge = new Money(0, prepaidAmount.currency());
     }
 
     public static Rental reconstitute(Long id, long customerId, long carId, CarType type,
-                                      LocalDate startDate, int daysBooked, double prepaidAmount,
+                                      LocalDate startDate, int daysBooked, Money prepaidAmount,
                                       Status status) {
+        return reconstitute(id, customerId, carId, type, startDate, daysBooked, prepaidAmount, status, null,
+                new Money(0, prepaidAmount.currency()));
+    }
+
+    public static Rental reconstitute(Long id, long customerId, long carId, CarType type,
+                                      LocalDate startDate, int daysBooked, Money prepaidAmount,
+                                      Status status, LocalDate actualReturnDate, Money surcharge) {
         var rental = new Rental(id, customerId, carId, type, startDate, daysBooked, prepaidAmount);
         rental.status = status;
+        rental.actualReturnDate = actualReturnDate;
+        rental.surcharge = surcharge;
         return rental;
     }
 
-    public static Rental open(long customerId, long carId, CarType type, int days, double prepaid) {
-        return new Rental(null, customerId, carId, type, LocalDate.now(), days, prepaid);
+    public static Rental open(long customerId, long carId, CarType type, int days, Money prepaid) {
+        return open(customerId, carId, type, LocalDate.now(), days, prepaid);
+    }
+
+    public static Rental open(long customerId, long carId, CarType type, LocalDate startDate, int days,
+                              Money prepaid) {
+        return new Rental(null, customerId, carId, type, startDate, days, prepaid);
+    }
+
+    public LocalDate getPlannedReturnDate() {
+        return startDate.plusDays(daysBooked);
+    }
+
+    /**
+     * Whole days past the planned return date as of {@code date}, 0 when not late.
+     */
+    public long daysLate(LocalDate date) {
+        return Math.max(0, ChronoUnit.DAYS.between(getPlannedReturnDate(), date));
     }
 
     public void assignId(long id) {
         this.id = id;
     }
 
-    public void markReturned() {
+    public void markReturned(LocalDate actualReturnDate, Money surcharge) {
         this.status = Status.RETURNED;
+        this.actualReturnDate = actualReturnDate;
+        this.surcharge = surcharge;
     }
 }
@@ -1,35 +1,31 @@
 package com.challenge.RentalCar.rentals.domain.rules;
 
 import com.challenge.RentalCar.inventory.domain.CarType;
+import com.challenge.RentalCar.shared.money.Money;
 
-public class DefaultPricingPolicy implements PricingPolicy {
-    private final double premium, suv, small;
-    public DefaultPricingPolicy(double premium, double suv, double small) {
-        this.premium = premium; this.suv = suv; this.small = small;
-    }
-    public double basePrice(CarType type, int days) {
-        return switch (type) {
-            case PREMIUM -> premium * days;
-            case SUV -> {
-                double total = 0;
-                for (int d = 1; d <= days; d++) {
-                    if (d <= 7) total += suv;
-                    else if (d <= 30) total += suv * 0.80;
-                    else total += suv * 0.50;
-                }
-                yield total;
-            }
-            case SMALL -> {
-                if (days <= 7) yield small * days;
-                yield small * 7 + (small * 0.60) * (days - 7);
-            }
-        };
+import java.util.List;
+import java.util.Map;
+
+public class DefaultPricingPolicy extends TieredPricingPolicy {
+    static final Map<CarType, List<PricingTier>> TIERS = Map.of(
+            CarType.PREMIUM, List.of(new PricingTier(0, 1.0)),
+            CarType.SUV, List.of(new PricingTier(0, 1.0), new PricingTier(7, 0.80), new PricingTier(30, 0.50)),
+            CarType.SMALL, List.of(new PricingTier(0, 1.0), new PricingTier(7, 0.60))
+    );
+
+    public DefaultPricingPolicy(Money premium, Money suv, Money small) {
+        super(Map.of(CarType.PREMIUM, premium, CarType.SUV, suv, CarType.SMALL, small),
+                TIERS,
+                Map.of(CarType.PREMIUM, premium.times(1.20),
+                        CarType.SUV, suv.plus(small.times(0.60)),
+                        CarType.SMALL, small.times(1.30)));
     }
-    public double latePerDay(CarType type) {
-        return switch (type) {
-            case PREMIUM -> premium * 1.20;
-            case SUV -> suv + 0.60 * small;
-            case SMALL -> small * 1.30;
-        };
+
+    /**
+     * Daily rates in major units of {@link Money#CURRENCY}.
+     */
+    public DefaultPricingPolicy(double premium, double suv, double small) {
+        this(Money.ofMajor(premium, Money.CURRENCY), Money.ofMajor(suv, Money.CURRENCY),
+                Money.ofMajor(small, Money.CURRENCY));
     }
 }
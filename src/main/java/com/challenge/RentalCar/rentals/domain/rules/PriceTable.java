@@ -0,0 +1,59 @@
+package com.challenge.RentalCar.rentals.domain.rules;
+
+import com.challenge.RentalCar.inventory.domain.CarType;
+
+import java.util.Currency;
+
+/**
+ * Base prices of every {@link CarType} for 0..{@code maxDays} days, computed once from a {@link PricingPolicy}
+ * into one dense row of minor units per type, so a quote is two array loads and no {@code Money} at all.
+ * Longer rentals are priced by the policy itself.
+ */
+public class PriceTable {
+    private final PricingPolicy policy;
+    private final int maxDays;
+    private final Currency currency;
+    private final long[][] base;
+    private final long[] late;
+
+    public PriceTable(PricingPolicy policy, int maxDays) {
+        if (maxDays < 1) {
+            throw new IllegalArgumentException("maxDays must be > 0");
+        }
+        this.policy = policy;
+        this.maxDays = maxDays;
+        var types = CarType.values();
+        currency = policy.basePrice(types[0], 0).currency();
+        base = new long[types.length][maxDays + 1];
+        late = new long[types.length];
+        for (var type : types) {
+            var row = base[type.ordinal()];
+            for (int days = 0; days <= maxDays; days++) {
+                row[days] = policy.basePrice(type, days).minorUnits();
+            }
+            late[type.ordinal()] = policy.latePerDay(type).minorUnits();
+        }
+    }
+
+    /**
+     * In minor units of {@link #currency()}.
+     */
+    public long basePrice(CarType type, int days) {
+        return days >= 0 && days <= maxDays ? base[type.ordinal()][days] : policy.basePrice(type, days).minorUnits();
+    }
+
+    /**
+     * In minor units of {@link #currency()}.
+     */
+    public long latePerDay(CarType type) {
+        return late[type.ordinal()];
+    }
+
+    public Currency currency() {
+        return currency;
+    }
+
+    public int maxDays() {
+        return maxDays;
+    }
+}
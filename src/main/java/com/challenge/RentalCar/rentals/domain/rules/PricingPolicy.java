@@ -2,8 +2,9 @@ package com.challenge.RentalCar.rentals.domain.rules;
 
 
 import com.challenge.RentalCar.inventory.domain.CarType;
+import com.challenge.RentalCar.shared.money.Money;
 
 public interface PricingPolicy {
-    double basePrice(CarType type, int days);
-    double latePerDay(CarType type);
+    Money basePrice(CarType type, int days);
+    Money latePerDay(CarType type);
 }
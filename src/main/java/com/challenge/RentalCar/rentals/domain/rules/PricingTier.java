@@ -0,0 +1,8 @@
+package com.challenge.RentalCar.rentals.domain.rules;
+
+/**
+ * Days after {@code afterDay} are charged at {@code multiplier} times the daily rate,
+ * until the next tier starts.
+ */
+public record PricingTier(int afterDay, double multiplier) {
+}
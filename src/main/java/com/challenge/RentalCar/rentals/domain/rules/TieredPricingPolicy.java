@@ -0,0 +1,79 @@
+package com.challenge.RentalCar.rentals.domain.rules;
+
+import com.challenge.RentalCar.inventory.domain.CarType;
+import com.challenge.RentalCar.shared.money.Money;
+
+import java.util.Currency;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prices every {@link CarType} from a list of {@link PricingTier}s. The price of all days before each tier is
+ * precomputed, so {@link #basePrice} is a scan over a handful of tiers whatever the number of days.
+ * <p>
+ * Each tier's daily rate is rounded to a whole minor unit once, here; from then on a price is {@code long}
+ * arithmetic and exact for any number of days.
+ */
+public class TieredPricingPolicy implements PricingPolicy {
+    private final Currency currency;
+    private final int[][] tierStart;
+    private final long[][] tierRate;
+    private final long[][] priceBefore;
+    private final long[] late;
+
+    public TieredPricingPolicy(Map<CarType, Money> dailyRates,
+                               Map<CarType, List<PricingTier>> tiers,
+                               Map<CarType, Money> latePerDay) {
+        var types = CarType.values();
+        tierStart = new int[types.length][];
+        tierRate = new long[types.length][];
+        priceBefore = new long[types.length][];
+        late = new long[types.length];
+        currency = dailyRates.values().stream().findFirst().map(Money::currency).orElse(Money.CURRENCY);
+
+        for (var type : types) {
+            var typeTiers = tiers.get(type);
+            if (!dailyRates.containsKey(type) || !latePerDay.containsKey(type) || typeTiers == null || typeTiers.isEmpty()) {
+                throw new IllegalArgumentException("missing pricing for " + type);
+            }
+            if (!dailyRates.get(type).currency().equals(currency) || !latePerDay.get(type).currency().equals(currency)) {
+                throw new IllegalArgumentException("pricing of " + type + " must be in " + currency);
+            }
+            if (typeTiers.getFirst().afterDay() != 0) {
+                throw new IllegalArgumentException("first tier of " + type + " must start after day 0");
+            }
+            int n = typeTiers.size();
+            var start = new int[n];
+            var rate = new long[n];
+            var before = new long[n];
+            for (int i = 0; i < n; i++) {
+                start[i] = typeTiers.get(i).afterDay();
+                rate[i] = dailyRates.get(type).times(typeTiers.get(i).multiplier()).minorUnits();
+                if (i > 0) {
+                    if (start[i] <= start[i - 1]) {
+                        throw new IllegalArgumentException("tiers of " + type + " must be in increasing day order");
+                    }
+                    before[i] = before[i - 1] + rate[i - 1] * (start[i] - start[i - 1]);
+                }
+            }
+            tierStart[type.ordinal()] = start;
+            tierRate[type.ordinal()] = rate;
+            priceBefore[type.ordinal()] = before;
+            late[type.ordinal()] = latePerDay.get(type).minorUnits();
+        }
+    }
+
+    @Override
+    public Money basePrice(CarType type, int days) {
+        int t = type.ordinal();
+        var start = tierStart[t];
+        int i = start.length - 1;
+        while (i > 0 && start[i] >= days) i--;
+        return new Money(priceBefore[t][i] + tierRate[t][i] * (days - start[i]), currency);
+    }
+
+    @Override
+    public Money latePerDay(CarType type) {
+        return new Money(late[type.ordinal()], currency);
+    }
+}
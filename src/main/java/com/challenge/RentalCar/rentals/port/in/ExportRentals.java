@@ -0,0 +1,11 @@
+package com.challenge.RentalCar.rentals.port.in;
+
+import java.util.function.Consumer;
+
+public interface ExportRentals {
+    /**
+     * Pushes every rental matching {@code filter} to {@code sink} in id order without holding them in memory.
+     * Paging fields of the filter are ignored.
+     */
+    void handle(ListRentals.Filter filter, Consumer<ListRentals.View> sink);
+}
@@ -0,0 +1,20 @@
+package com.challenge.RentalCar.rentals.port.in;
+
+import com.challenge.RentalCar.shared.money.Money;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface ListOverdueRentals {
+    /**
+     * An OPEN rental past its planned return date and the late fee it has accrued as of the query date.
+     */
+    record Overdue(long rentalId, long customerId, long carId, String type,
+                   LocalDate plannedReturnDate, long daysLate, Money lateFee) {
+    }
+
+    /**
+     * Every OPEN rental whose planned return date is before {@code asOf}, most overdue first.
+     */
+    List<Overdue> handle(LocalDate asOf);
+}
@@ -1,17 +1,35 @@
 package com.challenge.RentalCar.rentals.port.in;
 
+import com.challenge.RentalCar.shared.money.Money;
+
 import java.util.List;
 import java.util.Optional;
 
 public interface ListRentals {
-    record Filter(Optional<Long> customerId, Optional<String> status) {
+    int DEFAULT_LIMIT = 50;
+    int MAX_LIMIT = 500;
+
+    /**
+     * {@code after} is the opaque {@link Page#nextCursor()} of the previous page.
+     */
+    record Filter(Optional<Long> customerId, Optional<String> status,
+                  Optional<Integer> limit, Optional<String> after) {
+        public Filter(Optional<Long> customerId, Optional<String> status) {
+            this(customerId, status, Optional.empty(), Optional.empty());
+        }
     }
 
     record View(Long id, Long customerId, Long carId, String type,
                 java.time.LocalDate startDate, int daysBooked,
                 java.time.LocalDate plannedReturnDate,
-                double prepaidAmount, String status) {
+                Money prepaidAmount, String status) {
+    }
+
+    /**
+     * {@code nextCursor} is null on the last page.
+     */
+    record Page(List<View> items, String nextCursor) {
     }
 
-    List<View> handle(Filter filter);
+    Page handle(Filter filter);
 }
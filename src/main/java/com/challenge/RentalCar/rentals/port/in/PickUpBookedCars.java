@@ -0,0 +1,13 @@
+package com.challenge.RentalCar.rentals.port.in;
+
+import java.time.LocalDate;
+
+public interface PickUpBookedCars {
+    /**
+     * Takes the car of every open rental that has started by {@code day}, so a booking made ahead holds its car
+     * from its start date on just like a rental started on the spot.
+     *
+     * @return how many cars this call took
+     */
+    int handle(LocalDate day);
+}
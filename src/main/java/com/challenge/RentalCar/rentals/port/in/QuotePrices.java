@@ -0,0 +1,27 @@
+package com.challenge.RentalCar.rentals.port.in;
+
+import com.challenge.RentalCar.inventory.domain.CarType;
+
+import java.util.Currency;
+
+public interface QuotePrices {
+    /**
+     * Item {@code i} is renting a {@code types[i]} car for {@code days[i]} days and bringing it back
+     * {@code lateDays[i]} days late; only the first {@code size} slots are used. Items are kept in columns so a
+     * bulk quote costs a few arrays instead of an object per item.
+     */
+    record Batch(CarType[] types, int[] days, int[] lateDays, int size) {
+    }
+
+    /**
+     * Prepaid amount and late fee of item {@code i} of the batch, in the same slots, as minor units of
+     * {@code currency}.
+     */
+    record Quotes(long[] prepaid, long[] lateFee, Currency currency) {
+    }
+
+    /**
+     * Prices every item without renting anything; an invalid item fails the whole batch before any is priced.
+     */
+    Quotes handle(Batch batch);
+}
@@ -1,11 +1,43 @@
 package com.challenge.RentalCar.rentals.port.in;
 
+import com.challenge.RentalCar.shared.money.Money;
+
+import java.time.LocalDate;
+import java.util.List;
+
 public interface RentCar {
-    record Command(long customerId, long carId, int days) {
+    /**
+     * {@code startDate} null means today; a later date books the car for {@code days} days from then without
+     * taking it now.
+     */
+    record Command(long customerId, long carId, int days, LocalDate startDate) {
+        public Command(long customerId, long carId, int days) {
+            this(customerId, carId, days, null);
+        }
+    }
+
+    record Result(long rentalId, Money prepaidAmount, int loyaltyPointsAwarded) {
     }
 
-    record Result(long rentalId, double prepaidAmount, int loyaltyPointsAwarded) {
+    /**
+     * Outcome of one command of a batch: {@code result} on success, otherwise the HTTP status
+     * the single-rental endpoint would have answered with and its message.
+     */
+    record BatchItem(int status, Result result, String message) {
+        public static BatchItem ok(Result result) {
+            return new BatchItem(200, result, null);
+        }
+
+        public static BatchItem failed(int status, String message) {
+            return new BatchItem(status, null, message);
+        }
     }
 
     Result handle(Command cmd);
+
+    /**
+     * Rents every car of the batch in one transaction. A failing command does not fail the others, not even
+     * one whose dates another instance booked first; items come back in request order.
+     */
+    List<BatchItem> handleBatch(List<Command> cmds);
 }
@@ -0,0 +1,34 @@
+package com.challenge.RentalCar.rentals.port.in;
+
+import com.challenge.RentalCar.inventory.domain.CarType;
+import com.challenge.RentalCar.shared.money.Money;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+public interface ReportRevenue {
+    /**
+     * {@code from} and {@code to} are both included.
+     */
+    record Query(LocalDate from, LocalDate to) {
+    }
+
+    /**
+     * Revenue of one car type on one day: prepaid amounts of the rentals that started that day and surcharges of
+     * the rentals returned late that day.
+     */
+    record Day(LocalDate date, CarType type, Money prepaid, Money surcharge, long rentals) {
+    }
+
+    record Totals(Money prepaid, Money surcharge, long rentals) {
+    }
+
+    /**
+     * {@code days} only holds the days and types that had revenue, by date then type.
+     */
+    record Report(LocalDate from, LocalDate to, Totals total, Map<CarType, Totals> byType, List<Day> days) {
+    }
+
+    Report handle(Query query);
+}
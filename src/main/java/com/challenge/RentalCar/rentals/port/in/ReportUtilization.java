@@ -0,0 +1,36 @@
+package com.challenge.RentalCar.rentals.port.in;
+
+import com.challenge.RentalCar.inventory.domain.CarType;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+public interface ReportUtilization {
+    enum Granularity {DAY, WEEK, MONTH}
+
+    /**
+     * {@code from} and {@code to} are both included; weeks start on Monday, months on the 1st, and the first and
+     * last period are clipped to the window.
+     */
+    record Query(LocalDate from, LocalDate to, Granularity granularity) {
+    }
+
+    /**
+     * Share of the fleet's car-days of each type that were rented in {@code [start, end]}.
+     */
+    record Period(LocalDate start, LocalDate end, Map<CarType, Double> byType) {
+    }
+
+    /**
+     * Share of the window's days the car was rented.
+     */
+    record CarShare(long carId, CarType type, long rentedDays, double share) {
+    }
+
+    record Report(LocalDate from, LocalDate to, Granularity granularity, Map<CarType, Double> byType,
+                  List<Period> periods, List<CarShare> cars) {
+    }
+
+    Report handle(Query query);
+}
@@ -1,13 +1,36 @@
 package com.challenge.RentalCar.rentals.port.in;
 
+import com.challenge.RentalCar.shared.money.Money;
+
 import java.time.LocalDate;
+import java.util.List;
 
 public interface ReturnCar {
     record Command(long rentalId, LocalDate actualReturnDate) {
     }
 
-    record Result(long rentalId, double surcharge) {
+    record Result(long rentalId, Money surcharge) {
+    }
+
+    /**
+     * Outcome of one command of a batch: {@code result} on success, otherwise the HTTP status
+     * and message of the failure.
+     */
+    record BatchItem(int status, Result result, String message) {
+        public static BatchItem ok(Result result) {
+            return new BatchItem(200, result, null);
+        }
+
+        public static BatchItem failed(int status, String message) {
+            return new BatchItem(status, null, message);
+        }
     }
 
     Result handle(Command cmd);
+
+    /**
+     * Returns every rental of the batch in one transaction. A failing command does not fail the others;
+     * items come back in request order.
+     */
+    List<BatchItem> handleBatch(List<Command> cmds);
 }
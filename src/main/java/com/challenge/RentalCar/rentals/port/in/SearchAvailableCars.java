@@ -0,0 +1,20 @@
+package com.challenge.RentalCar.rentals.port.in;
+
+import com.challenge.RentalCar.inventory.domain.CarType;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface SearchAvailableCars {
+    /**
+     * Cars of {@code type} (any type if null) that can be rented from {@code from} and returned on {@code to}, the
+     * same range a rental with that start date and {@code to - from} days books.
+     */
+    record Query(CarType type, LocalDate from, LocalDate to) {
+    }
+
+    record AvailableCar(long id, String brand, String model, CarType type) {
+    }
+
+    List<AvailableCar> handle(Query query);
+}
@@ -0,0 +1,11 @@
+package com.challenge.RentalCar.rentals.port.in;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface SubmitRentCar {
+    /**
+     * Queues the command for the next group commit. The future completes with the same result {@link RentCar#handle}
+     * would return, or fails with the exception it would have thrown.
+     */
+    CompletableFuture<RentCar.Result> submit(RentCar.Command cmd);
+}
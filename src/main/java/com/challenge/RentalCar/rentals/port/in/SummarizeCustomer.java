@@ -0,0 +1,16 @@
+package com.challenge.RentalCar.rentals.port.in;
+
+import com.challenge.RentalCar.shared.money.Money;
+
+import java.time.LocalDate;
+
+public interface SummarizeCustomer {
+    /**
+     * Lifetime figures of one customer; {@code lastStartDate} is null when they never rented.
+     */
+    record Summary(long customerId, String name, int points, long rentals, long openRentals,
+                   Money lifetimeSpend, LocalDate lastStartDate) {
+    }
+
+    Summary handle(long customerId);
+}
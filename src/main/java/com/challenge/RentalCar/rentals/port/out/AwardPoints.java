@@ -0,0 +1,13 @@
+package com.challenge.RentalCar.rentals.port.out;
+
+import java.util.OptionalInt;
+
+public interface AwardPoints {
+    /**
+     * Atomically adds {@code points} to the customer's balance in the database, without reading it first,
+     * so concurrent awards to the same customer never overwrite each other.
+     *
+     * @return the new balance, or empty if the customer does not exist
+     */
+    OptionalInt award(long customerId, int points);
+}
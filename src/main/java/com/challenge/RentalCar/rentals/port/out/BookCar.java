@@ -0,0 +1,27 @@
+package com.challenge.RentalCar.rentals.port.out;
+
+import java.time.LocalDate;
+
+/**
+ * Date ranges a car is booked for, {@code [start, end)} with {@code end} the planned return date.
+ */
+public interface BookCar {
+    /**
+     * Books the range unless it overlaps a booking of the car, including ones still uncommitted. Inside a
+     * transaction the booking is dropped again if it rolls back.
+     *
+     * @return true if this call booked the range
+     */
+    boolean book(long carId, LocalDate start, LocalDate end);
+
+    /**
+     * Frees a booked range once the current transaction commits.
+     */
+    void unbook(long carId, LocalDate start, LocalDate end);
+
+    /**
+     * Reloads the car's bookings from the database once the current transaction has ended; for when the database
+     * rejected a booking this process thought free.
+     */
+    void reload(long carId);
+}
@@ -0,0 +1,17 @@
+package com.challenge.RentalCar.rentals.port.out;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+public interface LoadBookings {
+    /**
+     * True if no booking of the car overlaps {@code [start, end)}.
+     */
+    boolean isFree(long carId, LocalDate start, LocalDate end);
+
+    /**
+     * Cars with a committed open rental overlapping {@code [start, end)}, read from the database, so bookings made
+     * by other instances are included.
+     */
+    Set<Long> bookedBetween(LocalDate start, LocalDate end);
+}
@@ -2,8 +2,17 @@ package com.challenge.RentalCar.rentals.port.out;
 
 import com.challenge.RentalCar.inventory.domain.Car;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface LoadCar {
     Optional<Car> byId(long id);
+
+    List<Car> byIds(Collection<Long> ids);
+
+    /**
+     * Every car, by id.
+     */
+    List<Car> all();
 }
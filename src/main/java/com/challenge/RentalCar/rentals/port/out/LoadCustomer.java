@@ -2,8 +2,12 @@ package com.challenge.RentalCar.rentals.port.out;
 
 import com.challenge.RentalCar.customers.domain.Customer;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface LoadCustomer {
     Optional<Customer> byId(long id);
+
+    List<Customer> byIds(Collection<Long> ids);
 }
@@ -0,0 +1,13 @@
+package com.challenge.RentalCar.rentals.port.out;
+
+import com.challenge.RentalCar.rentals.domain.Rental;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface LoadOverdueRentals {
+    /**
+     * OPEN rentals with a planned return date before {@code asOf}, ordered by planned return date.
+     */
+    List<Rental> findOverdue(LocalDate asOf);
+}
@@ -0,0 +1,19 @@
+package com.challenge.RentalCar.rentals.port.out;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+public interface LoadPickUps {
+    /**
+     * Up to {@code limit} cars still available that have an open rental started on or before {@code day}, in id
+     * order after {@code afterCarId}. Nothing is locked.
+     */
+    List<Long> startedAvailableCarIds(LocalDate day, long afterCarId, int limit);
+
+    /**
+     * The cars among {@code carIds} with an open rental that started on or before {@code day}.
+     */
+    Set<Long> startedCarIds(Collection<Long> carIds, LocalDate day);
+}
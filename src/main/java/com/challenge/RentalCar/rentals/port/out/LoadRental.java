@@ -2,8 +2,15 @@ package com.challenge.RentalCar.rentals.port.out;
 
 import com.challenge.RentalCar.rentals.domain.Rental;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface LoadRental {
     Optional<Rental> byId(long id);
+
+    /**
+     * The rentals among {@code ids} with one IN query; unknown ids are left out.
+     */
+    List<Rental> byIds(Collection<Long> ids);
 }
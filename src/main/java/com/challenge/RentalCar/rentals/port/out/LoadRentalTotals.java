@@ -0,0 +1,16 @@
+package com.challenge.RentalCar.rentals.port.out;
+
+import com.challenge.RentalCar.shared.money.Money;
+
+import java.time.LocalDate;
+
+public interface LoadRentalTotals {
+    record Totals(long rentals, long openRentals, Money prepaid, LocalDate lastStartDate) {
+    }
+
+    /**
+     * Count, open count, prepaid sum and latest start date of the customer's rentals, computed by the database
+     * in one aggregate query; all zero (and a null date) when there are none.
+     */
+    Totals forCustomer(long customerId);
+}
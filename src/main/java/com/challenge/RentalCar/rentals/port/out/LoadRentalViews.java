@@ -0,0 +1,20 @@
+package com.challenge.RentalCar.rentals.port.out;
+
+import com.challenge.RentalCar.rentals.domain.Rental;
+import com.challenge.RentalCar.rentals.port.in.ListRentals;
+
+import java.util.List;
+
+/**
+ * Keyset reads of the rentals read model: every method returns at most {@code limit} views with
+ * {@code id > afterId}, ordered by id, already in the shape {@code GET /rentals} answers with.
+ */
+public interface LoadRentalViews {
+    List<ListRentals.View> findAll(long afterId, int limit);
+
+    List<ListRentals.View> findByStatus(Rental.Status status, long afterId, int limit);
+
+    List<ListRentals.View> findByCustomer(long customerId, long afterId, int limit);
+
+    List<ListRentals.View> findByCustomerAndStatus(long customerId, Rental.Status status, long afterId, int limit);
+}
@@ -0,0 +1,14 @@
+package com.challenge.RentalCar.rentals.port.out;
+
+import com.challenge.RentalCar.rentals.port.in.ReportRevenue.Day;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface LoadRevenue {
+    /**
+     * Rollup rows in {@code [from, to]}, by date then type: one primary-key range scan, however many rentals the
+     * window holds.
+     */
+    List<Day> between(LocalDate from, LocalDate to);
+}
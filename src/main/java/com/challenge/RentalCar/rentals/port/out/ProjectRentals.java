@@ -0,0 +1,21 @@
+package com.challenge.RentalCar.rentals.port.out;
+
+import com.challenge.RentalCar.rentals.domain.Rental;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Keeps the rentals read model in step with the write side. Called inside the transaction that changes the
+ * rental, so the view commits or rolls back with it.
+ */
+public interface ProjectRentals {
+    /** Adds the view of a rental that has just been saved and has its id. */
+    void opened(Rental rental);
+
+    void openedAll(List<Rental> rentals);
+
+    void returned(long rentalId);
+
+    void returnedAll(Collection<Long> rentalIds);
+}
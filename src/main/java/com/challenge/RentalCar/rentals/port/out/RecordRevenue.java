@@ -0,0 +1,17 @@
+package com.challenge.RentalCar.rentals.port.out;
+
+import com.challenge.RentalCar.rentals.domain.Rental;
+
+import java.util.Collection;
+
+/**
+ * Keeps the daily revenue rollup in step with the rentals. Called inside the transaction that rents or returns,
+ * so the rollup commits or rolls back with it.
+ */
+public interface RecordRevenue {
+    /** Adds new rentals and their prepaid amounts to their start day. */
+    void rented(Collection<Rental> rentals);
+
+    /** Adds the surcharges of rentals that have just been returned to their actual return day. */
+    void returned(Collection<Rental> rentals);
+}
@@ -0,0 +1,17 @@
+package com.challenge.RentalCar.rentals.port.out;
+
+import java.util.Collection;
+
+public interface ReleaseCar {
+    /**
+     * Marks the car as available again.
+     *
+     * @return false if the car does not exist
+     */
+    boolean release(long carId);
+
+    /**
+     * Marks every car among {@code carIds} as available with one set-based update.
+     */
+    void releaseAll(Collection<Long> carIds);
+}
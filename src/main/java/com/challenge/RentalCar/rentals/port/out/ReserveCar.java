@@ -0,0 +1,20 @@
+package com.challenge.RentalCar.rentals.port.out;
+
+import java.util.Collection;
+import java.util.Set;
+
+public interface ReserveCar {
+    /**
+     * Atomically flips the car from available to rented.
+     *
+     * @return true if this call took the car, false if it was already rented or does not exist
+     */
+    boolean reserve(long carId);
+
+    /**
+     * Reserves every available car among {@code carIds} with one set-based update.
+     *
+     * @return the ids this call took
+     */
+    Set<Long> reserveAll(Collection<Long> carIds);
+}
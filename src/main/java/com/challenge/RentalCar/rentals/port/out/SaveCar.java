@@ -3,5 +3,9 @@ package com.challenge.RentalCar.rentals.port.out;
 import com.challenge.RentalCar.inventory.domain.Car;
 
 public interface SaveCar {
+    /**
+     * Inserts a new car and assigns its generated id; availability changes through {@link ReserveCar} and
+     * {@link ReleaseCar}.
+     */
     Car save(Car car);
 }
@@ -3,5 +3,8 @@ package com.challenge.RentalCar.rentals.port.out;
 import com.challenge.RentalCar.customers.domain.Customer;
 
 public interface SaveCustomer {
+    /**
+     * Inserts a new customer and assigns its generated id.
+     */
     Customer save(Customer customer);
 }
@@ -1,7 +1,41 @@
 package com.challenge.RentalCar.rentals.port.out;
 
 import com.challenge.RentalCar.rentals.domain.Rental;
+import com.challenge.RentalCar.shared.money.Money;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
 
 public interface SaveRental {
+    /**
+     * What a return stores on the rental row.
+     */
+    record Return(long rentalId, LocalDate actualReturnDate, Money surcharge) {
+    }
+
+    /**
+     * Inserts a new rental and assigns its generated id; existing rentals change through {@link #markReturned}.
+     */
     Rental save(Rental rental);
+
+    /**
+     * Flips an open rental to returned and stores its return date and surcharge with a single UPDATE; false if it
+     * was not open (or does not exist).
+     */
+    boolean markReturned(Return returned);
+
+    /**
+     * Flips every open rental among {@code returns} to returned, with its return date and surcharge, in one
+     * batch.
+     *
+     * @return the ids this call flipped
+     */
+    Set<Long> markAllReturned(Collection<Return> returns);
+
+    /**
+     * Inserts new rentals in one batch and assigns their generated ids.
+     */
+    List<Rental> saveAll(List<Rental> rentals);
 }
@@ -0,0 +1,22 @@
+package com.challenge.RentalCar.rentals.port.out;
+
+import com.challenge.RentalCar.inventory.domain.CarType;
+
+import java.time.LocalDate;
+import java.util.function.Consumer;
+
+public interface ScanRentalIntervals {
+    /**
+     * Days {@code [start, end)} a car was out for: {@code end} is the actual return date once returned, the
+     * planned one until then.
+     */
+    record Interval(long carId, CarType type, LocalDate start, LocalDate end) {
+    }
+
+    /**
+     * Every rental of a car with id in {@code [fromCarId, toCarId]} that overlaps {@code [from, to]}, ordered by
+     * car id, then start date; bookings cancelled before they started are left out. Read in keyset chunks, so no
+     * statement holds more than one chunk in memory.
+     */
+    void scan(long fromCarId, long toCarId, LocalDate from, LocalDate to, Consumer<Interval> sink);
+}
@@ -0,0 +1,13 @@
+package com.challenge.RentalCar.rentals.port.out;
+
+import com.challenge.RentalCar.rentals.domain.Rental;
+
+import java.util.stream.Stream;
+
+public interface StreamRentals {
+    /**
+     * Lazily reads rentals in id order; a null argument means no filter on it.
+     * Must be consumed and closed inside a transaction.
+     */
+    Stream<Rental> streamAll(Long customerId, Rental.Status status);
+}
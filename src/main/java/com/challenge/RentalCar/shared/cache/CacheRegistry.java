@@ -0,0 +1,65 @@
+package com.challenge.RentalCar.shared.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Creates the named caches from {@code cache.*} settings and keeps them for {@link CacheStatsController}.
+ * {@code cache.<name>.enabled|max-size|ttl} override the {@code cache.enabled} switch and the defaults.
+ * Also binds every cache's counters to Micrometer as {@code rentalcar.cache.*}, tagged by cache name.
+ */
+@Component
+public class CacheRegistry implements MeterBinder {
+    private final Environment env;
+    private final List<ReadThroughCache<?, ?>> caches = new CopyOnWriteArrayList<>();
+    private volatile MeterRegistry meterRegistry;
+
+    public CacheRegistry(Environment env) {
+        this.env = env;
+    }
+
+    public synchronized <K, V> ReadThroughCache<K, V> create(String name) {
+        boolean enabled = env.getProperty("cache." + name + ".enabled", Boolean.class,
+                env.getProperty("cache.enabled", Boolean.class, false));
+        int maxSize = env.getProperty("cache." + name + ".max-size", Integer.class, 10_000);
+        var ttl = env.getProperty("cache." + name + ".ttl", Duration.class, Duration.ofMinutes(10));
+        var cache = new ReadThroughCache<K, V>(name, enabled, maxSize, ttl);
+        caches.add(cache);
+        var registry = meterRegistry;
+        if (registry != null) bind(cache, registry);
+        return cache;
+    }
+
+    /**
+     * Caches created before or after the registry shows up are both bound, whatever the bean order.
+     */
+    @Override
+    public synchronized void bindTo(MeterRegistry registry) {
+        meterRegistry = registry;
+        caches.forEach(cache -> bind(cache, registry));
+    }
+
+    private static void bind(ReadThroughCache<?, ?> cache, MeterRegistry registry) {
+        var name = cache.stats().name();
+        FunctionCounter.builder("rentalcar.cache.hits", cache, c -> c.stats().hits())
+                .tag("cache", name).register(registry);
+        FunctionCounter.builder("rentalcar.cache.misses", cache, c -> c.stats().misses())
+                .tag("cache", name).register(registry);
+        FunctionCounter.builder("rentalcar.cache.evictions", cache, c -> c.stats().evictions())
+                .tag("cache", name).register(registry);
+        Gauge.builder("rentalcar.cache.size", cache, c -> c.stats().size())
+                .tag("cache", name).register(registry);
+    }
+
+    public List<ReadThroughCache.Stats> stats() {
+        return caches.stream().map(ReadThroughCache::stats).toList();
+    }
+}
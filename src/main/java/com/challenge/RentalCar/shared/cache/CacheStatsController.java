@@ -0,0 +1,23 @@
+package com.challenge.RentalCar.shared.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/caches")
+@RequiredArgsConstructor
+class CacheStatsController {
+    private final CacheRegistry registry;
+
+    /**
+     * GET /caches, hit/miss/eviction counters of every read-through cache
+     */
+    @GetMapping
+    public List<ReadThroughCache.Stats> all() {
+        return registry.stats();
+    }
+}
@@ -0,0 +1,114 @@
+package com.challenge.RentalCar.shared.cache;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded read-through cache: least recently used entries are evicted past {@code maxSize}, entries older than
+ * {@code ttl} are reloaded. Values must be immutable. A disabled cache always calls the loader.
+ */
+public final class ReadThroughCache<K, V> {
+    public record Stats(String name, boolean enabled, int size, long hits, long misses, long evictions) {
+    }
+
+    private record Entry<V>(V value, long loadedAt) {
+    }
+
+    private final String name;
+    private final boolean enabled;
+    private final long ttlNanos;
+    private final LongSupplier nanoTime;
+    private final LinkedHashMap<K, Entry<V>> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private long invalidations;
+
+    public ReadThroughCache(String name, boolean enabled, int maxSize, Duration ttl) {
+        this(name, enabled, maxSize, ttl, System::nanoTime);
+    }
+
+    ReadThroughCache(String name, boolean enabled, int maxSize, Duration ttl, LongSupplier nanoTime) {
+        this.name = name;
+        this.enabled = enabled;
+        this.ttlNanos = ttl.toNanos();
+        this.nanoTime = nanoTime;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() <= maxSize) return false;
+                evictions.increment();
+                return true;
+            }
+        };
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Optional<V> get(K key, Function<K, Optional<V>> loader) {
+        if (!enabled) return loader.apply(key);
+        long seenInvalidations;
+        synchronized (entries) {
+            var entry = entries.get(key);
+            if (entry != null) {
+                if (nanoTime.getAsLong() - entry.loadedAt() < ttlNanos) {
+                    hits.increment();
+                    return Optional.of(entry.value());
+                }
+                entries.remove(key);
+                evictions.increment();
+            }
+            seenInvalidations = invalidations;
+        }
+        misses.increment();
+        var loaded = loader.apply(key);
+        loaded.ifPresent(value -> {
+            synchronized (entries) {
+                // an invalidation while we were loading means the value may already be stale
+                if (invalidations == seenInvalidations) entries.put(key, new Entry<>(value, nanoTime.getAsLong()));
+            }
+        });
+        return loaded;
+    }
+
+    public void invalidate(K key) {
+        if (!enabled) return;
+        synchronized (entries) {
+            invalidations++;
+            entries.remove(key);
+        }
+    }
+
+    /**
+     * Drops the entry once the current transaction commits, or right away outside of one.
+     */
+    public void invalidateAfterCommit(K key) {
+        if (!enabled) return;
+        invalidate(key);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) return;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidate(key);
+            }
+        });
+    }
+
+    public Stats stats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return new Stats(name, enabled, size, hits.sum(), misses.sum(), evictions.sum());
+    }
+}
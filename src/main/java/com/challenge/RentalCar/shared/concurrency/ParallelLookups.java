@@ -0,0 +1,61 @@
+package com.challenge.RentalCar.shared.concurrency;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+/**
+ * Runs two independent lookups side by side, each on its own virtual thread, in the spirit of
+ * {@code StructuredTaskScope.ShutdownOnFailure} (still a preview API on Java 21): the first failure cancels the
+ * other lookup and is rethrown as is, and neither thread outlives the call. When disabled both run one after the
+ * other on the caller's thread. Lookups run outside the caller's transaction, each with its own connection.
+ */
+@Component
+public class ParallelLookups {
+    private final boolean enabled;
+
+    public ParallelLookups(@Value("${rentals.parallel-lookups:${spring.threads.virtual.enabled:false}}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public <A, B, R> R both(Supplier<A> first, Supplier<B> second, BiFunction<A, B, R> combine) {
+        if (!enabled) return combine.apply(first.get(), second.get());
+
+        try (var scope = Executors.newVirtualThreadPerTaskExecutor()) {
+            var done = new ExecutorCompletionService<Object>(scope);
+            Future<Object> a = done.submit(first::get);
+            Future<Object> b = done.submit(second::get);
+            try {
+                for (int i = 0; i < 2; i++) done.take().get();
+            } catch (ExecutionException e) {
+                a.cancel(true);
+                b.cancel(true);
+                throw rethrow(e.getCause());
+            } catch (InterruptedException e) {
+                a.cancel(true);
+                b.cancel(true);
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("interrupted while waiting for lookups", e);
+            }
+            @SuppressWarnings("unchecked") A resultA = (A) a.resultNow();
+            @SuppressWarnings("unchecked") B resultB = (B) b.resultNow();
+            return combine.apply(resultA, resultB);
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable cause) {
+        if (cause instanceof RuntimeException e) return e;
+        if (cause instanceof Error e) throw e;
+        return new IllegalStateException(cause);
+    }
+}
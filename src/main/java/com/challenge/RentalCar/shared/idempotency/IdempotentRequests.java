@@ -0,0 +1,245 @@
+package com.challenge.RentalCar.shared.idempotency;
+
+import com.challenge.RentalCar.shared.cache.CacheRegistry;
+import com.challenge.RentalCar.shared.cache.ReadThroughCache;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Runs a command at most once per {@code Idempotency-Key}. Completed results are kept as JSON in a bounded TTL
+ * cache in front of the {@code idempotency_keys} table, so a replay is answered from memory or one primary key
+ * read, never by the use case and never inside a transaction. A duplicate that arrives while the first request
+ * is still running waits for its result instead of running it again.
+ * <p>
+ * The key is scoped by command ({@code rent}, {@code return}) and bound to the request body: reusing it for a
+ * different request is a 422. Failed commands are not recorded, so a retry after an error runs again.
+ * <p>
+ * The key's row is reserved before the command runs and gets the result once it completes. A request whose key
+ * is reserved but has no result yet, because it is running on another instance or the process stopped or failed
+ * to record after the command committed, is answered 409 until the row expires: the command may have taken
+ * effect, so it is never run a second time. Within an instance a duplicate waits for the running command.
+ */
+@Slf4j
+@Component
+public class IdempotentRequests implements AutoCloseable {
+    public static final int MAX_KEY_LENGTH = 200;
+    private static final int PURGE_EVERY = 1_000;
+
+    private static final String FIND = """
+            select request, response from idempotency_keys
+            where idem_key = ? and created_at > ? and response is not null
+            """;
+    private static final String FIND_RESERVED = """
+            select request, response from idempotency_keys where idem_key = ? and created_at > ?
+            """;
+    private static final String RESERVE = """
+            insert into idempotency_keys (idem_key, request, created_at) values (?, ?, ?)
+            """;
+    private static final String COMPLETE = """
+            update idempotency_keys set response = ? where idem_key = ? and response is null
+            """;
+    private static final String RELEASE = "delete from idempotency_keys where idem_key = ? and response is null";
+    private static final String DELETE_EXPIRED = "delete from idempotency_keys where idem_key = ? and created_at <= ?";
+    private static final String PURGE = "delete from idempotency_keys where created_at <= ?";
+
+    private record Completed(String request, String response) {
+    }
+
+    private record InFlight(String request, CompletableFuture<Completed> done) {
+    }
+
+    private final JdbcTemplate jdbc;
+    private final ObjectMapper objectMapper;
+    private final Duration retention;
+    private final ReadThroughCache<String, Completed> cache;
+    private final ConcurrentHashMap<String, InFlight> inFlight = new ConcurrentHashMap<>();
+    private final ExecutorService recorder = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicLong inserts = new AtomicLong();
+
+    public IdempotentRequests(JdbcTemplate jdbc, ObjectMapper objectMapper, CacheRegistry caches,
+                              @Value("${rentals.idempotency.retention:24h}") Duration retention) {
+        this.jdbc = jdbc;
+        this.objectMapper = objectMapper;
+        this.retention = retention;
+        this.cache = caches.create("idempotency");
+    }
+
+    /**
+     * Result of {@code command} for {@code key}: the recorded one, the one still being computed, or a fresh run.
+     * The returned future completes once the result is recorded, so a retry after it can always replay.
+     */
+    public <T> CompletableFuture<T> execute(String scope, String key, Object request, Class<T> resultType,
+                                            Supplier<CompletableFuture<T>> command) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Idempotency-Key must be 1-" + MAX_KEY_LENGTH + " characters");
+        }
+        var scopedKey = scope + ":" + key;
+        var requestJson = write(request);
+
+        var recorded = cache.get(scopedKey, this::find);
+        if (recorded.isPresent()) {
+            return CompletableFuture.completedFuture(replay(recorded.get(), requestJson, resultType));
+        }
+
+        var mine = new InFlight(requestJson, new CompletableFuture<>());
+        var running = inFlight.putIfAbsent(scopedKey, mine);
+        if (running != null) {
+            if (!running.request().equals(requestJson)) throw reused();
+            return running.done().thenApply(c -> read(c.response(), resultType));
+        }
+
+        // the first request may have finished between our cache miss and putIfAbsent
+        var late = cache.get(scopedKey, this::find);
+        if (late.isPresent()) {
+            inFlight.remove(scopedKey, mine);
+            mine.done().complete(late.get());
+            return CompletableFuture.completedFuture(replay(late.get(), requestJson, resultType));
+        }
+        Optional<Completed> reserved;
+        try {
+            reserved = reserve(scopedKey, requestJson);
+        } catch (RuntimeException e) {
+            forget(scopedKey, mine, e);
+            throw e;
+        }
+        if (reserved.isPresent()) {
+            inFlight.remove(scopedKey, mine);
+            mine.done().complete(reserved.get());
+            return CompletableFuture.completedFuture(read(reserved.get().response(), resultType));
+        }
+        CompletableFuture<T> result;
+        try {
+            result = command.get();
+        } catch (RuntimeException e) {
+            release(scopedKey);
+            forget(scopedKey, mine, e);
+            throw e;
+        }
+        // group-commit results complete on the writer thread, which must not wait for our INSERT
+        return result.whenCompleteAsync((value, failure) -> {
+            if (failure != null) {
+                release(scopedKey);
+                forget(scopedKey, mine, failure);
+            } else {
+                record(scopedKey, mine, value);
+            }
+        }, result.isDone() ? Runnable::run : recorder);
+    }
+
+    /**
+     * Claims the key's row for this run: empty when the claim is ours, the recorded result when an earlier run
+     * completed; 409 while an earlier run has no result, 422 when the key belongs to another request.
+     */
+    private Optional<Completed> reserve(String scopedKey, String requestJson) {
+        long now = System.currentTimeMillis();
+        try {
+            jdbc.update(RESERVE, scopedKey, requestJson, now);
+        } catch (DuplicateKeyException e) {
+            var earlier = jdbc.query(FIND_RESERVED, rs -> rs.next()
+                    ? Optional.of(new Completed(rs.getString(1), rs.getString(2)))
+                    : Optional.<Completed>empty(), scopedKey, now - retention.toMillis());
+            if (earlier.isEmpty()) {
+                // only an expired row holds the key
+                jdbc.update(DELETE_EXPIRED, scopedKey, now - retention.toMillis());
+                return reserve(scopedKey, requestJson);
+            }
+            if (!earlier.get().request().equals(requestJson)) throw reused();
+            if (earlier.get().response() == null) throw inProgress();
+            return earlier;
+        }
+        if (inserts.incrementAndGet() % PURGE_EVERY == 0) jdbc.update(PURGE, now - retention.toMillis());
+        return Optional.empty();
+    }
+
+    /**
+     * The command has taken effect, so the caller gets its result even if the row cannot be written; the row then
+     * stays reserved and retries on other instances get 409 rather than a second run.
+     */
+    private void record(String scopedKey, InFlight mine, Object value) {
+        var completed = new Completed(mine.request(), write(value));
+        try {
+            jdbc.update(COMPLETE, completed.response(), scopedKey);
+        } catch (RuntimeException e) {
+            log.warn("Could not record the result of idempotent request {}; retries will get 409", scopedKey, e);
+        }
+        cache.get(scopedKey, k -> Optional.of(completed));
+        inFlight.remove(scopedKey, mine);
+        mine.done().complete(completed);
+    }
+
+    /**
+     * A failed command did not take effect: frees the key so a retry runs it again.
+     */
+    private void release(String scopedKey) {
+        try {
+            jdbc.update(RELEASE, scopedKey);
+        } catch (RuntimeException e) {
+            log.warn("Could not release idempotency key {}; retries will get 409 until it expires", scopedKey, e);
+        }
+    }
+
+    private void forget(String scopedKey, InFlight mine, Throwable failure) {
+        inFlight.remove(scopedKey, mine);
+        mine.done().completeExceptionally(failure);
+    }
+
+    private Optional<Completed> find(String scopedKey) {
+        long notBefore = System.currentTimeMillis() - retention.toMillis();
+        return jdbc.query(FIND, rs -> rs.next()
+                ? Optional.of(new Completed(rs.getString(1), rs.getString(2)))
+                : Optional.<Completed>empty(), scopedKey, notBefore);
+    }
+
+    private <T> T replay(Completed completed, String requestJson, Class<T> resultType) {
+        if (!completed.request().equals(requestJson)) throw reused();
+        return read(completed.response(), resultType);
+    }
+
+    private static ResponseStatusException inProgress() {
+        return new ResponseStatusException(HttpStatus.CONFLICT,
+                "A request with this Idempotency-Key is in progress or its outcome is unknown");
+    }
+
+    private static ResponseStatusException reused() {
+        return new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                "Idempotency-Key was already used for a different request");
+    }
+
+    private String write(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private <T> T read(String json, Class<T> type) {
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        recorder.close();
+    }
+}
@@ -0,0 +1,33 @@
+package com.challenge.RentalCar.shared.idempotency;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Durable tier of {@link IdempotentRequests}; rows are written and read with plain JDBC, the entity only
+ * describes the table.
+ */
+@Entity
+@Table(name = "idempotency_keys",
+        indexes = @Index(name = "idx_idempotency_keys_created_at", columnList = "created_at"))
+@Getter
+@Setter
+public class JpaIdempotencyEntity {
+    @Id
+    @Column(length = IdempotentRequests.MAX_KEY_LENGTH + 16)
+    String idemKey;
+    @Column(length = 2000, nullable = false)
+    String request;
+    /**
+     * Null while the command the key was reserved for has no recorded result.
+     */
+    @Column(length = 2000)
+    String response;
+    @Column(nullable = false)
+    long createdAt;
+}
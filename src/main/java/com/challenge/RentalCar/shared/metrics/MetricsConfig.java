@@ -0,0 +1,18 @@
+package com.challenge.RentalCar.shared.metrics;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Makes {@code @Timed} on the persistence adapters record {@code rentalcar.persistence} per class and method.
+     */
+    @Bean
+    TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+}
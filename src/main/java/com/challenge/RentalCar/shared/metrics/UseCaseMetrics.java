@@ -0,0 +1,53 @@
+package com.challenge.RentalCar.shared.metrics;
+
+import com.challenge.RentalCar.inventory.domain.CarType;
+import com.challenge.RentalCar.shared.error.NotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Latency of the rental use cases as {@code rentalcar.usecase}, tagged by use case, outcome and car type,
+ * with a percentile histogram so p95/p99 can be aggregated across instances.
+ */
+@Component
+@RequiredArgsConstructor
+public class UseCaseMetrics {
+    public static final String TIMER = "rentalcar.usecase";
+
+    private final MeterRegistry registry;
+
+    public Timer.Sample start() {
+        return Timer.start(registry);
+    }
+
+    /**
+     * @param carType null when the car was never loaded, e.g. for a 404 or a listing
+     * @param failure null on success
+     */
+    public void stop(Timer.Sample sample, String useCase, CarType carType, Throwable failure) {
+        sample.stop(Timer.builder(TIMER)
+                .tag("usecase", useCase)
+                .tag("outcome", outcome(failure))
+                .tag("car_type", carType == null ? "none" : carType.name())
+                .publishPercentileHistogram()
+                .register(registry));
+    }
+
+    static String outcome(Throwable failure) {
+        return switch (failure) {
+            case null -> "ok";
+            case NotFoundException e -> "not_found";
+            case NoSuchElementException e -> "not_found";
+            case ResponseStatusException e when e.getStatusCode().isSameCodeAs(HttpStatus.NOT_FOUND) -> "not_found";
+            case ResponseStatusException e when e.getStatusCode().isSameCodeAs(HttpStatus.CONFLICT) -> "conflict";
+            case ResponseStatusException e when e.getStatusCode().is4xxClientError() -> "bad_request";
+            default -> "error";
+        };
+    }
+}
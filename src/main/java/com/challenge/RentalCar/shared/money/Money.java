@@ -0,0 +1,70 @@
+package com.challenge.RentalCar.shared.money;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+import java.util.Objects;
+
+/**
+ * An amount as a whole number of its currency's minor units (öre for SEK), so sums and multiples are exact and
+ * cost no more than the {@code long} arithmetic behind them. Amounts of different currencies never mix. In JSON
+ * an amount is its decimal major-unit value, see {@link MoneyJson}.
+ */
+@JsonSerialize(using = MoneyJson.Serializer.class)
+@JsonDeserialize(using = MoneyJson.Deserializer.class)
+public record Money(long minorUnits, Currency currency) {
+    /**
+     * The currency every price is set and stored in; the database keeps minor units of it without a code.
+     */
+    public static final Currency CURRENCY = Currency.getInstance("SEK");
+    public static final Money ZERO = new Money(0, CURRENCY);
+
+    public Money {
+        Objects.requireNonNull(currency, "currency");
+    }
+
+    public static Money of(long minorUnits) {
+        return new Money(minorUnits, CURRENCY);
+    }
+
+    /**
+     * {@code amount} in major units (kronor), rounded half up to the nearest minor unit; meant for configured
+     * rates, not for arithmetic.
+     */
+    public static Money ofMajor(double amount, Currency currency) {
+        return new Money(Math.round(amount * Math.pow(10, currency.getDefaultFractionDigits())), currency);
+    }
+
+    public Money plus(Money other) {
+        requireSameCurrency(other);
+        return new Money(Math.addExact(minorUnits, other.minorUnits), currency);
+    }
+
+    public Money times(long factor) {
+        return new Money(Math.multiplyExact(minorUnits, factor), currency);
+    }
+
+    /**
+     * Scaled by {@code factor} and rounded half up to the nearest minor unit.
+     */
+    public Money times(double factor) {
+        return new Money(Math.round(minorUnits * factor), currency);
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, currency.getDefaultFractionDigits());
+    }
+
+    private void requireSameCurrency(Money other) {
+        if (!currency.equals(other.currency)) {
+            throw new IllegalArgumentException("cannot add " + other.currency + " to " + currency);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString() + " " + currency.getCurrencyCode();
+    }
+}
@@ -0,0 +1,25 @@
+package com.challenge.RentalCar.shared.money;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Maps every {@link Money} attribute to a BIGINT column of minor units in {@link Money#CURRENCY}.
+ */
+@Converter(autoApply = true)
+public class MoneyConverter implements AttributeConverter<Money, Long> {
+
+    @Override
+    public Long convertToDatabaseColumn(Money money) {
+        if (money == null) return null;
+        if (!money.currency().equals(Money.CURRENCY)) {
+            throw new IllegalArgumentException("only " + Money.CURRENCY + " amounts are stored, got " + money);
+        }
+        return money.minorUnits();
+    }
+
+    @Override
+    public Money convertToEntityAttribute(Long minorUnits) {
+        return minorUnits == null ? null : Money.of(minorUnits);
+    }
+}
@@ -0,0 +1,93 @@
+package com.challenge.RentalCar.shared.money;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+
+/**
+ * JSON form of {@link Money}: the amount in major units as a decimal number ({@code 1290.00}), the same field
+ * clients read when amounts were {@code double}s. The currency is left out because every amount is in
+ * {@link Money#CURRENCY}.
+ */
+public final class MoneyJson {
+    /**
+     * Sign, 19 digits, a leading zero and the separator fit in any {@code long} amount.
+     */
+    private static final ThreadLocal<char[]> BUFFER = ThreadLocal.withInitial(() -> new char[24]);
+
+    private MoneyJson() {
+    }
+
+    /**
+     * {@code minorUnits} of {@code currency} as the number a serialized {@code Money} is written as; for writers
+     * that hold amounts as primitives. Formatted from the {@code long} into a per-thread buffer, so writing an
+     * amount allocates nothing.
+     */
+    public static void writeAmount(JsonGenerator gen, long minorUnits, Currency currency) throws IOException {
+        var buf = BUFFER.get();
+        int from = format(minorUnits, currency.getDefaultFractionDigits(), buf);
+        gen.writeNumber(buf, from, buf.length - from);
+    }
+
+    /**
+     * Writes the amount right-aligned into {@code buf} and returns where it starts. Digits are taken on the
+     * negative side, so {@link Long#MIN_VALUE} needs no special case.
+     */
+    static int format(long minorUnits, int fractionDigits, char[] buf) {
+        int pos = buf.length;
+        long v = minorUnits > 0 ? -minorUnits : minorUnits;
+        for (int i = 0; i < fractionDigits; i++) {
+            buf[--pos] = (char) ('0' - v % 10);
+            v /= 10;
+        }
+        if (fractionDigits > 0) buf[--pos] = '.';
+        do {
+            buf[--pos] = (char) ('0' - v % 10);
+            v /= 10;
+        } while (v != 0);
+        if (minorUnits < 0) buf[--pos] = '-';
+        return pos;
+    }
+
+    public static final class Serializer extends StdSerializer<Money> {
+        public Serializer() {
+            super(Money.class);
+        }
+
+        @Override
+        public void serialize(Money value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            writeAmount(gen, value.minorUnits(), value.currency());
+        }
+    }
+
+    /**
+     * Reads the decimal form, whole numbers included, rounded half up to the nearest minor unit.
+     */
+    public static final class Deserializer extends StdDeserializer<Money> {
+        public Deserializer() {
+            super(Money.class);
+        }
+
+        @Override
+        public Money deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            if (p.currentToken() == JsonToken.VALUE_NUMBER_INT || p.currentToken() == JsonToken.VALUE_NUMBER_FLOAT) {
+                return ofMajor(p.getDecimalValue());
+            }
+            return (Money) ctxt.handleUnexpectedToken(Money.class, p);
+        }
+
+        private static Money ofMajor(BigDecimal amount) {
+            int digits = Money.CURRENCY.getDefaultFractionDigits();
+            return Money.of(amount.setScale(digits, RoundingMode.HALF_UP).unscaledValue().longValueExact());
+        }
+    }
+}
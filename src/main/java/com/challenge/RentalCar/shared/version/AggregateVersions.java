@@ -0,0 +1,55 @@
+package com.challenge.RentalCar.shared.version;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One monotonically increasing version per aggregate type, bumped after every committed write and handed out
+ * as an ETag by the query controllers. Query handlers read the ETag <em>before</em> they query, so a response
+ * can be newer than its tag but never older, and a matching {@code If-None-Match} is always safe to answer
+ * with 304.
+ * <p>
+ * Versions live in this JVM; the ETag carries a per-start epoch so a restart never reissues an old tag.
+ */
+@Component
+public class AggregateVersions {
+    public enum Aggregate {CARS, CUSTOMERS, RENTALS}
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<Aggregate, AtomicLong> versions = new EnumMap<>(Aggregate.class);
+
+    public AggregateVersions() {
+        for (var a : Aggregate.values()) versions.put(a, new AtomicLong());
+    }
+
+    public long current(Aggregate aggregate) {
+        return versions.get(aggregate).get();
+    }
+
+    public String etag(Aggregate aggregate) {
+        return "\"" + aggregate.name().toLowerCase() + "-" + epoch + "-" + current(aggregate) + "\"";
+    }
+
+    /**
+     * Bumps once the surrounding transaction commits (right away without one); a rolled back write leaves the
+     * version alone.
+     */
+    public void bumpAfterCommit(Aggregate aggregate) {
+        var version = versions.get(aggregate);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            version.incrementAndGet();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                version.incrementAndGet();
+            }
+        });
+    }
+}
@@ -0,0 +1,10 @@
+-- Rentals can start on a later date, so a car may have several open rentals;
+-- the database rejects two whose [start_date, planned_return_date) ranges
+-- overlap on the same car. Returned rentals no longer hold their dates.
+-- btree_gist lets the car_id equality share the GiST index with the range.
+-- Adding the constraint builds that index under an exclusive lock on rentals.
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+ALTER TABLE rentals ADD CONSTRAINT rentals_no_overlapping_bookings
+  EXCLUDE USING gist (car_id WITH =, daterange(start_date, planned_return_date) WITH &&)
+  WHERE (status = 'OPEN');
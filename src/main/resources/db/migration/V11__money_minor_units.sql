@@ -0,0 +1,17 @@
+-- Amounts are whole öre of SEK (Money.CURRENCY) instead of floating-point
+-- kronor, so sums are exact. Existing values are rounded to the nearest öre.
+-- Each ALTER rewrites its table and rebuilds its indexes (including
+-- idx_rentals_customer_summary) under an exclusive lock.
+
+ALTER TABLE rentals ALTER COLUMN surcharge DROP DEFAULT;
+ALTER TABLE rentals
+  ALTER COLUMN prepaid_amount TYPE BIGINT USING round(prepaid_amount * 100)::bigint,
+  ALTER COLUMN surcharge TYPE BIGINT USING round(surcharge * 100)::bigint;
+ALTER TABLE rentals ALTER COLUMN surcharge SET DEFAULT 0;
+
+ALTER TABLE rental_views
+  ALTER COLUMN prepaid_amount TYPE BIGINT USING round(prepaid_amount * 100)::bigint;
+
+ALTER TABLE revenue_daily
+  ALTER COLUMN prepaid_total TYPE BIGINT USING round(prepaid_total * 100)::bigint,
+  ALTER COLUMN surcharge_total TYPE BIGINT USING round(surcharge_total * 100)::bigint;
@@ -0,0 +1,3 @@
+-- IdempotentRequests reserves a key's row before running the command and
+-- writes the response once it completes; a reserved row has no response yet.
+ALTER TABLE idempotency_keys ALTER COLUMN response DROP NOT NULL;
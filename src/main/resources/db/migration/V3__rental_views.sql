@@ -0,0 +1,22 @@
+-- Rentals read model: one row per rental in the shape GET /rentals returns,
+-- maintained by the rent and return transactions
+CREATE TABLE rental_views (
+  id BIGINT PRIMARY KEY,
+  customer_id BIGINT NOT NULL,
+  car_id BIGINT NOT NULL,
+  type VARCHAR(50) NOT NULL,
+  start_date DATE NOT NULL,
+  days_booked INT NOT NULL,
+  planned_return_date DATE NOT NULL,
+  prepaid_amount DOUBLE PRECISION NOT NULL,
+  status VARCHAR(50) NOT NULL
+);
+-- keyset pages: filter column(s) first, then id
+CREATE INDEX idx_rental_views_status_id ON rental_views(status, id);
+CREATE INDEX idx_rental_views_customer_id ON rental_views(customer_id, id);
+
+INSERT INTO rental_views (id, customer_id, car_id, type, start_date, days_booked,
+                          planned_return_date, prepaid_amount, status)
+SELECT id, customer_id, car_id, type, start_date, days_booked,
+       start_date + days_booked, prepaid_amount, status
+FROM rentals;
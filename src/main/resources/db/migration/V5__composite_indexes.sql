@@ -0,0 +1,17 @@
+-- Composite indexes matched to the repository queries: equality columns first, then the
+-- ORDER BY column, so filtered reads are range scans instead of table scans.
+-- Mirrored by @Table(indexes = ...) on the entities, which QueryPlanTest checks on H2.
+-- Runs outside a transaction (see .sql.conf) so the indexes build without blocking writes.
+
+-- rentals: streamByStatusOrderByIdAsc
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_rentals_status_id ON rentals(status, id);
+-- rentals: streamByCustomerIdAndStatusOrderByIdAsc, and streamByCustomerIdOrderByIdAsc on its
+-- customer_id prefix (which also serves the customer FK)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_rentals_customer_status_id ON rentals(customer_id, status, id);
+
+-- single-column indexes from V1, now leading prefixes of the composites above
+DROP INDEX CONCURRENTLY IF EXISTS idx_rentals_status;
+DROP INDEX CONCURRENTLY IF EXISTS idx_rentals_customer;
+
+-- rental_views: findByCustomerIdAndStatusAndIdGreaterThanOrderByIdAsc
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_rental_views_customer_status_id ON rental_views(customer_id, status, id);
@@ -0,0 +1,10 @@
+-- Recorded results of POST /rentals and POST /rentals/{id}/return by Idempotency-Key,
+-- written after the command commits and replayed by IdempotentRequests
+CREATE TABLE idempotency_keys (
+  idem_key VARCHAR(216) PRIMARY KEY,
+  request VARCHAR(2000) NOT NULL,
+  response VARCHAR(2000) NOT NULL,
+  created_at BIGINT NOT NULL
+);
+-- purge of expired keys
+CREATE INDEX idx_idempotency_keys_created_at ON idempotency_keys(created_at);
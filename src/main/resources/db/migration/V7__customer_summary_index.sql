@@ -0,0 +1,6 @@
+-- GET /customers/{id}/summary aggregates COUNT, SUM(prepaid_amount), the open count and
+-- MAX(start_date) over one customer's rentals. Every column it reads is in this index, so
+-- PostgreSQL answers it with an index-only scan instead of visiting the heap row by row.
+-- Runs outside a transaction (see .sql.conf) so the index builds without blocking writes.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_rentals_customer_summary
+    ON rentals(customer_id, status, start_date, prepaid_amount);
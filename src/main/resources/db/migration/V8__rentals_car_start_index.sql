@@ -0,0 +1,4 @@
+-- GET /analytics/utilization scans rentals per car-id range in (car_id, start_date, id) keyset
+-- chunks; this index serves both the range and the order, and also backs the car foreign key.
+-- Runs outside a transaction (see .sql.conf) so the index builds without blocking writes.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_rentals_car_start ON rentals(car_id, start_date, id);
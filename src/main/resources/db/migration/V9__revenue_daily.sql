@@ -0,0 +1,20 @@
+-- Returns store their date and late surcharge; rentals returned before this
+-- release keep a NULL date and a 0 surcharge, which was never recorded.
+ALTER TABLE rentals ADD COLUMN actual_return_date DATE;
+ALTER TABLE rentals ADD COLUMN surcharge DOUBLE PRECISION NOT NULL DEFAULT 0;
+
+-- Daily revenue rollup per car type, added to by the rent and return transactions
+-- and read by GET /analytics/revenue
+CREATE TABLE revenue_daily (
+  revenue_date DATE NOT NULL,
+  car_type VARCHAR(50) NOT NULL,
+  prepaid_total DOUBLE PRECISION NOT NULL,
+  surcharge_total DOUBLE PRECISION NOT NULL,
+  rentals BIGINT NOT NULL,
+  PRIMARY KEY (revenue_date, car_type)
+);
+
+INSERT INTO revenue_daily (revenue_date, car_type, prepaid_total, surcharge_total, rentals)
+SELECT start_date, type, SUM(prepaid_amount), 0, COUNT(*)
+FROM rentals
+GROUP BY start_date, type;
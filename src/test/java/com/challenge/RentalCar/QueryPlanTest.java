@@ -0,0 +1,158 @@
+package com.challenge.RentalCar;
+
+import com.challenge.RentalCar.customers.adapter.persistence.SpringDataCustomerRepository;
+import com.challenge.RentalCar.inventory.adapter.persistence.SpringDataCarRepository;
+import com.challenge.RentalCar.rentals.adapter.persistence.JpaRentalEntity.Status;
+import com.challenge.RentalCar.rentals.adapter.persistence.SpringDataRentalRepository;
+import com.challenge.RentalCar.rentals.adapter.readmodel.SpringDataRentalViewRepository;
+import com.challenge.RentalCar.shared.money.Money;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs {@code EXPLAIN} on the embedded database for the SQL Hibernate generates for every repository query and
+ * fails when one of them reads a table without an index condition. The indexes come from the entities'
+ * {@code @Table(indexes = ...)}, which the Flyway migrations mirror for PostgreSQL.
+ * <p>
+ * Not covered, because they read every row on purpose: {@code findAll()} (car index load, the list endpoints)
+ * and the unfiltered export {@code streamAllByOrderByIdAsc()}.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.challenge.RentalCar.QueryPlanTest$CapturedSql")
+@ActiveProfiles("test")
+class QueryPlanTest {
+    /**
+     * H2 prints the access path of every table as {@code /* PUBLIC.INDEX: condition *&#47;}; no condition, or
+     * {@code tableScan}, means every row is read.
+     */
+    private static final Pattern ACCESS_PATH = Pattern.compile("/\\* PUBLIC\\.([\\w.]+)(:[^*]*)? \\*/");
+
+    @Autowired SpringDataRentalRepository rentals;
+    @Autowired SpringDataRentalViewRepository views;
+    @Autowired SpringDataCarRepository cars;
+    @Autowired SpringDataCustomerRepository customers;
+    @Autowired JdbcTemplate jdbc;
+    @Autowired TransactionTemplate tx;
+
+    @Test
+    @DisplayName("SpringDataRentalRepository: every query is an index lookup or range scan")
+    void rentalQueries() {
+        assertIndexed(() -> rentals.findById(1L));
+        assertIndexed(() -> rentals.findByStatusAndPlannedReturnDateLessThanOrderByPlannedReturnDateAsc(
+                Status.OPEN, LocalDate.now()));
+        assertIndexed(() -> rentals.updateReturned(1L, LocalDate.now(), Money.ZERO, Status.OPEN, Status.RETURNED));
+        assertIndexed(() -> rentals.findAllById(List.of(1L, 2L)));
+        assertIndexed(() -> rentals.lockByStatus(List.of(1L, 2L), Status.OPEN));
+        assertIndexed(() -> rentals.carIdsStartedBy(List.of(1L, 2L), Status.OPEN, LocalDate.now()));
+        assertIndexed(() -> rentals.totalsByCustomerId(1L, Status.OPEN));
+        assertIndexed(() -> drain(rentals.streamByStatusOrderByIdAsc(Status.OPEN)));
+        assertIndexed(() -> drain(rentals.streamByCustomerIdOrderByIdAsc(1L)));
+        assertIndexed(() -> drain(rentals.streamByCustomerIdAndStatusOrderByIdAsc(1L, Status.OPEN)));
+    }
+
+    @Test
+    @DisplayName("SpringDataRentalViewRepository: keyset pages and status updates use an index")
+    void rentalViewQueries() {
+        assertIndexed(() -> views.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(50)));
+        assertIndexed(() -> views.findByStatusAndIdGreaterThanOrderByIdAsc("OPEN", 0L, Limit.of(50)));
+        assertIndexed(() -> views.findByCustomerIdAndIdGreaterThanOrderByIdAsc(1L, 0L, Limit.of(50)));
+        assertIndexed(() -> views.findByCustomerIdAndStatusAndIdGreaterThanOrderByIdAsc(1L, "OPEN", 0L, Limit.of(50)));
+        assertIndexed(() -> views.updateStatus(1L, "RETURNED"));
+        assertIndexed(() -> views.updateStatusAll(List.of(1L, 2L), "RETURNED"));
+    }
+
+    @Test
+    @DisplayName("SpringDataCarRepository and SpringDataCustomerRepository: primary key access only")
+    void carAndCustomerQueries() {
+        assertIndexed(() -> cars.findById(1L));
+        assertIndexed(() -> cars.findAllById(List.of(1L, 2L)));
+        assertIndexed(() -> cars.reserve(1L));
+        assertIndexed(() -> cars.release(1L));
+        assertIndexed(() -> cars.releaseAll(List.of(1L, 2L)));
+        assertIndexed(() -> cars.lockAvailable(List.of(1L, 2L)));
+        assertIndexed(() -> cars.reserveAll(List.of(1L, 2L)));
+        assertIndexed(() -> customers.findById(1L));
+        assertIndexed(() -> customers.findAllById(List.of(1L, 2L)));
+    }
+
+    @Test
+    @DisplayName("JDBC statements outside the repositories use an index")
+    void jdbcStatements() {
+        assertPlanIndexed("update customers set points = points + ? where id = ?");
+        assertPlanIndexed("select car_id, start_date, planned_return_date from rentals "
+                + "where car_id = ? and status = 'OPEN' order by start_date");
+        assertPlanIndexed("select distinct car_id from rentals "
+                + "where status = 'OPEN' and planned_return_date > ? and start_date < ?");
+        assertPlanIndexed("select distinct r.car_id from rentals r join cars c on c.id = r.car_id "
+                + "where r.car_id > ? and r.status = 'OPEN' and r.start_date <= ? and c.available "
+                + "order by r.car_id limit ?");
+    }
+
+    private void assertIndexed(Runnable query) {
+        CapturedSql.SQL.clear();
+        tx.executeWithoutResult(status -> {
+            query.run();
+            status.setRollbackOnly();
+        });
+        assertThat(CapturedSql.SQL).as("SQL issued").isNotEmpty();
+        CapturedSql.SQL.forEach(this::assertPlanIndexed);
+    }
+
+    private void assertPlanIndexed(String sql) {
+        var plan = explain(sql);
+        var paths = ACCESS_PATH.matcher(plan).results().toList();
+        assertThat(paths).as("access paths of %s", plan).isNotEmpty();
+        for (var path : paths) {
+            assertThat(path.group(1)).as("full table scan in%n%s", plan).doesNotEndWith("tableScan");
+            assertThat(path.group(2)).as("index walked without a condition in%n%s", plan).isNotNull();
+        }
+    }
+
+    /**
+     * Parameters are bound to NULL: H2 picks its access path from the shape of the predicate, not the value.
+     */
+    private String explain(String sql) {
+        return jdbc.execute((ConnectionCallback<String>) con -> {
+            try (var ps = con.prepareStatement("EXPLAIN " + sql)) {
+                for (int i = 1; i <= ps.getParameterMetaData().getParameterCount(); i++) ps.setObject(i, null);
+                try (var rs = ps.executeQuery()) {
+                    rs.next();
+                    return rs.getString(1);
+                }
+            }
+        });
+    }
+
+    private static void drain(Stream<?> stream) {
+        try (stream) {
+            stream.forEach(row -> {
+            });
+        }
+    }
+
+    public static class CapturedSql implements StatementInspector {
+        static final List<String> SQL = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            SQL.add(sql);
+            return sql;
+        }
+    }
+}
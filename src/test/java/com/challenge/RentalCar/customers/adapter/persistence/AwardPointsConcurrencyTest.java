@@ -0,0 +1,106 @@
+package com.challenge.RentalCar.customers.adapter.persistence;
+
+import com.challenge.RentalCar.inventory.adapter.persistence.JpaCarEntity;
+import com.challenge.RentalCar.inventory.adapter.persistence.SpringDataCarRepository;
+import com.challenge.RentalCar.inventory.domain.CarType;
+import com.challenge.RentalCar.rentals.port.in.RentCar;
+import com.challenge.RentalCar.rentals.port.out.AwardPoints;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class AwardPointsConcurrencyTest {
+    private static final int THREADS = 8;
+
+    @Autowired AwardPoints awardPoints;
+    @Autowired RentCar rentCar;
+    @Autowired SpringDataCustomerRepository customers;
+    @Autowired SpringDataCarRepository cars;
+
+    @Test
+    @DisplayName("award(): concurrent awards to one customer add up exactly and every balance is seen once")
+    void award_concurrentIncrementsAreNotLost() throws Exception {
+        // given
+        long customerId = customer();
+        int perThread = 100;
+        var balances = ConcurrentHashMap.<Integer>newKeySet();
+
+        // when
+        runConcurrently(() -> {
+            for (int i = 0; i < perThread; i++) balances.add(awardPoints.award(customerId, 1).orElseThrow());
+            return null;
+        });
+
+        // then
+        assertThat(customers.findById(customerId).map(JpaCustomerEntity::getPoints)).contains(THREADS * perThread);
+        assertThat(balances).hasSize(THREADS * perThread);
+    }
+
+    @Test
+    @DisplayName("rent: concurrent rentals by one customer award the points of every rental")
+    void rent_concurrentRentalsKeepAllPoints() throws Exception {
+        // given
+        long customerId = customer();
+        int perThread = 25;
+        var carIds = new ArrayList<Long>();
+        for (int i = 0; i < THREADS * perThread; i++) carIds.add(car(CarType.SUV));
+
+        var next = new AtomicInteger();
+
+        // when
+        runConcurrently(() -> {
+            for (int i = 0; i < perThread; i++) {
+                rentCar.handle(new RentCar.Command(customerId, carIds.get(next.getAndIncrement()), 1));
+            }
+            return null;
+        });
+
+        // then: SUV rentals are worth 3 points each
+        assertThat(customers.findById(customerId).map(JpaCustomerEntity::getPoints)).contains(3 * THREADS * perThread);
+    }
+
+    private void runConcurrently(Callable<Void> task) throws Exception {
+        var start = new CountDownLatch(1);
+        try (var pool = Executors.newFixedThreadPool(THREADS)) {
+            var futures = new ArrayList<Future<Void>>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            start.countDown();
+            for (var f : futures) f.get();
+        }
+    }
+
+    private long customer() {
+        var c = new JpaCustomerEntity();
+        c.setName("Corporate");
+        c.setPoints(0);
+        return customers.save(c).getId();
+    }
+
+    private long car(CarType type) {
+        var c = new JpaCarEntity();
+        c.setBrand("Kia");
+        c.setModel("Sorento");
+        c.setType(type);
+        c.setAvailable(true);
+        return cars.save(c).getId();
+    }
+}
@@ -0,0 +1,103 @@
+package com.challenge.RentalCar.customers.adapter.persistence;
+
+import com.challenge.RentalCar.customers.domain.Customer;
+import com.challenge.RentalCar.shared.cache.CacheRegistry;
+import com.challenge.RentalCar.shared.version.AggregateVersions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+class CustomerPersistenceAdapterTest {
+
+    private final SpringDataCustomerRepository repo = mock(SpringDataCustomerRepository.class);
+    private final SingleConnectionDataSource db = new SingleConnectionDataSource(
+            "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=PostgreSQL", true);
+    private final JdbcTemplate jdbc = new JdbcTemplate(db);
+    private final CustomerPersistenceAdapter adapter = new CustomerPersistenceAdapter(repo, jdbc,
+            new CacheRegistry(new MockEnvironment().withProperty("cache.enabled", "true")), new AggregateVersions());
+
+    {
+        jdbc.execute("create table customers (id bigint primary key, name varchar(255), points int not null)");
+        jdbc.update("insert into customers (id, name, points) values (1, 'Ana', 3)");
+    }
+
+    @AfterEach
+    void shutdown() {
+        db.destroy();
+    }
+
+    @Test
+    @DisplayName("byId() should hand out a fresh Customer per call so caller changes do not leak into the cache")
+    void byId_returnsFreshCopies() {
+        // given
+        given(repo.findById(1L)).willReturn(Optional.of(entity(1L, "Ana", 3)));
+
+        // when
+        Customer first = adapter.byId(1L).orElseThrow();
+        first.addPoints(5);
+        Customer second = adapter.byId(1L).orElseThrow();
+
+        // then
+        verify(repo, times(1)).findById(1L);
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getPoints()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("award() should increment in one statement that returns the new balance, and invalidate the cached entry")
+    void award_incrementsAndInvalidates() {
+        // given
+        given(repo.findById(1L)).willReturn(Optional.of(entity(1L, "Ana", 3)))
+                .willReturn(Optional.of(entity(1L, "Ana", 8)));
+        adapter.byId(1L);
+
+        // when
+        var balance = adapter.award(1L, 5);
+        Customer reloaded = adapter.byId(1L).orElseThrow();
+
+        // then
+        assertThat(balance).hasValue(8);
+        assertThat(jdbc.queryForObject("select points from customers where id = 1", Integer.class)).isEqualTo(8);
+        verify(repo, never()).save(any());
+        verify(repo, times(2)).findById(1L);
+        assertThat(reloaded.getPoints()).isEqualTo(8);
+    }
+
+    @Test
+    @DisplayName("award() should return empty for an unknown customer")
+    void award_unknownCustomer() {
+        // when / then
+        assertThat(adapter.award(9L, 5)).isEmpty();
+        assertThat(jdbc.queryForObject("select points from customers where id = 1", Integer.class)).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("save() should reject customers that already have an id")
+    void save_rejectsExistingCustomer() {
+        // when
+        Throwable thrown = catchThrowable(() -> adapter.save(new Customer(1L, "Ana", 3)));
+
+        // then
+        assertThat(thrown).isInstanceOf(IllegalArgumentException.class);
+        verify(repo, never()).save(any());
+    }
+
+    private static JpaCustomerEntity entity(long id, String name, int points) {
+        var e = new JpaCustomerEntity();
+        e.setId(id);
+        e.setName(name);
+        e.setPoints(points);
+        return e;
+    }
+}
@@ -2,21 +2,30 @@ package com.challenge.RentalCar.customers.adapter.web;
 
 import com.challenge.RentalCar.customers.adapter.persistence.JpaCustomerEntity;
 import com.challenge.RentalCar.customers.adapter.persistence.SpringDataCustomerRepository;
+import com.challenge.RentalCar.rentals.port.in.SummarizeCustomer;
+import com.challenge.RentalCar.shared.money.Money;
+import com.challenge.RentalCar.shared.version.AggregateVersions;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.LocalDate;
 import java.util.List;
 
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(CustomersQueryController.class)
+@Import(AggregateVersions.class)
 class CustomersQueryControllerTest {
 
     @Autowired
@@ -25,6 +34,12 @@ class CustomersQueryControllerTest {
     @MockitoBean
     private SpringDataCustomerRepository repo;
 
+    @MockitoBean
+    private SummarizeCustomer summarize;
+
+    @Autowired
+    private AggregateVersions versions;
+
     @Test
     @DisplayName("GET /customers returns list of customers as JSON")
     void getCustomers_returnsList() throws Exception {
@@ -65,4 +80,45 @@ class CustomersQueryControllerTest {
                 .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.length()").value(0));
     }
+
+    @Test
+    @DisplayName("GET /customers with the current ETag -> 304 without a query; a new customer version -> 200")
+    void getCustomers_conditional() throws Exception {
+        // given
+        given(repo.findAll()).willReturn(List.of());
+        var etag = mockMvc.perform(get("/customers"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        clearInvocations(repo);
+
+        // when / then
+        mockMvc.perform(get("/customers").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+        verifyNoInteractions(repo);
+
+        versions.bumpAfterCommit(AggregateVersions.Aggregate.CUSTOMERS);
+        mockMvc.perform(get("/customers").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, versions.etag(AggregateVersions.Aggregate.CUSTOMERS)));
+    }
+
+    @Test
+    @DisplayName("GET /customers/{id}/summary returns the aggregated summary as JSON")
+    void getSummary_returnsSummary() throws Exception {
+        // given
+        given(summarize.handle(1L)).willReturn(new SummarizeCustomer.Summary(
+                1L, "Alice", 7, 12, 2, Money.of(345000), LocalDate.of(2025, 9, 18)));
+
+        // when / then
+        mockMvc.perform(get("/customers/{id}/summary", 1L).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.points").value(7))
+                .andExpect(jsonPath("$.rentals").value(12))
+                .andExpect(jsonPath("$.openRentals").value(2))
+                .andExpect(jsonPath("$.lifetimeSpend").value(3450.0))
+                .andExpect(jsonPath("$.lastStartDate").value("2025-09-18"));
+        verifyNoInteractions(repo);
+    }
 }
@@ -0,0 +1,139 @@
+package com.challenge.RentalCar.inventory.adapter.index;
+
+import com.challenge.RentalCar.inventory.adapter.persistence.JpaCarEntity;
+import com.challenge.RentalCar.inventory.adapter.persistence.SpringDataCarRepository;
+import com.challenge.RentalCar.inventory.domain.Car;
+import com.challenge.RentalCar.inventory.domain.CarType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+class CarAvailabilityIndexTest {
+
+    private final SpringDataCarRepository repo = mock(SpringDataCarRepository.class);
+    private final CarAvailabilityIndex index = new CarAvailabilityIndex(repo);
+
+    @BeforeEach
+    void load() {
+        given(repo.findAll()).willReturn(List.of(
+                car(1L, "BMW", "7", CarType.PREMIUM, true),
+                car(2L, "Kia", "Sorento", CarType.SUV, true),
+                car(3L, "Nissan", "Juke", CarType.SUV, false),
+                car(4L, "Seat", "Ibiza", CarType.SMALL, true)));
+        index.load();
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("load(): builds per-type availability from the cars table")
+    void load_buildsIndex() {
+        assertThat(index.isLoaded()).isTrue();
+        assertThat(index.find(CarType.SUV, true)).extracting(CarAvailabilityIndex.IndexedCar::id).containsExactly(2L);
+        assertThat(index.find(CarType.SUV, false)).extracting(CarAvailabilityIndex.IndexedCar::id).containsExactly(3L);
+        assertThat(index.find(null, true)).extracting(CarAvailabilityIndex.IndexedCar::id).containsExactly(1L, 2L, 4L);
+        assertThat(index.find(null, null)).hasSize(4);
+        assertThat(index.availableCounts())
+                .containsEntry(CarType.PREMIUM, 1).containsEntry(CarType.SUV, 1).containsEntry(CarType.SMALL, 1);
+    }
+
+    @Test
+    @DisplayName("changes made inside a transaction only show up after commit")
+    void changes_appliedAfterCommit() {
+        // given
+        TransactionSynchronizationManager.initSynchronization();
+
+        // when
+        index.markRentedAfterCommit(2L);
+        index.markAvailableAfterCommit(3L);
+
+        // then
+        assertThat(index.find(CarType.SUV, true)).extracting(CarAvailabilityIndex.IndexedCar::id).containsExactly(2L);
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(index.find(CarType.SUV, true)).extracting(CarAvailabilityIndex.IndexedCar::id).containsExactly(3L);
+    }
+
+    @Test
+    @DisplayName("rolled back changes never reach the index")
+    void changes_droppedOnRollback() {
+        // given
+        TransactionSynchronizationManager.initSynchronization();
+
+        // when
+        index.markRentedAfterCommit(1L);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        // then
+        assertThat(index.availableCounts()).containsEntry(CarType.PREMIUM, 1);
+    }
+
+    @Test
+    @DisplayName("putAfterCommit(): new cars and type changes are indexed")
+    void put_newAndRetypedCars() {
+        index.putAfterCommit(new Car(5L, "Fiat", "500", CarType.SMALL, true));
+        index.putAfterCommit(new Car(2L, "Kia", "Sorento", CarType.PREMIUM, true));
+
+        assertThat(index.find(CarType.SMALL, true)).extracting(CarAvailabilityIndex.IndexedCar::id).containsExactly(4L, 5L);
+        assertThat(index.find(CarType.SUV, true)).isEmpty();
+        assertThat(index.find(CarType.PREMIUM, true)).extracting(CarAvailabilityIndex.IndexedCar::id).containsExactly(1L, 2L);
+    }
+
+    @Test
+    @DisplayName("load(): a change committed while the table is scanned wins over the older scanned row")
+    void load_reappliesChangesReportedDuringScan() {
+        // given: the scan reads car 2 as free, then a rent of it commits before the load is done
+        given(repo.findAll()).willAnswer(inv -> {
+            var rows = List.of(car(2L, "Kia", "Sorento", CarType.SUV, true));
+            index.markRentedAfterCommit(2L);
+            return rows;
+        });
+
+        // when
+        index.load();
+
+        // then
+        assertThat(index.isAvailable(2L)).isFalse();
+        assertThat(index.find(CarType.SUV, true)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("reconcile(): picks up availability changed by another instance")
+    void reconcile_reloadsFromTable() {
+        // given
+        given(repo.findAll()).willReturn(List.of(
+                car(2L, "Kia", "Sorento", CarType.SUV, false),
+                car(3L, "Nissan", "Juke", CarType.SUV, true)));
+
+        // when
+        index.reconcile();
+
+        // then
+        assertThat(index.find(CarType.SUV, true)).extracting(CarAvailabilityIndex.IndexedCar::id).containsExactly(3L);
+    }
+
+    private static JpaCarEntity car(long id, String brand, String model, CarType type, boolean available) {
+        var e = new JpaCarEntity();
+        e.setId(id);
+        e.setBrand(brand);
+        e.setModel(model);
+        e.setType(type);
+        e.setAvailable(available);
+        return e;
+    }
+}
@@ -0,0 +1,55 @@
+package com.challenge.RentalCar.inventory.adapter.index;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcurrentBitSetTest {
+
+    @Test
+    @DisplayName("set/clear/get and ordered iteration across word boundaries")
+    void setClearIterate() {
+        var bits = new ConcurrentBitSet();
+        bits.set(3);
+        bits.set(64);
+        bits.set(1000);
+        bits.clear(64);
+        bits.clear(5000);
+
+        assertThat(bits.get(3)).isTrue();
+        assertThat(bits.get(64)).isFalse();
+        assertThat(bits.get(5000)).isFalse();
+        assertThat(bits.cardinality()).isEqualTo(2);
+
+        var seen = new ArrayList<Long>();
+        bits.forEach(seen::add);
+        assertThat(seen).containsExactly(3L, 1000L);
+    }
+
+    @Test
+    @DisplayName("concurrent writers growing the set lose no bits")
+    void concurrentWritersLoseNothing() throws Exception {
+        var bits = new ConcurrentBitSet();
+        int threads = 8, perThread = 10_000;
+        var start = new CountDownLatch(1);
+        try (var pool = Executors.newFixedThreadPool(threads)) {
+            for (int t = 0; t < threads; t++) {
+                int offset = t;
+                pool.submit(() -> {
+                    start.await();
+                    // interleaved ids so every thread hits the same words and forces growth
+                    for (int i = 0; i < perThread; i++) bits.set((long) i * threads + offset);
+                    return null;
+                });
+            }
+            start.countDown();
+        }
+
+        assertThat(bits.cardinality()).isEqualTo(threads * perThread);
+    }
+}
@@ -1,21 +1,30 @@
 package com.challenge.RentalCar.inventory.adapter.persistence;
 
+import com.challenge.RentalCar.inventory.adapter.index.CarAvailabilityIndex;
 import com.challenge.RentalCar.inventory.domain.Car;
 import com.challenge.RentalCar.inventory.domain.CarType;
+import com.challenge.RentalCar.shared.cache.CacheRegistry;
+import com.challenge.RentalCar.shared.version.AggregateVersions;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
+import org.springframework.mock.env.MockEnvironment;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.*;
 
 class CarPersistenceAdapterTest {
 
     private final SpringDataCarRepository repo = mock(SpringDataCarRepository.class);
-    private final CarPersistenceAdapter adapter = new CarPersistenceAdapter(repo);
+    private final CarAvailabilityIndex index = mock(CarAvailabilityIndex.class);
+    private final AggregateVersions versions = new AggregateVersions();
+    private final CarPersistenceAdapter adapter = new CarPersistenceAdapter(repo, index,
+            new CacheRegistry(new MockEnvironment().withProperty("cache.enabled", "true")), versions);
 
     @Test
     @DisplayName("save() should map domain Car to JpaCarEntity, save it, and update id in domain")
@@ -45,6 +54,7 @@ class CarPersistenceAdapterTest {
         assertThat(passedToRepo.getType()).isEqualTo(CarType.PREMIUM);
 
         assertThat(result.getId()).isEqualTo(42L);
+        verify(index).putAfterCommit(result);
     }
 
     @Test
@@ -84,4 +94,88 @@ class CarPersistenceAdapterTest {
         // then
         assertThat(result).isEmpty();
     }
+
+    @Test
+    @DisplayName("reserve() should report success only when the conditional update touched a row")
+    void reserve_reportsWhetherRowWasUpdated() {
+        // given
+        given(repo.reserve(1L)).willReturn(1);
+        given(repo.reserve(2L)).willReturn(0);
+
+        // when / then
+        assertThat(adapter.reserve(1L)).isTrue();
+        assertThat(adapter.reserve(2L)).isFalse();
+        verify(repo, never()).findById(anyLong());
+        verify(repo, never()).save(any());
+        verify(index).markRentedAfterCommit(1L);
+        verify(index, never()).markRentedAfterCommit(2L);
+        assertThat(versions.current(AggregateVersions.Aggregate.CARS)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("release() should return false when the car does not exist")
+    void release_returnsFalseWhenMissing() {
+        // given
+        given(repo.release(4L)).willReturn(1);
+        given(repo.release(999L)).willReturn(0);
+
+        // when / then
+        assertThat(adapter.release(4L)).isTrue();
+        assertThat(adapter.release(999L)).isFalse();
+        verify(index).markAvailableAfterCommit(4L);
+        verify(index, never()).markAvailableAfterCommit(999L);
+    }
+
+    @Test
+    @DisplayName("releaseAll() should free every car with one update and mark each available in the index")
+    void releaseAll_setBasedUpdate() {
+        // when
+        adapter.releaseAll(List.of(4L, 5L));
+        adapter.releaseAll(List.of());
+
+        // then
+        verify(repo).releaseAll(List.of(4L, 5L));
+        verify(repo, never()).release(anyLong());
+        verify(index).markAvailableAfterCommit(4L);
+        verify(index).markAvailableAfterCommit(5L);
+        assertThat(versions.current(AggregateVersions.Aggregate.CARS)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("byId() should serve repeated lookups from the cache and take availability from the index")
+    void byId_cachesMetadataAndOverlaysAvailability() {
+        // given
+        JpaCarEntity entity = new JpaCarEntity();
+        entity.setId(7L);
+        entity.setBrand("Kia");
+        entity.setModel("Sorento");
+        entity.setType(CarType.SUV);
+        entity.setAvailable(true);
+
+        given(index.isLoaded()).willReturn(true);
+        given(index.isAvailable(7L)).willReturn(true, false);
+        given(repo.findById(7L)).willReturn(Optional.of(entity));
+
+        // when
+        Car first = adapter.byId(7L).orElseThrow();
+        Car second = adapter.byId(7L).orElseThrow();
+
+        // then
+        verify(repo, times(1)).findById(7L);
+        assertThat(first).isNotSameAs(second);
+        assertThat(first.isAvailable()).isTrue();
+        assertThat(second.isAvailable()).isFalse();
+        assertThat(second.getBrand()).isEqualTo("Kia");
+    }
+
+    @Test
+    @DisplayName("save() should reject cars that already have an id")
+    void save_rejectsExistingCar() {
+        // when
+        Throwable thrown = catchThrowable(() -> adapter.save(new Car(7L, "Kia", "Sportage", CarType.SUV, true)));
+
+        // then
+        assertThat(thrown).isInstanceOf(IllegalArgumentException.class);
+        verify(repo, never()).save(any());
+    }
 }
@@ -1,23 +1,33 @@
 package com.challenge.RentalCar.inventory.adapter.web;
 
+import com.challenge.RentalCar.inventory.adapter.index.CarAvailabilityIndex;
 import com.challenge.RentalCar.inventory.adapter.persistence.JpaCarEntity;
 import com.challenge.RentalCar.inventory.adapter.persistence.SpringDataCarRepository;
 import com.challenge.RentalCar.inventory.domain.CarType;
+import com.challenge.RentalCar.rentals.port.in.SearchAvailableCars;
+import com.challenge.RentalCar.shared.version.AggregateVersions;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(CarsQueryController.class)
+@Import(AggregateVersions.class)
 class CarsQueryControllerTest {
 
     @Autowired
@@ -26,6 +36,12 @@ class CarsQueryControllerTest {
     @MockitoBean
     private SpringDataCarRepository repo;
 
+    @MockitoBean
+    private CarAvailabilityIndex index;
+
+    @MockitoBean
+    private SearchAvailableCars search;
+
     @Test
     @DisplayName("GET /cars returns list of cars as JSON")
     void getCars_returnsList() throws Exception {
@@ -76,4 +92,94 @@ class CarsQueryControllerTest {
                 .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.length()").value(0));
     }
+
+    @Test
+    @DisplayName("GET /cars?type=SUV&available=true is served from the availability index without the database")
+    void getCars_filteredFromIndex() throws Exception {
+        // given
+        given(index.isLoaded()).willReturn(true);
+        given(index.find(CarType.SUV, true)).willReturn(List.of(
+                new CarAvailabilityIndex.IndexedCar(3L, "Nissan", "Juke", CarType.SUV, true)));
+
+        // when / then
+        mockMvc.perform(get("/cars").param("type", "SUV").param("available", "true")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(3))
+                .andExpect(jsonPath("$[0].type").value("SUV"))
+                .andExpect(jsonPath("$[0].available").value(true));
+
+        verifyNoInteractions(repo);
+    }
+
+    @Test
+    @DisplayName("GET /cars?available=true falls back to the database until the index is loaded")
+    void getCars_filteredBeforeIndexLoaded() throws Exception {
+        // given
+        var bmw = new JpaCarEntity();
+        bmw.setId(1L);
+        bmw.setBrand("BMW");
+        bmw.setModel("7");
+        bmw.setType(CarType.PREMIUM);
+        bmw.setAvailable(false);
+        given(index.isLoaded()).willReturn(false);
+        given(repo.findAll()).willReturn(List.of(bmw));
+
+        // when / then
+        mockMvc.perform(get("/cars").param("available", "true").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    @Test
+    @DisplayName("GET /cars/available-count returns free cars per type from the index")
+    void availableCount_fromIndex() throws Exception {
+        // given
+        given(index.isLoaded()).willReturn(true);
+        given(index.availableCounts()).willReturn(Map.of(CarType.PREMIUM, 1, CarType.SUV, 2, CarType.SMALL, 0));
+
+        // when / then
+        mockMvc.perform(get("/cars/available-count").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.SUV").value(2))
+                .andExpect(jsonPath("$.SMALL").value(0));
+
+        verifyNoInteractions(repo);
+    }
+
+    @Test
+    @DisplayName("GET /cars/available-count with the current ETag -> 304 without touching index or database")
+    void availableCount_notModified() throws Exception {
+        // given
+        given(index.isLoaded()).willReturn(true);
+        given(index.availableCounts()).willReturn(Map.of(CarType.PREMIUM, 1, CarType.SUV, 2, CarType.SMALL, 0));
+        var etag = mockMvc.perform(get("/cars/available-count"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        clearInvocations(index);
+
+        // when / then
+        mockMvc.perform(get("/cars/available-count").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        verifyNoInteractions(index, repo);
+    }
+
+    @Test
+    @DisplayName("GET /cars/available -> parses type and window and returns the free cars")
+    void available_returnsFreeCars() throws Exception {
+        // given
+        var from = LocalDate.of(2030, 1, 10);
+        var to = LocalDate.of(2030, 1, 13);
+        given(search.handle(new SearchAvailableCars.Query(CarType.SUV, from, to)))
+                .willReturn(List.of(new SearchAvailableCars.AvailableCar(2L, "Kia", "Sorento", CarType.SUV)));
+
+        // when / then
+        mockMvc.perform(get("/cars/available").param("type", "SUV")
+                        .param("from", "2030-01-10").param("to", "2030-01-13"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(2))
+                .andExpect(jsonPath("$[0].type").value("SUV"));
+    }
 }
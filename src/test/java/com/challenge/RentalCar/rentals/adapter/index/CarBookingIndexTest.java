@@ -0,0 +1,137 @@
+package com.challenge.RentalCar.rentals.adapter.index;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+class CarBookingIndexTest {
+
+    private final JdbcTemplate jdbc = mock(JdbcTemplate.class);
+    private final CarBookingIndex index = new CarBookingIndex(jdbc);
+
+    private final LocalDate day = LocalDate.of(2030, 1, 1);
+
+    @BeforeEach
+    void load() {
+        // car 1 is booked for [day+2, day+5) and [day+10, day+12), car 2 for [day, day+3)
+        given(jdbc.query(anyString(), any(RowMapper.class))).willReturn(List.of(
+                new long[]{1L, day.plusDays(2).toEpochDay(), day.plusDays(5).toEpochDay()},
+                new long[]{1L, day.plusDays(10).toEpochDay(), day.plusDays(12).toEpochDay()},
+                new long[]{2L, day.toEpochDay(), day.plusDays(3).toEpochDay()}));
+        index.load();
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("isFree(): ranges are [start, return date), so back-to-back bookings do not overlap")
+    void isFree_halfOpenRanges() {
+        assertThat(index.isFree(1L, day, day.plusDays(2))).isTrue();
+        assertThat(index.isFree(1L, day.plusDays(5), day.plusDays(10))).isTrue();
+        assertThat(index.isFree(1L, day.plusDays(4), day.plusDays(6))).isFalse();
+        assertThat(index.isFree(1L, day, day.plusDays(20))).isFalse();
+        assertThat(index.isFree(1L, day.plusDays(11), day.plusDays(12))).isFalse();
+        assertThat(index.isFree(2L, day.plusDays(3), day.plusDays(4))).isTrue();
+        assertThat(index.isFree(99L, day, day.plusDays(100))).isTrue();
+    }
+
+    @Test
+    @DisplayName("book(): takes a gap between bookings, refuses any overlap")
+    void book_keepsRangesDisjoint() {
+        assertThat(index.book(1L, day.plusDays(5), day.plusDays(10))).isTrue();
+        assertThat(index.book(1L, day.plusDays(9), day.plusDays(11))).isFalse();
+        assertThat(index.book(1L, day, day.plusDays(3))).isFalse();
+        assertThat(index.book(1L, day, day.plusDays(2))).isTrue();
+        assertThat(index.isFree(1L, day, day.plusDays(12))).isFalse();
+        assertThat(index.isFree(1L, day.plusDays(12), day.plusDays(13))).isTrue();
+    }
+
+    @Test
+    @DisplayName("book(): visible to other bookings at once, dropped again if the transaction rolls back")
+    void book_rolledBack() {
+        // given
+        TransactionSynchronizationManager.initSynchronization();
+
+        // when
+        assertThat(index.book(2L, day.plusDays(3), day.plusDays(6))).isTrue();
+
+        // then
+        assertThat(index.book(2L, day.plusDays(4), day.plusDays(5))).isFalse();
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        assertThat(index.isFree(2L, day.plusDays(3), day.plusDays(6))).isTrue();
+    }
+
+    @Test
+    @DisplayName("unbook(): frees the range only once the return commits")
+    void unbook_afterCommit() {
+        // given
+        TransactionSynchronizationManager.initSynchronization();
+
+        // when
+        index.unbook(1L, day.plusDays(2), day.plusDays(5));
+
+        // then
+        assertThat(index.isFree(1L, day.plusDays(2), day.plusDays(5))).isFalse();
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(index.isFree(1L, day.plusDays(2), day.plusDays(5))).isTrue();
+        assertThat(index.isFree(1L, day.plusDays(10), day.plusDays(12))).isFalse();
+    }
+
+    @Test
+    @DisplayName("rebuild(): takes what another instance booked and freed, keeps what this one booked during the scan")
+    void rebuild_mergesOwnChanges() {
+        // given: car 1's first booking was returned elsewhere, car 3 was booked elsewhere
+        TransactionSynchronizationManager.initSynchronization();
+        assertThat(index.book(2L, day.plusDays(3), day.plusDays(6))).isTrue();
+        given(jdbc.query(anyString(), any(RowMapper.class))).willReturn(List.of(
+                new long[]{1L, day.plusDays(10).toEpochDay(), day.plusDays(12).toEpochDay()},
+                new long[]{2L, day.toEpochDay(), day.plusDays(3).toEpochDay()},
+                new long[]{3L, day.toEpochDay(), day.plusDays(1).toEpochDay()}));
+
+        // when
+        index.rebuild();
+
+        // then
+        assertThat(index.isFree(1L, day.plusDays(2), day.plusDays(5))).isTrue();
+        assertThat(index.isFree(3L, day, day.plusDays(1))).isFalse();
+        assertThat(index.isFree(2L, day.plusDays(4), day.plusDays(5))).isFalse();
+    }
+
+    @Test
+    @DisplayName("bookedBetween(): cars booked in the rentals table; a car the index shows free there is reloaded")
+    void bookedBetween_reloadsStaleCars() {
+        // given: car 3 was booked by another instance
+        given(jdbc.queryForList(anyString(), eq(Long.class), any(), any())).willReturn(List.of(1L, 3L));
+        given(jdbc.query(anyString(), any(RowMapper.class), eq(3L))).willReturn(List.<long[]>of(
+                new long[]{3L, day.plusDays(2).toEpochDay(), day.plusDays(4).toEpochDay()}));
+
+        // when
+        var booked = index.bookedBetween(day.plusDays(3), day.plusDays(4));
+
+        // then
+        assertThat(booked).containsExactlyInAnyOrder(1L, 3L);
+        assertThat(index.isFree(3L, day, day.plusDays(3))).isFalse();
+        assertThat(index.book(3L, day.plusDays(3), day.plusDays(4))).isFalse();
+    }
+}
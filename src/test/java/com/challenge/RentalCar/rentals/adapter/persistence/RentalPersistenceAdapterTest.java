@@ -3,22 +3,34 @@ package com.challenge.RentalCar.rentals.adapter.persistence;
 import com.challenge.RentalCar.inventory.domain.CarType;
 import com.challenge.RentalCar.rentals.domain.Rental;
 import com.challenge.RentalCar.rentals.domain.Rental.Status;
+import com.challenge.RentalCar.rentals.port.out.LoadRentalTotals;
+import com.challenge.RentalCar.rentals.port.out.SaveRental;
+import com.challenge.RentalCar.shared.money.Money;
+import com.challenge.RentalCar.shared.version.AggregateVersions;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
 
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.*;
 
 class RentalPersistenceAdapterTest {
 
     private final SpringDataRentalRepository repo = mock(SpringDataRentalRepository.class);
-    private final RentalPersistenceAdapter adapter = new RentalPersistenceAdapter(repo);
+    private final JdbcTemplate jdbc = mock(JdbcTemplate.class);
+    private final EntityManager em = mock(EntityManager.class);
+    private final AggregateVersions versions = new AggregateVersions();
+    private final RentalPersistenceAdapter adapter = new RentalPersistenceAdapter(repo, jdbc, em, versions);
 
 
     @Test
@@ -27,9 +39,9 @@ class RentalPersistenceAdapterTest {
         // given
         var start = LocalDate.of(2025, 9, 7);
         var domain = Rental.reconstitute(
-                null, 1L, 4L, CarType.SMALL, start, 9, 410.0, Status.OPEN);
+                null, 1L, 4L, CarType.SMALL, start, 9, Money.of(41000), Status.OPEN);
 
-        var savedEntity = jpa(100L, 1L, 4L, CarType.SMALL, start, 9, 410.0, JpaRentalEntity.Status.OPEN);
+        var savedEntity = jpa(100L, 1L, 4L, CarType.SMALL, start, 9, Money.of(41000), JpaRentalEntity.Status.OPEN);
         given(repo.save(any(JpaRentalEntity.class))).willReturn(savedEntity);
 
         // when
@@ -45,37 +57,99 @@ class RentalPersistenceAdapterTest {
         assertThat(passed.getCarId()).isEqualTo(4L);
         assertThat(passed.getType()).isEqualTo(CarType.SMALL);
         assertThat(passed.getStatus()).isEqualTo(JpaRentalEntity.Status.OPEN);
+        assertThat(passed.getPlannedReturnDate()).isEqualTo(LocalDate.of(2025, 9, 16));
 
         assertThat(result.getId()).isEqualTo(100L);
         assertThat(result.getStatus()).isEqualTo(Status.OPEN);
     }
 
     @Test
-    @DisplayName("save(): existing rental -> maps to JPA and keeps id after save")
-    void save_existingRental_keepsId() {
+    @DisplayName("save(): existing rental -> rejected, updates go through markReturned")
+    void save_existingRental_rejected() {
         // given
-        var start = LocalDate.of(2025, 9, 7);
         var domain = Rental.reconstitute(
-                55L, 2L, 3L, CarType.SUV, start, 2, 300.0, Status.OPEN);
+                55L, 2L, 3L, CarType.SUV, LocalDate.of(2025, 9, 7), 2, Money.of(30000), Status.OPEN);
 
-        var savedEntity = jpa(55L, 2L, 3L, CarType.SUV, start, 2, 300.0, JpaRentalEntity.Status.OPEN);
-        given(repo.save(any(JpaRentalEntity.class))).willReturn(savedEntity);
+        // when
+        Throwable thrown = catchThrowable(() -> adapter.save(domain));
+
+        // then
+        assertThat(thrown).isInstanceOf(IllegalArgumentException.class);
+        verify(repo, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("markReturned(): single conditional update of the return columns, true only when the rental was open")
+    void markReturned_updatesReturnColumnsOnly() {
+        // given
+        var date = LocalDate.of(2025, 9, 18);
+        given(repo.updateReturned(7L, date, Money.of(13000),
+                JpaRentalEntity.Status.OPEN, JpaRentalEntity.Status.RETURNED))
+                .willReturn(1);
+        given(repo.updateReturned(8L, date, Money.ZERO, JpaRentalEntity.Status.OPEN, JpaRentalEntity.Status.RETURNED))
+                .willReturn(0);
+
+        // when / then
+        assertThat(adapter.markReturned(new SaveRental.Return(7L, date, Money.of(13000)))).isTrue();
+        assertThat(adapter.markReturned(new SaveRental.Return(8L, date, Money.ZERO))).isFalse();
+        verify(repo, never()).findById(anyLong());
+        verify(repo, never()).save(any());
+        assertThat(versions.current(AggregateVersions.Aggregate.RENTALS)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("markAllReturned(): locks the open rows, writes their date and surcharge in one batch and returns their ids")
+    void markAllReturned_batchUpdate() {
+        // given: 9 is already returned, so the lock query leaves it out
+        var date = LocalDate.of(2025, 9, 18);
+        var open = new JpaRentalEntity();
+        open.setId(7L);
+        given(repo.lockByStatus(Set.of(7L, 9L), JpaRentalEntity.Status.OPEN)).willReturn(List.of(open));
 
         // when
-        var result = adapter.save(domain);
+        var returned = adapter.markAllReturned(List.of(
+                new SaveRental.Return(7L, date, Money.of(13000)), new SaveRental.Return(9L, date, Money.ZERO)));
 
         // then
-        verify(repo).save(any(JpaRentalEntity.class));
-        assertThat(result.getId()).isEqualTo(55L);
+        assertThat(returned).containsExactly(7L);
+        verify(jdbc).batchUpdate(anyString(), argThat((List<Object[]> rows) -> rows.size() == 1
+                && rows.getFirst()[1].equals(13000L) && rows.getFirst()[2].equals(7L)));
+        assertThat(versions.current(AggregateVersions.Aggregate.RENTALS)).isEqualTo(1);
     }
 
+    @Test
+    @DisplayName("markAllReturned(): nothing open -> no UPDATE and no version bump")
+    void markAllReturned_nothingOpen() {
+        // given
+        given(repo.lockByStatus(Set.of(9L), JpaRentalEntity.Status.OPEN)).willReturn(List.of());
+
+        // when / then
+        assertThat(adapter.markAllReturned(List.of(new SaveRental.Return(9L, LocalDate.of(2025, 9, 18), Money.ZERO))))
+                .isEmpty();
+        assertThat(adapter.markAllReturned(List.of())).isEmpty();
+        verify(jdbc, never()).batchUpdate(anyString(), anyList());
+        assertThat(versions.current(AggregateVersions.Aggregate.RENTALS)).isZero();
+    }
+
+    @Test
+    @DisplayName("forCustomer(): one aggregate query with OPEN as the open status, prepaid sum as Money, no rows materialized")
+    void forCustomer_singleAggregate() {
+        // given
+        given(repo.totalsByCustomerId(5L, JpaRentalEntity.Status.OPEN))
+                .willReturn(new SpringDataRentalRepository.TotalsRow(3, 1, 72000, LocalDate.of(2025, 9, 1)));
+
+        // when / then
+        assertThat(adapter.forCustomer(5L))
+                .isEqualTo(new LoadRentalTotals.Totals(3, 1, Money.of(72000), LocalDate.of(2025, 9, 1)));
+        verify(repo, never()).streamByCustomerIdOrderByIdAsc(anyLong());
+    }
 
     @Test
     @DisplayName("byId(): found -> maps JPA to domain OPEN")
     void byId_found_open() {
         // given
         var start = LocalDate.of(2025, 9, 7);
-        var entity = jpa(7L, 1L, 2L, CarType.SUV, start, 9, 1290.0, JpaRentalEntity.Status.OPEN);
+        var entity = jpa(7L, 1L, 2L, CarType.SUV, start, 9, Money.of(129000), JpaRentalEntity.Status.OPEN);
         given(repo.findById(7L)).willReturn(Optional.of(entity));
 
         // when
@@ -89,7 +163,7 @@ class RentalPersistenceAdapterTest {
         assertThat(rental.getCarId()).isEqualTo(2L);
         assertThat(rental.getType()).isEqualTo(CarType.SUV);
         assertThat(rental.getDaysBooked()).isEqualTo(9);
-        assertThat(rental.getPrepaidAmount()).isEqualTo(1290.0);
+        assertThat(rental.getPrepaidAmount()).isEqualTo(Money.of(129000));
         assertThat(rental.getStatus()).isEqualTo(Status.OPEN);
     }
 
@@ -98,7 +172,7 @@ class RentalPersistenceAdapterTest {
     void byId_found_returned() {
         // given
         var start = LocalDate.of(2025, 9, 1);
-        var entity = jpa(8L, 2L, 4L, CarType.SMALL, start, 5, 250.0, JpaRentalEntity.Status.RETURNED);
+        var entity = jpa(8L, 2L, 4L, CarType.SMALL, start, 5, Money.of(25000), JpaRentalEntity.Status.RETURNED);
         given(repo.findById(8L)).willReturn(Optional.of(entity));
 
         // when
@@ -123,71 +197,59 @@ class RentalPersistenceAdapterTest {
     }
 
     @Test
-    @DisplayName("findAll(): maps every JPA entity to domain")
-    void findAll_mapsAll() {
-        // given
-        var rentalEntity = jpa(1L, 1L, 4L, CarType.SMALL, LocalDate.now(), 9, 410.0, JpaRentalEntity.Status.OPEN);
-        var rentalEntity2 = jpa(2L, 1L, 2L, CarType.SUV, LocalDate.now(), 9, 1290.0, JpaRentalEntity.Status.RETURNED);
-        given(repo.findAll()).willReturn(List.of(rentalEntity, rentalEntity2));
-
-        // when
-        var list = adapter.findAll();
-
-        // then
-        assertThat(list).hasSize(2);
-        assertThat(list.get(0).getId()).isEqualTo(1L);
-        assertThat(list.get(1).getStatus()).isEqualTo(Status.RETURNED);
-    }
-
-    @Test
-    @DisplayName("findByStatus(OPEN): delegates to repo and maps status correctly")
-    void findByStatus_open() {
+    @DisplayName("findOverdue(): OPEN rentals planned back before asOf, in the order the index returns them")
+    void findOverdue_rangeOnOpenRentals() {
         // given
-        var rentalEntity = jpa(3L, 2L, 1L, CarType.PREMIUM, LocalDate.now(), 10, 3000.0, JpaRentalEntity.Status.OPEN);
-        given(repo.findByStatus(JpaRentalEntity.Status.OPEN)).willReturn(List.of(rentalEntity));
+        var asOf = LocalDate.of(2025, 9, 20);
+        var rentalEntity = jpa(3L, 2L, 1L, CarType.PREMIUM, LocalDate.of(2025, 9, 1), 10, Money.of(300000), JpaRentalEntity.Status.OPEN);
+        given(repo.findByStatusAndPlannedReturnDateLessThanOrderByPlannedReturnDateAsc(JpaRentalEntity.Status.OPEN, asOf))
+                .willReturn(List.of(rentalEntity));
 
         // when
-        var list = adapter.findByStatus(Status.OPEN);
+        var list = adapter.findOverdue(asOf);
 
         // then
         assertThat(list).extracting(Rental::getId).containsExactly(3L);
-        assertThat(list.get(0).getStatus()).isEqualTo(Status.OPEN);
+        assertThat(list.getFirst().getPlannedReturnDate()).isEqualTo(LocalDate.of(2025, 9, 11));
     }
 
     @Test
-    @DisplayName("findByCustomer(): delegates to repo and maps list")
-    void findByCustomer() {
+    @DisplayName("streamAll(): maps lazily and detaches every entity once mapped")
+    void streamAll_detachesRows() {
         // given
-        var rentalEntity = jpa(4L, 1L, 2L, CarType.SUV, LocalDate.now(), 2, 300.0, JpaRentalEntity.Status.OPEN);
-        var rentalEntity2 = jpa(5L, 1L, 4L, CarType.SMALL, LocalDate.now(), 9, 410.0, JpaRentalEntity.Status.RETURNED);
-        given(repo.findByCustomerId(1L)).willReturn(List.of(rentalEntity, rentalEntity2));
+        var rentalEntity = jpa(1L, 1L, 4L, CarType.SMALL, LocalDate.now(), 9, Money.of(41000), JpaRentalEntity.Status.OPEN);
+        var rentalEntity2 = jpa(2L, 1L, 2L, CarType.SUV, LocalDate.now(), 9, Money.of(129000), JpaRentalEntity.Status.OPEN);
+        given(repo.streamByCustomerIdAndStatusOrderByIdAsc(1L, JpaRentalEntity.Status.OPEN)).willReturn(Stream.of(rentalEntity, rentalEntity2));
 
         // when
-        var list = adapter.findByCustomer(1L);
+        List<Rental> list;
+        try (var stream = adapter.streamAll(1L, Status.OPEN)) {
+            list = stream.toList();
+        }
 
         // then
-        assertThat(list).hasSize(2);
-        assertThat(list).extracting(Rental::getCustomerId).containsOnly(1L);
+        assertThat(list).extracting(Rental::getId).containsExactly(1L, 2L);
+        verify(em).detach(rentalEntity);
+        verify(em).detach(rentalEntity2);
     }
 
     @Test
-    @DisplayName("findByCustomerAndStatus(RETURNED): delegates and maps")
-    void findByCustomerAndStatus_returned() {
+    @DisplayName("streamAll(): null filters pick the unfiltered query")
+    void streamAll_noFilters() {
         // given
-        var rentalEntity = jpa(6L, 2L, 4L, CarType.SMALL, LocalDate.now(), 9, 410.0, JpaRentalEntity.Status.RETURNED);
-        given(repo.findByCustomerIdAndStatus(2L, JpaRentalEntity.Status.RETURNED)).willReturn(List.of(rentalEntity));
+        given(repo.streamAllByOrderByIdAsc()).willReturn(Stream.empty());
 
         // when
-        var list = adapter.findByCustomerAndStatus(2L, Status.RETURNED);
+        try (var stream = adapter.streamAll(null, null)) {
+            assertThat(stream).isEmpty();
+        }
 
         // then
-        assertThat(list).hasSize(1);
-        assertThat(list.get(0).getStatus()).isEqualTo(Status.RETURNED);
-        assertThat(list.get(0).getCustomerId()).isEqualTo(2L);
+        verify(repo).streamAllByOrderByIdAsc();
     }
 
     private static JpaRentalEntity jpa(Long id, long customerId, long carId, CarType type,
-                                       LocalDate start, int days, double prepaid,
+                                       LocalDate start, int days, Money prepaid,
                                        JpaRentalEntity.Status status) {
         var jpaRentalEntity = new JpaRentalEntity();
         jpaRentalEntity.setId(id);
@@ -198,6 +260,7 @@ class RentalPersistenceAdapterTest {
         jpaRentalEntity.setDaysBooked(days);
         jpaRentalEntity.setPrepaidAmount(prepaid);
         jpaRentalEntity.setStatus(status);
+        jpaRentalEntity.setSurcharge(Money.ZERO);
         return jpaRentalEntity;
     }
 }
@@ -0,0 +1,85 @@
+package com.challenge.RentalCar.rentals.adapter.persistence;
+
+import com.challenge.RentalCar.customers.adapter.persistence.JpaCustomerEntity;
+import com.challenge.RentalCar.customers.adapter.persistence.SpringDataCustomerRepository;
+import com.challenge.RentalCar.inventory.adapter.persistence.JpaCarEntity;
+import com.challenge.RentalCar.inventory.adapter.persistence.SpringDataCarRepository;
+import com.challenge.RentalCar.inventory.domain.CarType;
+import com.challenge.RentalCar.rentals.port.out.ScanRentalIntervals;
+import com.challenge.RentalCar.rentals.port.out.ScanRentalIntervals.Interval;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ScanRentalIntervalsTest {
+    private static final LocalDate D = LocalDate.of(2025, 9, 1);
+
+    @Autowired ScanRentalIntervals scanIntervals;
+    @Autowired SpringDataCustomerRepository customers;
+    @Autowired SpringDataCarRepository cars;
+    @Autowired JdbcTemplate jdbc;
+
+    @Test
+    @DisplayName("scan(): returned rentals end on their actual date, late returns past the window start are kept, "
+            + "bookings cancelled before their start are dropped")
+    void scan_usesActualReturnDate() {
+        // given
+        long customerId = customer();
+        long carId = car();
+        rental(customerId, carId, D, D.plusDays(3), "OPEN", null);
+        rental(customerId, carId, D.plusDays(4), D.plusDays(6), "RETURNED", D.plusDays(5));
+        rental(customerId, carId, D.plusDays(10), D.plusDays(12), "RETURNED", D.plusDays(20));
+        rental(customerId, carId, D.plusDays(25), D.plusDays(28), "RETURNED", D.plusDays(25));
+        rental(customerId, carId, D.plusDays(26), D.plusDays(28), "RETURNED", D.plusDays(2));
+
+        // when
+        var all = new ArrayList<Interval>();
+        scanIntervals.scan(carId, carId, D, D.plusDays(30), all::add);
+        var afterPlanned = new ArrayList<Interval>();
+        scanIntervals.scan(carId, carId, D.plusDays(15), D.plusDays(30), afterPlanned::add);
+
+        // then
+        assertThat(all).containsExactly(
+                new Interval(carId, CarType.SUV, D, D.plusDays(3)),
+                new Interval(carId, CarType.SUV, D.plusDays(4), D.plusDays(5)),
+                new Interval(carId, CarType.SUV, D.plusDays(10), D.plusDays(20)));
+        assertThat(afterPlanned).containsExactly(new Interval(carId, CarType.SUV, D.plusDays(10), D.plusDays(20)));
+    }
+
+    private long customer() {
+        var c = new JpaCustomerEntity();
+        c.setName("Fleet");
+        c.setPoints(0);
+        return customers.save(c).getId();
+    }
+
+    private long car() {
+        var c = new JpaCarEntity();
+        c.setBrand("Kia");
+        c.setModel("Sorento");
+        c.setType(CarType.SUV);
+        c.setAvailable(true);
+        return cars.save(c).getId();
+    }
+
+    private void rental(long customerId, long carId, LocalDate start, LocalDate planned, String status,
+                        LocalDate actual) {
+        jdbc.update("""
+                insert into rentals (customer_id, car_id, type, start_date, days_booked, planned_return_date,
+                                     prepaid_amount, status, actual_return_date, surcharge)
+                values (?, ?, 'SUV', ?, ?, ?, 0, ?, ?, 0)""",
+                customerId, carId, Date.valueOf(start), planned.toEpochDay() - start.toEpochDay(),
+                Date.valueOf(planned), status, actual == null ? null : Date.valueOf(actual));
+    }
+}
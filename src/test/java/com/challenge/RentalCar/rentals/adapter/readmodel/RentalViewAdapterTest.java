@@ -0,0 +1,126 @@
+package com.challenge.RentalCar.rentals.adapter.readmodel;
+
+import com.challenge.RentalCar.inventory.domain.CarType;
+import com.challenge.RentalCar.rentals.domain.Rental;
+import com.challenge.RentalCar.rentals.port.in.ListRentals;
+import com.challenge.RentalCar.shared.money.Money;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+class RentalViewAdapterTest {
+
+    private final SpringDataRentalViewRepository repo = mock(SpringDataRentalViewRepository.class);
+    private final JdbcTemplate jdbc = mock(JdbcTemplate.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RentalViewAdapter adapter = new RentalViewAdapter(repo, jdbc, meterRegistry);
+
+    private static ListRentals.View view(long id, long customerId, String status) {
+        var start = LocalDate.of(2025, 9, 7);
+        return new ListRentals.View(id, customerId, 4L, "SMALL", start, 9, start.plusDays(9), Money.of(41000), status);
+    }
+
+    @Test
+    @DisplayName("opened(): one INSERT carrying the rental id and the precomputed planned return date")
+    void opened_insertsViewRow() {
+        // given
+        var rental = Rental.reconstitute(
+                100L, 1L, 4L, CarType.SMALL, LocalDate.of(2025, 9, 7), 9, Money.of(41000), Rental.Status.OPEN);
+
+        // when
+        adapter.opened(rental);
+
+        // then
+        var captor = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbc).update(anyString(), captor.capture());
+        assertThat(captor.getValue()).containsExactly(
+                100L, 1L, 4L, "SMALL", Date.valueOf("2025-09-07"), 9, Date.valueOf("2025-09-16"), 41000L, "OPEN");
+    }
+
+    @Test
+    @DisplayName("openedAll(): one JDBC batch for every rental, nothing for an empty list")
+    void openedAll_batchesRows() {
+        // given
+        var start = LocalDate.of(2025, 9, 7);
+        var rentals = List.of(
+                Rental.reconstitute(100L, 1L, 4L, CarType.SMALL, start, 9, Money.of(41000), Rental.Status.OPEN),
+                Rental.reconstitute(101L, 1L, 2L, CarType.SUV, start, 2, Money.of(30000), Rental.Status.OPEN));
+
+        // when
+        adapter.openedAll(rentals);
+        adapter.openedAll(List.of());
+
+        // then
+        verify(jdbc, times(1)).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    @DisplayName("returned(): flips the status of the view row only")
+    void returned_updatesStatus() {
+        // when
+        adapter.returned(7L);
+
+        // then
+        verify(repo).updateStatus(7L, "RETURNED");
+        verifyNoInteractions(jdbc);
+    }
+
+    @Test
+    @DisplayName("returnedAll(): one set-based status update, nothing for an empty list")
+    void returnedAll_updatesStatuses() {
+        // when
+        adapter.returnedAll(List.of(7L, 8L));
+        adapter.returnedAll(List.of());
+
+        // then
+        verify(repo).updateStatusAll(List.of(7L, 8L), "RETURNED");
+        verifyNoMoreInteractions(repo);
+    }
+
+    @Test
+    @DisplayName("findAll(): keyset read returns the projected views as is and records the page size")
+    void findAll_returnsViews() {
+        // given
+        var views = List.of(view(1L, 1L, "OPEN"), view(2L, 1L, "RETURNED"));
+        given(repo.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(50))).willReturn(views);
+
+        // when
+        var list = adapter.findAll(0L, 50);
+
+        // then
+        assertThat(list).isSameAs(views);
+        var sizes = meterRegistry.find("rentalcar.rentals.load.size").tag("query", "all").summary();
+        assertThat(sizes.count()).isEqualTo(1);
+        assertThat(sizes.totalAmount()).isEqualTo(2.0);
+    }
+
+    @Test
+    @DisplayName("findByCustomerAndStatus(RETURNED): status is matched by name")
+    void findByCustomerAndStatus_returned() {
+        // given
+        var views = List.of(view(6L, 2L, "RETURNED"));
+        given(repo.findByCustomerIdAndStatusAndIdGreaterThanOrderByIdAsc(2L, "RETURNED", 5L, Limit.of(10)))
+                .willReturn(views);
+
+        // when
+        var list = adapter.findByCustomerAndStatus(2L, Rental.Status.RETURNED, 5L, 10);
+
+        // then
+        assertThat(list).extracting(ListRentals.View::id).containsExactly(6L);
+        assertThat(meterRegistry.find("rentalcar.rentals.load.size").tag("query", "customer_status").summary())
+                .isNotNull();
+    }
+}
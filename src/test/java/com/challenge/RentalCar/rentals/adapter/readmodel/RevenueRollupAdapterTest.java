@@ -0,0 +1,88 @@
+package com.challenge.RentalCar.rentals.adapter.readmodel;
+
+import com.challenge.RentalCar.inventory.domain.CarType;
+import com.challenge.RentalCar.rentals.domain.Rental;
+import com.challenge.RentalCar.rentals.port.in.ReportRevenue.Day;
+import com.challenge.RentalCar.shared.money.Money;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class RevenueRollupAdapterTest {
+
+    private final SingleConnectionDataSource db = new SingleConnectionDataSource(
+            "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=PostgreSQL", true);
+    private final JdbcTemplate jdbc = new JdbcTemplate(db);
+    private final RevenueRollupAdapter adapter = new RevenueRollupAdapter(jdbc);
+
+    private final LocalDate monday = LocalDate.of(2025, 9, 1);
+
+    {
+        jdbc.execute("""
+                create table revenue_daily (revenue_date date not null, car_type varchar(50) not null,
+                prepaid_total bigint not null, surcharge_total bigint not null,
+                rentals bigint not null, primary key (revenue_date, car_type))""");
+    }
+
+    @AfterEach
+    void shutdown() {
+        db.destroy();
+    }
+
+    private Rental rental(long id, CarType type, LocalDate start, long prepaidMinorUnits) {
+        return Rental.reconstitute(id, 1L, id, type, start, 2, Money.of(prepaidMinorUnits), Rental.Status.OPEN);
+    }
+
+    @Test
+    @DisplayName("rented(): adds prepaid amounts and counts to the start day's row, creating it on first use")
+    void rented_addsToStartDay() {
+        // when: two batches touching the same rows
+        adapter.rented(List.of(rental(1, CarType.SUV, monday, 30000), rental(2, CarType.SUV, monday, 15000),
+                rental(3, CarType.SMALL, monday.plusDays(1), 10000)));
+        adapter.rented(List.of(rental(4, CarType.SUV, monday, 5000)));
+
+        // then
+        assertThat(adapter.between(monday, monday.plusDays(1))).containsExactly(
+                new Day(monday, CarType.SUV, Money.of(50000), Money.ZERO, 3),
+                new Day(monday.plusDays(1), CarType.SMALL, Money.of(10000), Money.ZERO, 1));
+    }
+
+    @Test
+    @DisplayName("returned(): adds surcharges to the actual return day; on-time returns touch nothing")
+    void returned_addsSurchargeToReturnDay() {
+        // given
+        var late = rental(1, CarType.SUV, monday, 30000);
+        late.markReturned(monday.plusDays(5), Money.of(54000));
+        var onTime = rental(2, CarType.SMALL, monday, 10000);
+        onTime.markReturned(monday.plusDays(2), Money.ZERO);
+
+        // when
+        adapter.returned(List.of(late, onTime));
+
+        // then
+        assertThat(adapter.between(monday, monday.plusDays(10))).containsExactly(
+                new Day(monday.plusDays(5), CarType.SUV, Money.ZERO, Money.of(54000), 0));
+    }
+
+    @Test
+    @DisplayName("between(): only rows inside the window, by date then type")
+    void between_window() {
+        // given
+        adapter.rented(List.of(rental(1, CarType.SUV, monday, 30000), rental(2, CarType.SMALL, monday, 10000),
+                rental(3, CarType.SMALL, monday.minusDays(1), 10000), rental(4, CarType.SMALL, monday.plusDays(3), 10000)));
+
+        // when / then
+        assertThat(adapter.between(monday, monday.plusDays(2)))
+                .extracting(Day::date, Day::type)
+                .containsExactly(tuple(monday, CarType.SMALL), tuple(monday, CarType.SUV));
+    }
+}
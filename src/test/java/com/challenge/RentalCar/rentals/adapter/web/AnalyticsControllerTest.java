@@ -0,0 +1,84 @@
+package com.challenge.RentalCar.rentals.adapter.web;
+
+import com.challenge.RentalCar.inventory.domain.CarType;
+import com.challenge.RentalCar.rentals.port.in.ReportRevenue;
+import com.challenge.RentalCar.rentals.port.in.ReportUtilization;
+import com.challenge.RentalCar.rentals.port.in.ReportUtilization.Granularity;
+import com.challenge.RentalCar.shared.money.Money;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(AnalyticsController.class)
+class AnalyticsControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ReportUtilization reportUtilization;
+
+    @MockitoBean
+    private ReportRevenue reportRevenue;
+
+    @Test
+    @DisplayName("GET /analytics/utilization -> parses the window and granularity and returns the report")
+    void utilization_returnsReport() throws Exception {
+        // given
+        var from = LocalDate.of(2025, 9, 1);
+        var to = LocalDate.of(2025, 9, 30);
+        given(reportUtilization.handle(new ReportUtilization.Query(from, to, Granularity.MONTH)))
+                .willReturn(new ReportUtilization.Report(from, to, Granularity.MONTH, Map.of(CarType.SUV, 0.5),
+                        List.of(new ReportUtilization.Period(from, to, Map.of(CarType.SUV, 0.5))),
+                        List.of(new ReportUtilization.CarShare(7, CarType.SUV, 15, 0.5))));
+
+        // when / then
+        mockMvc.perform(get("/analytics/utilization")
+                        .param("from", "2025-09-01").param("to", "2025-09-30").param("granularity", "month"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.granularity").value("MONTH"))
+                .andExpect(jsonPath("$.byType.SUV").value(0.5))
+                .andExpect(jsonPath("$.periods[0].end").value("2025-09-30"))
+                .andExpect(jsonPath("$.cars[0].rentedDays").value(15));
+    }
+
+    @Test
+    @DisplayName("GET /analytics/utilization with an unknown granularity -> 400")
+    void utilization_badGranularity() throws Exception {
+        mockMvc.perform(get("/analytics/utilization")
+                        .param("from", "2025-09-01").param("to", "2025-09-30").param("granularity", "year"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(reportUtilization);
+    }
+
+    @Test
+    @DisplayName("GET /analytics/revenue -> parses the window and returns the rollup report")
+    void revenue_returnsReport() throws Exception {
+        // given
+        var from = LocalDate.of(2025, 9, 1);
+        var to = LocalDate.of(2025, 9, 30);
+        var suv = new ReportRevenue.Totals(Money.of(45000), Money.of(54000), 3);
+        given(reportRevenue.handle(new ReportRevenue.Query(from, to)))
+                .willReturn(new ReportRevenue.Report(from, to, suv, Map.of(CarType.SUV, suv),
+                        List.of(new ReportRevenue.Day(from, CarType.SUV, Money.of(45000), Money.of(54000), 3))));
+
+        // when / then
+        mockMvc.perform(get("/analytics/revenue").param("from", "2025-09-01").param("to", "2025-09-30"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total.surcharge").value(540.0))
+                .andExpect(jsonPath("$.byType.SUV.rentals").value(3))
+                .andExpect(jsonPath("$.days[0].date").value("2025-09-01"));
+    }
+}
@@ -0,0 +1,69 @@
+package com.challenge.RentalCar.rentals.adapter.web;
+
+import com.challenge.RentalCar.inventory.domain.CarType;
+import com.challenge.RentalCar.rentals.port.in.QuotePrices;
+import com.challenge.RentalCar.shared.money.Money;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(QuoteController.class)
+class QuoteControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private QuotePrices quotePrices;
+
+    @Test
+    @DisplayName("POST /quotes -> parses every item (lateDays optional, unknown fields skipped) and writes one quote each")
+    void quote_streamsItems() throws Exception {
+        // given
+        given(quotePrices.handle(any())).willAnswer(inv -> {
+            QuotePrices.Batch batch = inv.getArgument(0);
+            assertThat(batch.size()).isEqualTo(2);
+            assertThat(Arrays.copyOf(batch.types(), 2)).containsExactly(CarType.SUV, CarType.PREMIUM);
+            assertThat(Arrays.copyOf(batch.days(), 2)).containsExactly(9, 1);
+            assertThat(Arrays.copyOf(batch.lateDays(), 2)).containsExactly(2, 0);
+            return new QuotePrices.Quotes(new long[]{129_000, 30_000}, new long[]{36_000, 0}, Money.CURRENCY);
+        });
+
+        // when / then
+        mockMvc.perform(post("/quotes").contentType(MediaType.APPLICATION_JSON).content("""
+                        [{"type":"SUV","days":9,"lateDays":2,"ref":{"partner":"a"}},{"days":1,"type":"PREMIUM"}]"""))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].type").value("SUV"))
+                .andExpect(jsonPath("$[0].lateDays").value(2))
+                .andExpect(jsonPath("$[0].prepaid").value(1290.0))
+                .andExpect(jsonPath("$[0].lateFee").value(360.0))
+                .andExpect(jsonPath("$[1].days").value(1))
+                .andExpect(jsonPath("$[1].prepaid").value(300.0));
+    }
+
+    @Test
+    @DisplayName("POST /quotes with an unknown type or a body that is not an array -> 400 without pricing")
+    void quote_badRequest() throws Exception {
+        for (var body : new String[]{"[{\"type\":\"VAN\",\"days\":3}]", "{\"type\":\"SUV\",\"days\":3}",
+                "[{\"type\":\"SUV\",\"days\":\"3\"}]", "[{\"type\":\"SUV\""}) {
+            mockMvc.perform(post("/quotes").contentType(MediaType.APPLICATION_JSON).content(body))
+                    .andExpect(status().isBadRequest());
+        }
+        verifyNoInteractions(quotePrices);
+    }
+}
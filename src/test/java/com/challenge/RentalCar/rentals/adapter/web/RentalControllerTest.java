@@ -2,6 +2,8 @@ package com.challenge.RentalCar.rentals.adapter.web;
 
 import com.challenge.RentalCar.rentals.port.in.RentCar;
 import com.challenge.RentalCar.rentals.port.in.ReturnCar;
+import com.challenge.RentalCar.shared.idempotency.IdempotentRequests;
+import com.challenge.RentalCar.shared.money.Money;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -13,10 +15,16 @@ import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -32,6 +40,9 @@ class RentalControllerTest {
     @MockitoBean
     private ReturnCar returnCar;
 
+    @MockitoBean
+    private IdempotentRequests idempotent;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -44,13 +55,16 @@ class RentalControllerTest {
                   {"customerId":1,"carId":2,"days":9}
                 """;
 
-        var expected = new RentCar.Result(42L, 1290.0, 3);
+        var expected = new RentCar.Result(42L, Money.of(129000), 3);
         given(rentCar.handle(new RentCar.Command(1L, 2L, 9))).willReturn(expected);
 
         // when
-        mockMvc.perform(post("/rentals")
+        var started = mockMvc.perform(post("/rentals")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(cmdJson))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started))
                 .andExpect(status().isOk())
                 .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.rentalId").value(42))
@@ -76,14 +90,17 @@ class RentalControllerTest {
                   {"rentalId":1234, "actualReturnDate":"2025-09-18"}
                 """;
 
-        var expected = new ReturnCar.Result(pathId, 130.0);
+        var expected = new ReturnCar.Result(pathId, Money.of(13000));
         given(returnCar.handle(new ReturnCar.Command(pathId, LocalDate.parse("2025-09-18"))))
                 .willReturn(expected);
 
         // when
-        mockMvc.perform(post("/rentals/{id}/return", pathId)
+        var started = mockMvc.perform(post("/rentals/{id}/return", pathId)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(bodyWithDifferentId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started))
                 .andExpect(status().isOk())
                 .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.rentalId").value(99))
@@ -106,14 +123,117 @@ class RentalControllerTest {
         var body = objectMapper.writeValueAsString(new ReturnCar.Command(777L, date));
 
         given(returnCar.handle(new ReturnCar.Command(pathId, date)))
-                .willReturn(new ReturnCar.Result(pathId, 0.0));
+                .willReturn(new ReturnCar.Result(pathId, Money.ZERO));
 
         // when / then
-        mockMvc.perform(post("/rentals/{id}/return", pathId)
+        var started = mockMvc.perform(post("/rentals/{id}/return", pathId)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(body))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.rentalId").value(1))
                 .andExpect(jsonPath("$.surcharge").value(0.0));
     }
+
+    @Test
+    @DisplayName("POST /rentals/batch -> delegates the whole list to RentCar.handleBatch and returns items in order")
+    void rentBatch_delegatesAndReturnsItems() throws Exception {
+        // given
+        var body = """
+                  [{"customerId":1,"carId":2,"days":9},{"customerId":1,"carId":7,"days":3}]
+                """;
+        var cmds = List.of(new RentCar.Command(1L, 2L, 9), new RentCar.Command(1L, 7L, 3));
+        given(rentCar.handleBatch(cmds)).willReturn(List.of(
+                RentCar.BatchItem.ok(new RentCar.Result(42L, Money.of(129000), 3)),
+                RentCar.BatchItem.failed(404, "Car not found: 7")));
+
+        // when / then
+        mockMvc.perform(post("/rentals/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].status").value(200))
+                .andExpect(jsonPath("$[0].result.rentalId").value(42))
+                .andExpect(jsonPath("$[1].status").value(404))
+                .andExpect(jsonPath("$[1].message").value("Car not found: 7"));
+
+        verify(rentCar).handleBatch(cmds);
+    }
+
+    @Test
+    @DisplayName("POST /rentals/returns -> delegates the whole list to ReturnCar.handleBatch and returns items in order")
+    void returnBatch_delegatesAndReturnsItems() throws Exception {
+        // given
+        var body = """
+                  [{"rentalId":1,"actualReturnDate":"2025-09-18"},{"rentalId":9,"actualReturnDate":"2025-09-18"}]
+                """;
+        var cmds = List.of(new ReturnCar.Command(1L, LocalDate.of(2025, 9, 18)),
+                new ReturnCar.Command(9L, LocalDate.of(2025, 9, 18)));
+        given(returnCar.handleBatch(cmds)).willReturn(List.of(
+                ReturnCar.BatchItem.ok(new ReturnCar.Result(1L, Money.of(13000))),
+                ReturnCar.BatchItem.failed(404, "Rental not found: 9")));
+
+        // when / then
+        mockMvc.perform(post("/rentals/returns")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].result.surcharge").value(130.0))
+                .andExpect(jsonPath("$[1].status").value(404))
+                .andExpect(jsonPath("$[1].message").value("Rental not found: 9"));
+
+        verify(returnCar).handleBatch(cmds);
+    }
+
+    @Test
+    @DisplayName("POST /rentals with Idempotency-Key -> goes through IdempotentRequests under the rent scope")
+    void rent_withIdempotencyKey_delegatesToIdempotentRequests() throws Exception {
+        // given
+        var cmd = new RentCar.Command(1L, 2L, 9);
+        given(idempotent.execute(eq("rent"), eq("k-1"), eq(cmd), eq(RentCar.Result.class), any()))
+                .willReturn(CompletableFuture.completedFuture(new RentCar.Result(42L, Money.of(129000), 3)));
+
+        // when
+        var started = mockMvc.perform(post("/rentals")
+                        .header("Idempotency-Key", "k-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(cmd)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rentalId").value(42));
+
+        // then: the use case only runs if IdempotentRequests calls back
+        verify(rentCar, never()).handle(any());
+    }
+
+    @Test
+    @DisplayName("POST /rentals/{id}/return with Idempotency-Key -> the key covers the path id")
+    void return_withIdempotencyKey_scopesByCommand() throws Exception {
+        // given
+        var cmd = new ReturnCar.Command(5L, LocalDate.of(2025, 9, 18));
+        given(idempotent.execute(eq("return"), eq("k-2"), eq(cmd), eq(ReturnCar.Result.class), any()))
+                .willReturn(CompletableFuture.completedFuture(new ReturnCar.Result(5L, Money.ZERO)));
+
+        // when
+        var started = mockMvc.perform(post("/rentals/{id}/return", 5L)
+                        .header("Idempotency-Key", "k-2")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"actualReturnDate":"2025-09-18"}
+                                """))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rentalId").value(5));
+
+        // then
+        verify(returnCar, never()).handle(any());
+    }
 }
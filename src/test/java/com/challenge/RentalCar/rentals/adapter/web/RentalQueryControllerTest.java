@@ -1,26 +1,39 @@
 package com.challenge.RentalCar.rentals.adapter.web;
 
+import com.challenge.RentalCar.rentals.port.in.ExportRentals;
+import com.challenge.RentalCar.rentals.port.in.ListOverdueRentals;
 import com.challenge.RentalCar.rentals.port.in.ListRentals;
+import com.challenge.RentalCar.shared.money.Money;
+import com.challenge.RentalCar.shared.version.AggregateVersions;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.clearInvocations;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(RentalQueryController.class)
+@Import(AggregateVersions.class)
 class RentalQueryControllerTest {
 
     @Autowired
@@ -29,12 +42,18 @@ class RentalQueryControllerTest {
     @MockitoBean
     private ListRentals listRentals;
 
+    @MockitoBean
+    private ExportRentals exportRentals;
+
+    @MockitoBean
+    private ListOverdueRentals listOverdue;
+
     private static ListRentals.View view(long id, long customerId, long carId, String type,
-                                         String startDate, int days, String planned, double prepaid, String status) {
+                                         String startDate, int days, String planned, long prepaid, String status) {
         return new ListRentals.View(
                 id, customerId, carId, type,
                 LocalDate.parse(startDate), days,
-                LocalDate.parse(planned), prepaid, status
+                LocalDate.parse(planned), Money.of(prepaid), status
         );
     }
 
@@ -42,18 +61,18 @@ class RentalQueryControllerTest {
     @DisplayName("GET /rentals with no filters -> delegates with empty filter and returns list")
     void history_noFilters() throws Exception {
         // given
-        var view = view(1, 1, 4, "SMALL", "2025-09-07", 9, "2025-09-16", 410.0, "OPEN");
-        var view1 = view(2, 1, 2, "SUV", "2025-09-07", 9, "2025-09-16", 1290.0, "RETURNED");
-        given(listRentals.handle(any())).willReturn(List.of(view, view1));
+        var view = view(1, 1, 4, "SMALL", "2025-09-07", 9, "2025-09-16", 41000, "OPEN");
+        var view1 = view(2, 1, 2, "SUV", "2025-09-07", 9, "2025-09-16", 129000, "RETURNED");
+        given(listRentals.handle(any())).willReturn(new ListRentals.Page(List.of(view, view1), null));
 
         // when
         mockMvc.perform(get("/rentals").accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$.length()").value(2))
-                .andExpect(jsonPath("$[0].id").value(1))
-                .andExpect(jsonPath("$[0].status").value("OPEN"))
-                .andExpect(jsonPath("$[1].status").value("RETURNED"));
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].id").value(1))
+                .andExpect(jsonPath("$.items[0].status").value("OPEN"))
+                .andExpect(jsonPath("$.items[1].status").value("RETURNED"));
 
         // then
         var captor = ArgumentCaptor.forClass(ListRentals.Filter.class);
@@ -67,16 +86,16 @@ class RentalQueryControllerTest {
     @DisplayName("GET /rentals?status=OPEN -> delegates with status filter only")
     void history_statusOnly() throws Exception {
         // given
-        var view = view(3, 2, 1, "PREMIUM", "2025-09-01", 10, "2025-09-11", 3000.0, "OPEN");
-        given(listRentals.handle(any())).willReturn(List.of(view));
+        var view = view(3, 2, 1, "PREMIUM", "2025-09-01", 10, "2025-09-11", 300000, "OPEN");
+        given(listRentals.handle(any())).willReturn(new ListRentals.Page(List.of(view), null));
 
         // when
         mockMvc.perform(get("/rentals")
                         .param("status", "OPEN")
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.length()").value(1))
-                .andExpect(jsonPath("$[0].status").value("OPEN"));
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].status").value("OPEN"));
 
         // then
         var captor = ArgumentCaptor.forClass(ListRentals.Filter.class);
@@ -90,8 +109,8 @@ class RentalQueryControllerTest {
     @DisplayName("GET /rentals?customerId=1&status=returned -> delegates with both filters")
     void history_bothFilters() throws Exception {
         // given
-        var view = view(10, 1, 4, "SMALL", "2025-08-01", 5, "2025-08-06", 250.0, "RETURNED");
-        given(listRentals.handle(any())).willReturn(List.of(view));
+        var view = view(10, 1, 4, "SMALL", "2025-08-01", 5, "2025-08-06", 25000, "RETURNED");
+        given(listRentals.handle(any())).willReturn(new ListRentals.Page(List.of(view), null));
 
         // when
         mockMvc.perform(get("/rentals")
@@ -99,9 +118,9 @@ class RentalQueryControllerTest {
                         .param("status", "returned")
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.length()").value(1))
-                .andExpect(jsonPath("$[0].customerId").value(1))
-                .andExpect(jsonPath("$[0].status").value("RETURNED"));
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].customerId").value(1))
+                .andExpect(jsonPath("$.items[0].status").value("RETURNED"));
 
         // then
         var captor = ArgumentCaptor.forClass(ListRentals.Filter.class);
@@ -110,4 +129,120 @@ class RentalQueryControllerTest {
         assertThat(filter.customerId()).contains(1L);
         assertThat(filter.status()).contains("returned");
     }
+
+    @Test
+    @DisplayName("GET /rentals?limit=2&after=cursor -> passes paging through and returns next cursor")
+    void history_paging() throws Exception {
+        // given
+        var view = view(11, 1, 2, "SUV", "2025-09-07", 9, "2025-09-16", 129000, "OPEN");
+        given(listRentals.handle(any())).willReturn(new ListRentals.Page(List.of(view), "MTE"));
+
+        // when
+        mockMvc.perform(get("/rentals")
+                        .param("limit", "1")
+                        .param("after", "MTA")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(11))
+                .andExpect(jsonPath("$.nextCursor").value("MTE"));
+
+        // then
+        var captor = ArgumentCaptor.forClass(ListRentals.Filter.class);
+        verify(listRentals).handle(captor.capture());
+        var filter = captor.getValue();
+        assertThat(filter.limit()).contains(1);
+        assertThat(filter.after()).contains("MTA");
+    }
+
+    @Test
+    @DisplayName("GET /rentals/export?status=OPEN -> streams one JSON view per line as NDJSON under its own timeout")
+    void export_streamsNdjson() throws Exception {
+        // given
+        var view = view(1, 1, 4, "SMALL", "2025-09-07", 9, "2025-09-16", 41000, "OPEN");
+        var view1 = view(2, 2, 3, "SUV", "2025-09-08", 2, "2025-09-10", 30000, "OPEN");
+        willAnswer(inv -> {
+            Consumer<ListRentals.View> sink = inv.getArgument(1);
+            sink.accept(view);
+            sink.accept(view1);
+            return null;
+        }).given(exportRentals).handle(any(), any());
+
+        // when
+        var started = mockMvc.perform(get("/rentals/export").param("status", "OPEN"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertThat(started.getRequest().getAsyncContext().getTimeout()).isEqualTo(Duration.ofHours(1).toMillis());
+
+        var body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        // then
+        var lines = body.split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).contains("\"id\":1", "\"startDate\":\"2025-09-07\"", "\"status\":\"OPEN\"");
+        assertThat(lines[1]).contains("\"id\":2");
+
+        var captor = ArgumentCaptor.forClass(ListRentals.Filter.class);
+        verify(exportRentals).handle(captor.capture(), any());
+        assertThat(captor.getValue().status()).contains("OPEN");
+        assertThat(captor.getValue().customerId()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("GET /rentals/export failing midway -> the failure reaches Spring MVC as the async result")
+    void export_failureIsReported() throws Exception {
+        // given
+        var view = view(1, 1, 4, "SMALL", "2025-09-07", 9, "2025-09-16", 41000, "OPEN");
+        willAnswer(inv -> {
+            Consumer<ListRentals.View> sink = inv.getArgument(1);
+            sink.accept(view);
+            throw new IllegalStateException("connection lost");
+        }).given(exportRentals).handle(any(), any());
+
+        // when
+        var started = mockMvc.perform(get("/rentals/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // then
+        assertThat(started.getAsyncResult()).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("GET /rentals with the current ETag -> 304, ListRentals is not called")
+    void history_notModified() throws Exception {
+        // given
+        given(listRentals.handle(any())).willReturn(new ListRentals.Page(List.of(), null));
+        var etag = mockMvc.perform(get("/rentals").param("status", "OPEN"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        clearInvocations(listRentals);
+
+        // when / then
+        mockMvc.perform(get("/rentals").param("status", "OPEN").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        verifyNoInteractions(listRentals);
+    }
+
+    @Test
+    @DisplayName("GET /rentals/overdue?asOf= -> parses the ISO date and returns late fees per rental")
+    void overdue_asOf() throws Exception {
+        // given
+        var asOf = LocalDate.parse("2025-09-20");
+        given(listOverdue.handle(asOf)).willReturn(List.of(
+                new ListOverdueRentals.Overdue(7L, 1L, 4L, "SMALL", LocalDate.parse("2025-09-16"), 4, Money.of(26000))));
+
+        // when / then
+        mockMvc.perform(get("/rentals/overdue").param("asOf", "2025-09-20").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].rentalId").value(7))
+                .andExpect(jsonPath("$[0].plannedReturnDate").value("2025-09-16"))
+                .andExpect(jsonPath("$[0].daysLate").value(4))
+                .andExpect(jsonPath("$[0].lateFee").value(260.0));
+        verify(listOverdue).handle(asOf);
+    }
 }
@@ -0,0 +1,127 @@
+package com.challenge.RentalCar.rentals.application;
+
+import com.challenge.RentalCar.customers.adapter.persistence.JpaCustomerEntity;
+import com.challenge.RentalCar.customers.adapter.persistence.SpringDataCustomerRepository;
+import com.challenge.RentalCar.inventory.domain.Car;
+import com.challenge.RentalCar.inventory.domain.CarType;
+import com.challenge.RentalCar.rentals.port.in.PickUpBookedCars;
+import com.challenge.RentalCar.rentals.port.in.RentCar;
+import com.challenge.RentalCar.rentals.port.in.ReturnCar;
+import com.challenge.RentalCar.rentals.port.in.SearchAvailableCars;
+import com.challenge.RentalCar.rentals.port.out.LoadCar;
+import com.challenge.RentalCar.rentals.port.out.SaveCar;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.sql.Date;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+/**
+ * A booking made ahead whose start date has come and gone: the rows are written directly, as they were when the
+ * booking was made, before any pick-up ran.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class AdvanceBookingPickUpTest {
+
+    @Autowired PickUpBookedCars pickUp;
+    @Autowired RentCar rentCar;
+    @Autowired ReturnCar returnCar;
+    @Autowired SearchAvailableCars search;
+    @Autowired LoadCar loadCar;
+    @Autowired SaveCar saveCar;
+    @Autowired SpringDataCustomerRepository customers;
+    @Autowired JdbcTemplate jdbc;
+
+    private final LocalDate today = LocalDate.now();
+
+    @Test
+    @DisplayName("Started and overdue advance booking -> picked up: not available, not offered, not rentable until returned")
+    void pickUp_overdueAdvanceBooking() {
+        // given: booked for 2 days starting 5 days ago, so its range ended 3 days ago
+        long customerId = customer();
+        long carId = car();
+        long rentalId = booking(customerId, carId, today.minusDays(5), 2);
+
+        // when
+        pickUp.handle(today);
+
+        // then
+        assertThat(loadCar.byId(carId)).get().extracting(Car::isAvailable).isEqualTo(false);
+        assertThat(search.handle(new SearchAvailableCars.Query(CarType.SUV, today, today.plusDays(2))))
+                .extracting(SearchAvailableCars.AvailableCar::id).doesNotContain(carId);
+        var thrown = catchThrowable(() -> rentCar.handle(new RentCar.Command(customerId, carId, 2)));
+        assertThat(thrown).isInstanceOfSatisfying(ResponseStatusException.class,
+                e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+
+        // and once it comes back, the car is free again
+        returnCar.handle(new ReturnCar.Command(rentalId, today));
+        assertThat(loadCar.byId(carId)).get().extracting(Car::isAvailable).isEqualTo(true);
+        assertThat(rentCar.handle(new RentCar.Command(customerId, carId, 2)).rentalId()).isPositive();
+    }
+
+    @Test
+    @DisplayName("Overdue rental returned after the next booking started -> car goes to that booking, not back on offer")
+    void return_handsOverToStartedBooking() {
+        // given: the pick-up skipped today's booking because the car was still out
+        long customerId = customer();
+        long carId = car();
+        long overdueId = booking(customerId, carId, today.minusDays(3), 3);
+        pickUp.handle(today.minusDays(3));
+        booking(customerId, carId, today, 2);
+        pickUp.handle(today);
+
+        // when
+        returnCar.handle(new ReturnCar.Command(overdueId, today));
+
+        // then
+        assertThat(loadCar.byId(carId)).get().extracting(Car::isAvailable).isEqualTo(false);
+        assertThat(jdbc.queryForObject("select available from cars where id = ?", Boolean.class, carId)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Booking that has not started yet -> the car stays here; running the pick-up again changes nothing")
+    void pickUp_futureBookingKeepsCar() {
+        // given
+        long customerId = customer();
+        long carId = car();
+        booking(customerId, carId, today.plusDays(3), 2);
+
+        // when
+        pickUp.handle(today);
+        pickUp.handle(today);
+
+        // then
+        assertThat(loadCar.byId(carId)).get().extracting(Car::isAvailable).isEqualTo(true);
+        assertThat(jdbc.queryForObject("select available from cars where id = ?", Boolean.class, carId)).isTrue();
+    }
+
+    private long customer() {
+        var c = new JpaCustomerEntity();
+        c.setName("Early Bird");
+        c.setPoints(0);
+        return customers.save(c).getId();
+    }
+
+    private long car() {
+        return saveCar.save(new Car(null, "Kia", "Sorento", CarType.SUV, true)).getId();
+    }
+
+    private long booking(long customerId, long carId, LocalDate start, int days) {
+        jdbc.update("""
+                insert into rentals (customer_id, car_id, type, start_date, days_booked, planned_return_date,
+                                     prepaid_amount, status, surcharge)
+                values (?, ?, 'SUV', ?, ?, ?, 30000, 'OPEN', 0)""",
+                customerId, carId, Date.valueOf(start), days, Date.valueOf(start.plusDays(days)));
+        return jdbc.queryForObject("select max(id) from rentals where car_id = ?", Long.class, carId);
+    }
+}
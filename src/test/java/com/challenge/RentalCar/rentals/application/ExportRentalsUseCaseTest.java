@@ -0,0 +1,61 @@
+package com.challenge.RentalCar.rentals.application;
+
+import com.challenge.RentalCar.inventory.domain.CarType;
+import com.challenge.RentalCar.rentals.domain.Rental;
+import com.challenge.RentalCar.rentals.port.in.ListRentals;
+import com.challenge.RentalCar.rentals.port.out.StreamRentals;
+import com.challenge.RentalCar.shared.money.Money;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.*;
+
+class ExportRentalsUseCaseTest {
+
+    private final StreamRentals streamRentals = mock(StreamRentals.class);
+    private final ExportRentalsUseCase useCase = new ExportRentalsUseCase(streamRentals);
+
+    @Test
+    @DisplayName("Filters are translated, every row is pushed as a view and the stream is closed")
+    void handle_pushesViewsAndClosesStream() {
+        // given
+        var closed = new AtomicBoolean();
+        var rental = Rental.reconstitute(1L, 7L, 4L, CarType.SMALL, LocalDate.parse("2025-09-07"), 9, Money.of(41000), Rental.Status.RETURNED);
+        given(streamRentals.streamAll(7L, Rental.Status.RETURNED))
+                .willReturn(Stream.of(rental).onClose(() -> closed.set(true)));
+
+        var filter = new ListRentals.Filter(Optional.of(7L), Optional.of("returned"));
+        var views = new ArrayList<ListRentals.View>();
+
+        // when
+        useCase.handle(filter, views::add);
+
+        // then
+        assertThat(views).singleElement().satisfies(v -> {
+            assertThat(v.id()).isEqualTo(1L);
+            assertThat(v.plannedReturnDate()).isEqualTo(LocalDate.parse("2025-09-16"));
+            assertThat(v.status()).isEqualTo("RETURNED");
+        });
+        assertThat(closed).isTrue();
+    }
+
+    @Test
+    @DisplayName("No filters -> streams everything")
+    void handle_noFilters() {
+        // given
+        given(streamRentals.streamAll(null, null)).willReturn(Stream.empty());
+
+        // when
+        useCase.handle(new ListRentals.Filter(Optional.empty(), Optional.empty()), v -> { });
+
+        // then
+        verify(streamRentals).streamAll(null, null);
+    }
+}
@@ -0,0 +1,120 @@
+package com.challenge.RentalCar.rentals.application;
+
+import com.challenge.RentalCar.rentals.port.in.RentCar;
+import com.challenge.RentalCar.shared.error.NotFoundException;
+import com.challenge.RentalCar.shared.money.Money;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.*;
+
+class GroupCommitRentCarTest {
+
+    private final RentCar rentCar = mock(RentCar.class);
+    private GroupCommitRentCar pipeline;
+
+    @AfterEach
+    void stop() throws InterruptedException {
+        pipeline.close();
+    }
+
+    @Test
+    @DisplayName("submit(): commands arriving within max-wait share one handleBatch call; each future gets its own item")
+    void submit_groupsCommandsIntoOneBatch() throws Exception {
+        // given
+        pipeline = new GroupCommitRentCar(rentCar, new SimpleMeterRegistry(), 100, 3, Duration.ofSeconds(5));
+        var a = new RentCar.Command(1L, 2L, 3);
+        var b = new RentCar.Command(1L, 99L, 3);
+        var c = new RentCar.Command(2L, 4L, 1);
+        given(rentCar.handleBatch(List.of(a, b, c))).willReturn(List.of(
+                RentCar.BatchItem.ok(new RentCar.Result(10L, Money.of(45000), 3)),
+                RentCar.BatchItem.failed(404, "Car not found: 99"),
+                RentCar.BatchItem.ok(new RentCar.Result(11L, Money.of(5000), 1))));
+
+        // when
+        var fa = pipeline.submit(a);
+        var fb = pipeline.submit(b);
+        var fc = pipeline.submit(c);
+
+        // then
+        assertThat(fa.get(5, TimeUnit.SECONDS).rentalId()).isEqualTo(10L);
+        assertThat(fc.get(5, TimeUnit.SECONDS).rentalId()).isEqualTo(11L);
+        Throwable failed = catchThrowable(() -> fb.get(5, TimeUnit.SECONDS));
+        assertThat(failed).isInstanceOf(ExecutionException.class)
+                .cause().isInstanceOf(NotFoundException.class).hasMessage("Car not found: 99");
+        verify(rentCar, times(1)).handleBatch(any());
+        verify(rentCar, never()).handle(any());
+    }
+
+    @Test
+    @DisplayName("submit(): a lone command is committed once max-wait has passed")
+    void submit_flushesAfterMaxWait() throws Exception {
+        // given
+        pipeline = new GroupCommitRentCar(rentCar, new SimpleMeterRegistry(), 100, 64, Duration.ofMillis(20));
+        var cmd = new RentCar.Command(1L, 2L, 3);
+        given(rentCar.handleBatch(List.of(cmd))).willReturn(List.of(RentCar.BatchItem.ok(new RentCar.Result(7L, Money.of(45000), 3))));
+
+        // when / then
+        assertThat(pipeline.submit(cmd).get(5, TimeUnit.SECONDS).rentalId()).isEqualTo(7L);
+    }
+
+    @Test
+    @DisplayName("submit(): when the batch transaction fails, every command is retried on its own")
+    void submit_batchFailureFallsBackToSingleCommits() throws Exception {
+        // given
+        pipeline = new GroupCommitRentCar(rentCar, new SimpleMeterRegistry(), 100, 2, Duration.ofSeconds(5));
+        var good = new RentCar.Command(1L, 2L, 3);
+        var bad = new RentCar.Command(1L, 99L, 3);
+        given(rentCar.handleBatch(any())).willThrow(new IllegalStateException("constraint violated"));
+        given(rentCar.handle(good)).willReturn(new RentCar.Result(7L, Money.of(45000), 3));
+        given(rentCar.handle(bad)).willThrow(new NotFoundException("Car", 99L));
+
+        // when
+        var fGood = pipeline.submit(good);
+        var fBad = pipeline.submit(bad);
+
+        // then
+        assertThat(fGood.get(5, TimeUnit.SECONDS).rentalId()).isEqualTo(7L);
+        assertThat(catchThrowable(() -> fBad.get(5, TimeUnit.SECONDS))).cause().isInstanceOf(NotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("submit(): a full queue fails the command right away with 503")
+    void submit_fullQueueIsRejected() throws Exception {
+        // given
+        pipeline = new GroupCommitRentCar(rentCar, new SimpleMeterRegistry(), 1, 1, Duration.ZERO);
+        var inWriter = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        given(rentCar.handleBatch(any())).willAnswer(inv -> {
+            inWriter.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return List.of(RentCar.BatchItem.ok(new RentCar.Result(1L, Money.of(5000), 1)));
+        });
+        var first = pipeline.submit(new RentCar.Command(1L, 1L, 1));
+        inWriter.await(5, TimeUnit.SECONDS);
+        var queued = pipeline.submit(new RentCar.Command(1L, 2L, 1));
+
+        // when
+        var rejected = pipeline.submit(new RentCar.Command(1L, 3L, 1));
+
+        // then
+        assertThat(rejected).isCompletedExceptionally();
+        Throwable thrown = catchThrowable(rejected::join);
+        assertThat(((ResponseStatusException) thrown.getCause()).getStatusCode().value()).isEqualTo(503);
+        release.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS)).isNotNull();
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isNotNull();
+    }
+}
@@ -0,0 +1,51 @@
+package com.challenge.RentalCar.rentals.application;
+
+import com.challenge.RentalCar.inventory.domain.CarType;
+import com.challenge.RentalCar.rentals.domain.Rental;
+import com.challenge.RentalCar.rentals.domain.rules.PricingPolicy;
+import com.challenge.RentalCar.rentals.port.in.ListOverdueRentals;
+import com.challenge.RentalCar.rentals.port.out.LoadOverdueRentals;
+import com.challenge.RentalCar.shared.metrics.UseCaseMetrics;
+import com.challenge.RentalCar.shared.money.Money;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+class ListOverdueRentalsUseCaseTest {
+
+    private final LoadOverdueRentals loadOverdue = mock(LoadOverdueRentals.class);
+    private final PricingPolicy pricingPolicy = mock(PricingPolicy.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final ListOverdueRentalsUseCase useCase =
+            new ListOverdueRentalsUseCase(loadOverdue, pricingPolicy, new UseCaseMetrics(meterRegistry));
+
+    @Test
+    @DisplayName("Overdue rentals -> late fee = days past planned return * latePerDay of their type")
+    void handle_computesLateFees() {
+        // given
+        var asOf = LocalDate.of(2025, 9, 20);
+        var small = Rental.reconstitute(1L, 1L, 4L, CarType.SMALL, LocalDate.of(2025, 9, 7), 9, Money.of(41000), Rental.Status.OPEN);
+        var suv = Rental.reconstitute(2L, 2L, 2L, CarType.SUV, LocalDate.of(2025, 9, 15), 2, Money.of(30000), Rental.Status.OPEN);
+        given(loadOverdue.findOverdue(asOf)).willReturn(List.of(small, suv));
+        given(pricingPolicy.latePerDay(CarType.SMALL)).willReturn(Money.of(6500));
+        given(pricingPolicy.latePerDay(CarType.SUV)).willReturn(Money.of(18000));
+
+        // when
+        var overdue = useCase.handle(asOf);
+
+        // then
+        assertThat(overdue).containsExactly(
+                new ListOverdueRentals.Overdue(1L, 1L, 4L, "SMALL", LocalDate.of(2025, 9, 16), 4, Money.of(26000)),
+                new ListOverdueRentals.Overdue(2L, 2L, 2L, "SUV", LocalDate.of(2025, 9, 17), 3, Money.of(54000)));
+        assertThat(meterRegistry.find(UseCaseMetrics.TIMER).tags("usecase", "overdue", "outcome", "ok").timer().count())
+                .isEqualTo(1);
+    }
+}
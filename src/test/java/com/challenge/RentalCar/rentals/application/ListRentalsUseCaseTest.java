@@ -1,49 +1,56 @@
 package com.challenge.RentalCar.rentals.application;
 
-import com.challenge.RentalCar.inventory.domain.CarType;
 import com.challenge.RentalCar.rentals.domain.Rental;
 import com.challenge.RentalCar.rentals.port.in.ListRentals;
-import com.challenge.RentalCar.rentals.port.out.LoadRentals;
+import com.challenge.RentalCar.rentals.port.out.LoadRentalViews;
+import com.challenge.RentalCar.shared.metrics.UseCaseMetrics;
+import com.challenge.RentalCar.shared.money.Money;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
 import static org.mockito.BDDMockito.*;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 
 class ListRentalsUseCaseTest {
 
-    private final LoadRentals loadRentals = mock(LoadRentals.class);
-    private final ListRentalsUseCase useCase = new ListRentalsUseCase(loadRentals);
+    private final LoadRentalViews loadViews = mock(LoadRentalViews.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final UseCaseMetrics metrics = new UseCaseMetrics(meterRegistry);
 
-    private static Rental rental(Long id, long customerId, long carId, CarType type,
-                                 String startDate, int days, double prepaid, Rental.Status status) {
-        return Rental.reconstitute(
-                id, customerId, carId, type,
-                LocalDate.parse(startDate), days, prepaid, status
-        );
+    private final ListRentalsUseCase useCase = new ListRentalsUseCase(loadViews, metrics);
+
+    private static ListRentals.View view(long id, long customerId, long carId, String type,
+                                         String startDate, int days, long prepaid, String status) {
+        var start = LocalDate.parse(startDate);
+        return new ListRentals.View(id, customerId, carId, type, start, days, start.plusDays(days), Money.of(prepaid),
+                status);
     }
 
     @Test
-    @DisplayName("No filters -> calls findAll and maps to views")
+    @DisplayName("No filters -> calls findAll from the start and returns the views as read")
     void handle_noFilters_callsFindAll() {
         // given
-        var rental = rental(1L, 1L, 4L, CarType.SMALL, "2025-09-07", 9, 410.0, Rental.Status.OPEN);
-        var rental2 = rental(2L, 1L, 2L, CarType.SUV, "2025-09-07", 9, 1290.0, Rental.Status.RETURNED);
-        given(loadRentals.findAll()).willReturn(List.of(rental, rental2));
+        var view = view(1L, 1L, 4L, "SMALL", "2025-09-07", 9, 41000, "OPEN");
+        var view2 = view(2L, 1L, 2L, "SUV", "2025-09-07", 9, 129000, "RETURNED");
+        given(loadViews.findAll(0L, 51)).willReturn(List.of(view, view2));
 
         var filter = new ListRentals.Filter(Optional.empty(), Optional.empty());
 
         // when
-        var views = useCase.handle(filter);
+        var views = useCase.handle(filter).items();
 
         // then
-        verify(loadRentals).findAll();
-        verifyNoMoreInteractions(loadRentals);
+        verify(loadViews).findAll(0L, 51);
+        verifyNoMoreInteractions(loadViews);
 
         assertThat(views).hasSize(2);
         assertThat(views.get(0).id()).isEqualTo(1L);
@@ -56,38 +63,38 @@ class ListRentalsUseCaseTest {
     @DisplayName("Status=OPEN only -> calls findByStatus(OPEN)")
     void handle_statusOnly_open() {
         // given
-        var rental = rental(3L, 2L, 1L, CarType.PREMIUM, "2025-09-01", 10, 3000.0, Rental.Status.OPEN);
-        given(loadRentals.findByStatus(Rental.Status.OPEN)).willReturn(List.of(rental));
+        var view = view(3L, 2L, 1L, "PREMIUM", "2025-09-01", 10, 300000, "OPEN");
+        given(loadViews.findByStatus(Rental.Status.OPEN, 0L, 51)).willReturn(List.of(view));
 
         var filter = new ListRentals.Filter(Optional.empty(), Optional.of("OPEN"));
 
         // when
-        var views = useCase.handle(filter);
+        var views = useCase.handle(filter).items();
 
         // then
-        verify(loadRentals).findByStatus(Rental.Status.OPEN);
-        verifyNoMoreInteractions(loadRentals);
+        verify(loadViews).findByStatus(Rental.Status.OPEN, 0L, 51);
+        verifyNoMoreInteractions(loadViews);
 
         assertThat(views).hasSize(1);
         assertThat(views.get(0).status()).isEqualTo("OPEN");
-        assertThat(views.get(0).prepaidAmount()).isEqualTo(3000.0);
+        assertThat(views.get(0).prepaidAmount()).isEqualTo(Money.of(300000));
     }
 
     @Test
     @DisplayName("CustomerId only -> calls findByCustomer(customerId)")
     void handle_customerOnly() {
         // given
-        var rental = rental(4L, 7L, 3L, CarType.SUV, "2025-09-02", 2, 300.0, Rental.Status.OPEN);
-        given(loadRentals.findByCustomer(7L)).willReturn(List.of(rental));
+        var view = view(4L, 7L, 3L, "SUV", "2025-09-02", 2, 30000, "OPEN");
+        given(loadViews.findByCustomer(7L, 0L, 51)).willReturn(List.of(view));
 
         var filter = new ListRentals.Filter(Optional.of(7L), Optional.empty());
 
         // when
-        var views = useCase.handle(filter);
+        var views = useCase.handle(filter).items();
 
         // then
-        verify(loadRentals).findByCustomer(7L);
-        verifyNoMoreInteractions(loadRentals);
+        verify(loadViews).findByCustomer(7L, 0L, 51);
+        verifyNoMoreInteractions(loadViews);
 
         assertThat(views).singleElement()
                 .satisfies(v -> {
@@ -100,17 +107,17 @@ class ListRentalsUseCaseTest {
     @DisplayName("CustomerId + Status=returned (case-insensitive) -> calls findByCustomerAndStatus(RETURNED)")
     void handle_customerAndStatus_returned() {
         // given
-        var rental = rental(5L, 1L, 4L, CarType.SMALL, "2025-08-01", 5, 250.0, Rental.Status.RETURNED);
-        given(loadRentals.findByCustomerAndStatus(1L, Rental.Status.RETURNED)).willReturn(List.of(rental));
+        var view = view(5L, 1L, 4L, "SMALL", "2025-08-01", 5, 25000, "RETURNED");
+        given(loadViews.findByCustomerAndStatus(1L, Rental.Status.RETURNED, 0L, 51)).willReturn(List.of(view));
 
         var filter = new ListRentals.Filter(Optional.of(1L), Optional.of("returned"));
 
         // when
-        var views = useCase.handle(filter);
+        var views = useCase.handle(filter).items();
 
         // then
-        verify(loadRentals).findByCustomerAndStatus(1L, Rental.Status.RETURNED);
-        verifyNoMoreInteractions(loadRentals);
+        verify(loadViews).findByCustomerAndStatus(1L, Rental.Status.RETURNED, 0L, 51);
+        verifyNoMoreInteractions(loadViews);
 
         assertThat(views).hasSize(1);
         assertThat(views.get(0).status()).isEqualTo("RETURNED");
@@ -121,19 +128,87 @@ class ListRentalsUseCaseTest {
     @DisplayName("Unknown status string -> treated as no status (uses findAll or findByCustomer)")
     void handle_unknownStatus_ignored() {
         // given
-        var rental = rental(6L, 9L, 2L, CarType.SUV, "2025-09-03", 1, 150.0, Rental.Status.OPEN);
-        given(loadRentals.findAll()).willReturn(List.of(rental));
+        var view = view(6L, 9L, 2L, "SUV", "2025-09-03", 1, 15000, "OPEN");
+        given(loadViews.findAll(0L, 51)).willReturn(List.of(view));
 
         var filter = new ListRentals.Filter(Optional.empty(), Optional.of("something-else"));
 
         // when
-        var views = useCase.handle(filter);
+        var views = useCase.handle(filter).items();
 
         // then
-        verify(loadRentals).findAll();
-        verifyNoMoreInteractions(loadRentals);
+        verify(loadViews).findAll(0L, 51);
+        verifyNoMoreInteractions(loadViews);
 
         assertThat(views).hasSize(1);
         assertThat(views.get(0).type()).isEqualTo("SUV");
     }
+
+    @Test
+    @DisplayName("More rows than limit -> page is trimmed and next cursor points past its last id")
+    void handle_morePages_returnsNextCursor() {
+        // given
+        var view = view(10L, 1L, 4L, "SMALL", "2025-09-07", 9, 41000, "OPEN");
+        var view2 = view(11L, 1L, 2L, "SUV", "2025-09-07", 9, 129000, "OPEN");
+        var view3 = view(12L, 2L, 3L, "SUV", "2025-09-08", 2, 30000, "OPEN");
+        given(loadViews.findAll(0L, 3)).willReturn(List.of(view, view2, view3));
+
+        var filter = new ListRentals.Filter(Optional.empty(), Optional.empty(), Optional.of(2), Optional.empty());
+
+        // when
+        var page = useCase.handle(filter);
+
+        // then
+        assertThat(page.items()).extracting(ListRentals.View::id).containsExactly(10L, 11L);
+        assertThat(page.nextCursor()).isEqualTo(ListRentalsUseCase.encodeCursor(11L));
+    }
+
+    @Test
+    @DisplayName("Cursor from the previous page -> keyset read after its id, last page has no cursor")
+    void handle_afterCursor_readsFromLastId() {
+        // given
+        var view = view(12L, 2L, 3L, "SUV", "2025-09-08", 2, 30000, "OPEN");
+        given(loadViews.findByStatus(Rental.Status.OPEN, 11L, 3)).willReturn(List.of(view));
+
+        var filter = new ListRentals.Filter(Optional.empty(), Optional.of("open"),
+                Optional.of(2), Optional.of(ListRentalsUseCase.encodeCursor(11L)));
+
+        // when
+        var page = useCase.handle(filter);
+
+        // then
+        verify(loadViews).findByStatus(Rental.Status.OPEN, 11L, 3);
+        assertThat(page.items()).extracting(ListRentals.View::id).containsExactly(12L);
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("Limit is clamped to MAX_LIMIT")
+    void handle_limitClamped() {
+        // given
+        given(loadViews.findAll(0L, ListRentals.MAX_LIMIT + 1)).willReturn(List.of());
+
+        var filter = new ListRentals.Filter(Optional.empty(), Optional.empty(), Optional.of(100_000), Optional.empty());
+
+        // when
+        useCase.handle(filter);
+
+        // then
+        verify(loadViews).findAll(0L, ListRentals.MAX_LIMIT + 1);
+    }
+
+    @Test
+    @DisplayName("Malformed cursor -> BAD_REQUEST")
+    void handle_badCursor() {
+        // given
+        var filter = new ListRentals.Filter(Optional.empty(), Optional.empty(), Optional.empty(), Optional.of("%%%"));
+
+        // when
+        Throwable thrown = catchThrowable(() -> useCase.handle(filter));
+
+        // then
+        assertThat(thrown).isInstanceOf(ResponseStatusException.class);
+        assertThat(((ResponseStatusException) thrown).getStatusCode().value()).isEqualTo(HttpStatus.BAD_REQUEST.value());
+        verifyNoMoreInteractions(loadViews);
+    }
 }
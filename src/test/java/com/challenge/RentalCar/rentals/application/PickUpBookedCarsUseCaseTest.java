@@ -0,0 +1,74 @@
+package com.challenge.RentalCar.rentals.application;
+
+import com.challenge.RentalCar.rentals.port.out.LoadPickUps;
+import com.challenge.RentalCar.rentals.port.out.ReleaseCar;
+import com.challenge.RentalCar.rentals.port.out.ReserveCar;
+import com.challenge.RentalCar.shared.metrics.UseCaseMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class PickUpBookedCarsUseCaseTest {
+
+    private final LoadPickUps loadPickUps = mock(LoadPickUps.class);
+    private final ReserveCar reserveCar = mock(ReserveCar.class);
+    private final ReleaseCar releaseCar = mock(ReleaseCar.class);
+
+    private final PickUpBookedCarsUseCase useCase = new PickUpBookedCarsUseCase(loadPickUps, reserveCar, releaseCar,
+            new UseCaseMetrics(new SimpleMeterRegistry()), TransactionOperations.withoutTransaction());
+
+    private final LocalDate today = LocalDate.of(2025, 10, 1);
+
+    @Test
+    @DisplayName("Walks the started bookings' cars in chunks, one reserveAll per chunk, resuming after the last car")
+    void handle_reservesInChunks() {
+        // given
+        var first = LongStream.rangeClosed(1, PickUpBookedCarsUseCase.CHUNK).boxed().toList();
+        var second = List.of(700L, 701L);
+        given(loadPickUps.startedAvailableCarIds(today, 0L, PickUpBookedCarsUseCase.CHUNK)).willReturn(first);
+        given(loadPickUps.startedAvailableCarIds(today, (long) PickUpBookedCarsUseCase.CHUNK,
+                PickUpBookedCarsUseCase.CHUNK)).willReturn(second);
+        given(reserveCar.reserveAll(first)).willReturn(new HashSet<>(first));
+        given(reserveCar.reserveAll(second)).willReturn(Set.of(700L));
+        given(loadPickUps.startedCarIds(anyCollection(), any())).willAnswer(inv -> inv.getArgument(0));
+
+        // when
+        int taken = useCase.handle(today);
+
+        // then
+        assertThat(taken).isEqualTo(PickUpBookedCarsUseCase.CHUNK + 1);
+        verify(releaseCar, never()).releaseAll(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Booking returned between the read and the reserve -> its car is given back, not counted")
+    void handle_releasesCancelledBooking() {
+        // given
+        given(loadPickUps.startedAvailableCarIds(today, 0L, PickUpBookedCarsUseCase.CHUNK))
+                .willReturn(List.of(1L, 2L));
+        given(reserveCar.reserveAll(List.of(1L, 2L))).willReturn(Set.of(1L, 2L));
+        given(loadPickUps.startedCarIds(Set.of(1L, 2L), today)).willReturn(Set.of(2L));
+
+        // when
+        int taken = useCase.handle(today);
+
+        // then
+        assertThat(taken).isEqualTo(1);
+        verify(releaseCar).releaseAll(Set.of(1L));
+    }
+}
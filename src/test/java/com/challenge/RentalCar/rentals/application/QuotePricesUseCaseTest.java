@@ -0,0 +1,58 @@
+package com.challenge.RentalCar.rentals.application;
+
+import com.challenge.RentalCar.inventory.domain.CarType;
+import com.challenge.RentalCar.rentals.domain.rules.DefaultPricingPolicy;
+import com.challenge.RentalCar.rentals.domain.rules.PriceTable;
+import com.challenge.RentalCar.rentals.port.in.QuotePrices;
+import com.challenge.RentalCar.shared.metrics.UseCaseMetrics;
+import com.challenge.RentalCar.shared.money.Money;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+class QuotePricesUseCaseTest {
+
+    private final QuotePricesUseCase useCase = new QuotePricesUseCase(
+            new PriceTable(new DefaultPricingPolicy(300, 150, 50), 30), new UseCaseMetrics(new SimpleMeterRegistry()));
+
+    @Test
+    @DisplayName("Batch -> prepaid from the table (or the policy past it) and late fee per item, in order")
+    void handle_pricesEveryItem() {
+        // given
+        var batch = new QuotePrices.Batch(
+                new CarType[]{CarType.PREMIUM, CarType.SUV, CarType.SMALL, null},
+                new int[]{3, 9, 40, 0},
+                new int[]{0, 2, 1, 0},
+                3);
+
+        // when
+        var quotes = useCase.handle(batch);
+
+        // then
+        assertThat(quotes.prepaid()).containsExactly(90_000, 15_000 * 7 + 12_000 * 2, 5_000 * 7 + 3_000 * 33);
+        assertThat(quotes.lateFee()).containsExactly(0, 2 * 18_000, 6_500);
+        assertThat(quotes.currency()).isEqualTo(Money.CURRENCY);
+    }
+
+    @Test
+    @DisplayName("Invalid item -> BAD_REQUEST naming it, nothing priced")
+    void handle_invalidItem() {
+        var batch = new QuotePrices.Batch(
+                new CarType[]{CarType.SUV, CarType.SUV},
+                new int[]{3, 0},
+                new int[]{0, 0},
+                2);
+
+        Throwable thrown = catchThrowable(() -> useCase.handle(batch));
+
+        assertThat(thrown).isInstanceOf(ResponseStatusException.class);
+        var rse = (ResponseStatusException) thrown;
+        assertThat(rse.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(rse.getReason()).isEqualTo("item 1: days must be > 0");
+    }
+}
@@ -8,43 +8,70 @@ import com.challenge.RentalCar.rentals.domain.rules.PricingPolicy;
 import com.challenge.RentalCar.rentals.port.in.RentCar;
 import com.challenge.RentalCar.rentals.port.out.LoadCar;
 import com.challenge.RentalCar.rentals.port.out.LoadCustomer;
-import com.challenge.RentalCar.rentals.port.out.SaveCar;
-import com.challenge.RentalCar.rentals.port.out.SaveCustomer;
+import com.challenge.RentalCar.rentals.port.out.ProjectRentals;
+import com.challenge.RentalCar.rentals.port.out.RecordRevenue;
+import com.challenge.RentalCar.rentals.port.out.ReserveCar;
+import com.challenge.RentalCar.rentals.port.out.AwardPoints;
+import com.challenge.RentalCar.rentals.port.out.BookCar;
 import com.challenge.RentalCar.rentals.port.out.SaveRental;
 import com.challenge.RentalCar.shared.error.NotFoundException;
 import com.challenge.RentalCar.customers.domain.Customer;
+import com.challenge.RentalCar.shared.concurrency.ParallelLookups;
+import com.challenge.RentalCar.shared.metrics.UseCaseMetrics;
+import com.challenge.RentalCar.shared.money.Money;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
+import org.springframework.transaction.support.TransactionOperations;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.catchThrowable;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.*;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verifyNoInteractions;
 
 class RentCarUseCaseTest {
 
     private final LoadCar loadCar = mock(LoadCar.class);
-    private final SaveCar saveCar = mock(SaveCar.class);
+    private final ReserveCar reserveCar = mock(ReserveCar.class);
+    private final BookCar bookCar = mock(BookCar.class);
     private final LoadCustomer loadCustomer = mock(LoadCustomer.class);
-    private final SaveCustomer saveCustomer = mock(SaveCustomer.class);
+    private final AwardPoints awardPoints = mock(AwardPoints.class);
     private final SaveRental saveRental = mock(SaveRental.class);
+    private final ProjectRentals projectRentals = mock(ProjectRentals.class);
+    private final RecordRevenue recordRevenue = mock(RecordRevenue.class);
     private final PricingPolicy pricingPolicy = mock(PricingPolicy.class);
     private final LoyaltyPolicy loyaltyPolicy = mock(LoyaltyPolicy.class);
 
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final UseCaseMetrics metrics = new UseCaseMetrics(meterRegistry);
+
     private final RentCarUseCase useCase = new RentCarUseCase(
-            loadCar, saveCar, loadCustomer, saveCustomer, saveRental, pricingPolicy, loyaltyPolicy
+            loadCar, reserveCar, bookCar, loadCustomer, awardPoints, saveRental, projectRentals, recordRevenue,
+            pricingPolicy, loyaltyPolicy, metrics,
+            new ParallelLookups(false), TransactionOperations.withoutTransaction()
     );
 
+    @BeforeEach
+    void datesFree() {
+        given(bookCar.book(anyLong(), any(), any())).willReturn(true);
+    }
+
 
     @Test
-    @DisplayName("handle(): rents available car, saves rental, flips availability, adds points and returns result")
+    @DisplayName("handle(): rents available car, saves rental, reserves car, adds points and returns result")
     void handle_happyPath() {
         // given
         long customerId = 1L;
@@ -56,7 +83,8 @@ class RentCarUseCaseTest {
 
         given(loadCar.byId(carId)).willReturn(Optional.of(car));
         given(loadCustomer.byId(customerId)).willReturn(Optional.of(customer));
-        given(pricingPolicy.basePrice(CarType.SMALL, days)).willReturn(410.0);
+        given(reserveCar.reserve(carId)).willReturn(true);
+        given(pricingPolicy.basePrice(CarType.SMALL, days)).willReturn(Money.of(41000));
         given(loyaltyPolicy.pointsFor(CarType.SMALL)).willReturn(1);
 
         willAnswer(inv -> {
@@ -73,16 +101,12 @@ class RentCarUseCaseTest {
         // then
         // result
         assertThat(result.rentalId()).isEqualTo(100L);
-        assertThat(result.prepaidAmount()).isEqualTo(410.0);
+        assertThat(result.prepaidAmount()).isEqualTo(Money.of(41000));
         assertThat(result.loyaltyPointsAwarded()).isEqualTo(1);
 
-        var carCaptor = ArgumentCaptor.forClass(Car.class);
-        verify(saveCar).save(carCaptor.capture());
-        assertThat(carCaptor.getValue().isAvailable()).isFalse();
+        verify(reserveCar).reserve(carId);
 
-        var customerCaptor = ArgumentCaptor.forClass(Customer.class);
-        verify(saveCustomer).save(customerCaptor.capture());
-        assertThat(customerCaptor.getValue().getPoints()).isEqualTo(1);
+        verify(awardPoints).award(customerId, 1);
 
         var rentalCaptor = ArgumentCaptor.forClass(Rental.class);
         verify(saveRental).save(rentalCaptor.capture());
@@ -91,7 +115,69 @@ class RentCarUseCaseTest {
         assertThat(passedRental.getCarId()).isEqualTo(carId);
         assertThat(passedRental.getType()).isEqualTo(CarType.SMALL);
         assertThat(passedRental.getDaysBooked()).isEqualTo(days);
-        assertThat(passedRental.getPrepaidAmount()).isEqualTo(410.0);
+        assertThat(passedRental.getPrepaidAmount()).isEqualTo(Money.of(41000));
+
+        verify(projectRentals).opened(argThat(r -> r.getId() == 100L));
+        verify(recordRevenue).rented(argThat(rentals -> rentals.size() == 1
+                && rentals.iterator().next().getPrepaidAmount().equals(Money.of(41000))));
+        verify(bookCar).book(carId, LocalDate.now(), LocalDate.now().plusDays(days));
+    }
+
+    @Test
+    @DisplayName("handle(): later start date -> books those dates without taking the car now")
+    void handle_futureStart_booksWithoutReserving() {
+        // given
+        var start = LocalDate.now().plusDays(10);
+        given(loadCar.byId(4L)).willReturn(Optional.of(new Car(4L, "Seat", "Ibiza", CarType.SMALL, false)));
+        given(loadCustomer.byId(1L)).willReturn(Optional.of(new Customer(1L, "Alice", 0)));
+        given(pricingPolicy.basePrice(CarType.SMALL, 3)).willReturn(Money.of(15000));
+        given(saveRental.save(any(Rental.class))).willAnswer(inv -> {
+            Rental rental = inv.getArgument(0);
+            rental.assignId(100L);
+            return rental;
+        });
+
+        // when
+        var result = useCase.handle(new RentCar.Command(1L, 4L, 3, start));
+
+        // then
+        assertThat(result.rentalId()).isEqualTo(100L);
+        verify(bookCar).book(4L, start, start.plusDays(3));
+        verify(reserveCar, never()).reserve(anyLong());
+        verify(saveRental).save(argThat(r -> r.getStartDate().equals(start)
+                && r.getPlannedReturnDate().equals(start.plusDays(3))));
+    }
+
+    @Test
+    @DisplayName("handle(): dates overlap a booking of the car -> CONFLICT before the car is touched")
+    void handle_datesAlreadyBooked() {
+        // given
+        var start = LocalDate.now().plusDays(10);
+        given(loadCar.byId(4L)).willReturn(Optional.of(new Car(4L, "Seat", "Ibiza", CarType.SMALL, true)));
+        given(loadCustomer.byId(1L)).willReturn(Optional.of(new Customer(1L, "Alice", 0)));
+        given(bookCar.book(4L, start, start.plusDays(3))).willReturn(false);
+
+        // when
+        Throwable thrown = catchThrowable(() -> useCase.handle(new RentCar.Command(1L, 4L, 3, start)));
+
+        // then
+        assertThat(thrown).isInstanceOf(ResponseStatusException.class);
+        assertThat(((ResponseStatusException) thrown).getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(((ResponseStatusException) thrown).getReason()).isEqualTo("car is already booked for these dates");
+        verifyNoInteractions(reserveCar, saveRental, awardPoints);
+    }
+
+    @Test
+    @DisplayName("handle(): start date in the past -> BAD_REQUEST")
+    void handle_pastStart() {
+        // when
+        Throwable thrown = catchThrowable(() ->
+                useCase.handle(new RentCar.Command(1L, 4L, 3, LocalDate.now().minusDays(1))));
+
+        // then
+        assertThat(thrown).isInstanceOf(ResponseStatusException.class);
+        assertThat(((ResponseStatusException) thrown).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        verifyNoInteractions(loadCar, loadCustomer, bookCar, reserveCar);
     }
 
     @Test
@@ -109,7 +195,7 @@ class RentCarUseCaseTest {
         assertThat(exception.getStatusCode().value()).isEqualTo(HttpStatus.BAD_REQUEST.value());
         assertThat(exception.getReason()).isEqualTo("days must be > 0");
 
-        verifyNoInteractions(loadCar, loadCustomer, saveRental, saveCar, saveCustomer, pricingPolicy, loyaltyPolicy);
+        verifyNoInteractions(loadCar, loadCustomer, saveRental, reserveCar, awardPoints, pricingPolicy, loyaltyPolicy);
     }
 
 
@@ -127,7 +213,7 @@ class RentCarUseCaseTest {
                 .hasMessageContaining("Car not found: 10");
 
         verify(loadCustomer, never()).byId(anyLong());
-        verifyNoInteractions(saveRental, saveCar, saveCustomer, pricingPolicy, loyaltyPolicy);
+        verifyNoInteractions(saveRental, reserveCar, awardPoints, pricingPolicy, loyaltyPolicy);
     }
 
     @Test
@@ -145,11 +231,11 @@ class RentCarUseCaseTest {
         assertThat(thrown).isInstanceOf(NotFoundException.class)
                 .hasMessageContaining("Customer not found: 999");
 
-        verifyNoInteractions(saveRental, saveCar, saveCustomer, pricingPolicy, loyaltyPolicy);
+        verifyNoInteractions(saveRental, reserveCar, awardPoints, pricingPolicy, loyaltyPolicy);
     }
 
     @Test
-    @DisplayName("handle(): car unavailable -> CONFLICT")
+    @DisplayName("handle(): car already reserved -> CONFLICT")
     void handle_carUnavailable() {
         // given
         var car = new Car(3L, "Kia", "Sorento", CarType.SUV, false);
@@ -157,6 +243,7 @@ class RentCarUseCaseTest {
 
         given(loadCar.byId(3L)).willReturn(Optional.of(car));
         given(loadCustomer.byId(1L)).willReturn(Optional.of(customer));
+        given(reserveCar.reserve(3L)).willReturn(false);
 
         // when
         Throwable thrown = catchThrowable(() -> useCase.handle(new RentCar.Command(1L, 3L, 2)));
@@ -167,6 +254,123 @@ class RentCarUseCaseTest {
         assertThat(exception.getStatusCode().value()).isEqualTo(HttpStatus.CONFLICT.value());
         assertThat(exception.getReason()).isEqualTo("car is not available");
 
-        verifyNoInteractions(saveRental, saveCar, saveCustomer, pricingPolicy, loyaltyPolicy);
+        verify(reserveCar).reserve(3L);
+        verifyNoInteractions(saveRental, awardPoints, pricingPolicy, loyaltyPolicy);
+        assertThat(meterRegistry.find(UseCaseMetrics.TIMER)
+                .tags("usecase", "rent", "outcome", "conflict", "car_type", "SUV").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("handleBatch(): one item per command in order, failures do not fail the batch, points grouped per customer")
+    void handleBatch_mixedOutcomes() {
+        // given
+        var alice = new Customer(1L, "Alice", 0);
+        var seat = new Car(4L, "Seat", "Ibiza", CarType.SMALL, true);
+        var kia = new Car(2L, "Kia", "Sorento", CarType.SUV, true);
+        var nissan = new Car(3L, "Nissan", "Juke", CarType.SUV, false);
+
+        given(loadCar.byIds(any())).willReturn(List.of(seat, kia, nissan));
+        given(loadCustomer.byIds(any())).willReturn(List.of(alice));
+        given(reserveCar.reserveAll(any())).willReturn(Set.of(4L, 2L));
+        given(bookCar.book(eq(4L), any(), any())).willReturn(true, false);
+        given(pricingPolicy.basePrice(CarType.SMALL, 9)).willReturn(Money.of(41000));
+        given(pricingPolicy.basePrice(CarType.SUV, 2)).willReturn(Money.of(30000));
+        given(loyaltyPolicy.pointsFor(CarType.SMALL)).willReturn(1);
+        given(loyaltyPolicy.pointsFor(CarType.SUV)).willReturn(3);
+        willAnswer(inv -> {
+            List<Rental> rentals = inv.getArgument(0);
+            long id = 100L;
+            for (var rental : rentals) rental.assignId(id++);
+            return rentals;
+        }).given(saveRental).saveAll(any());
+
+        var cmds = List.of(
+                new RentCar.Command(1L, 4L, 9),
+                new RentCar.Command(1L, 2L, 0),
+                new RentCar.Command(1L, 99L, 2),
+                new RentCar.Command(1L, 3L, 2),
+                new RentCar.Command(1L, 2L, 2),
+                new RentCar.Command(1L, 4L, 1));
+
+        // when
+        var items = useCase.handleBatch(cmds);
+
+        // then
+        assertThat(items).extracting(RentCar.BatchItem::status).containsExactly(200, 400, 404, 409, 200, 409);
+        assertThat(items.get(0).result()).isEqualTo(new RentCar.Result(100L, Money.of(41000), 1));
+        assertThat(items.get(2).message()).isEqualTo("Car not found: 99");
+        assertThat(items.get(4).result()).isEqualTo(new RentCar.Result(101L, Money.of(30000), 3));
+
+        verify(reserveCar).reserveAll(Set.of(4L, 3L, 2L));
+        verify(saveRental).saveAll(argThat(list -> list.size() == 2));
+        verify(saveRental, never()).save(any());
+        verify(projectRentals).openedAll(argThat(list -> list.size() == 2 && list.getFirst().getId() == 100L));
+        verify(recordRevenue).rented(argThat(rentals -> rentals.size() == 2));
+        verify(awardPoints, times(1)).award(1L, 4);
+        // the Nissan was booked but could not be taken: its dates are freed again
+        verify(bookCar).unbook(eq(3L), any(), any());
+    }
+
+    @Test
+    @DisplayName("handleBatch(): exclusion violation on the batch insert -> accepted commands retried one by one, "
+            + "only the conflicting one answers 409")
+    void handleBatch_exclusionViolationRetriesSingly() {
+        // given
+        var alice = new Customer(1L, "Alice", 0);
+        var seat = new Car(4L, "Seat", "Ibiza", CarType.SMALL, true);
+        var kia = new Car(2L, "Kia", "Sorento", CarType.SUV, true);
+
+        given(loadCar.byIds(any())).willReturn(List.of(seat, kia));
+        given(loadCustomer.byIds(any())).willReturn(List.of(alice));
+        given(loadCar.byId(4L)).willReturn(Optional.of(seat));
+        given(loadCar.byId(2L)).willReturn(Optional.of(kia));
+        given(loadCustomer.byId(1L)).willReturn(Optional.of(alice));
+        given(reserveCar.reserveAll(any())).willReturn(Set.of(4L, 2L));
+        given(reserveCar.reserve(anyLong())).willReturn(true);
+        given(pricingPolicy.basePrice(CarType.SMALL, 9)).willReturn(Money.of(41000));
+        given(pricingPolicy.basePrice(CarType.SUV, 2)).willReturn(Money.of(30000));
+        given(loyaltyPolicy.pointsFor(CarType.SMALL)).willReturn(1);
+        given(loyaltyPolicy.pointsFor(CarType.SUV)).willReturn(3);
+        given(saveRental.saveAll(any())).willThrow(new DataIntegrityViolationException("rentals_no_overlap"));
+        willAnswer(inv -> {
+            Rental rental = inv.getArgument(0);
+            if (rental.getCarId() == 2L) throw new DataIntegrityViolationException("rentals_no_overlap");
+            rental.assignId(100L);
+            return rental;
+        }).given(saveRental).save(any(Rental.class));
+
+        // when
+        var items = useCase.handleBatch(List.of(new RentCar.Command(1L, 4L, 9), new RentCar.Command(1L, 2L, 2)));
+
+        // then
+        assertThat(items).extracting(RentCar.BatchItem::status).containsExactly(200, 409);
+        assertThat(items.get(0).result()).isEqualTo(new RentCar.Result(100L, Money.of(41000), 1));
+        assertThat(items.get(1).message()).isEqualTo("car is already booked for these dates");
+        verify(projectRentals, never()).openedAll(any());
+        verify(awardPoints, never()).award(1L, 4);
+        verify(awardPoints).award(1L, 1);
+        verify(bookCar).reload(2L);
+    }
+
+    @Test
+    @DisplayName("handleBatch(): unknown customer -> 404 item, nothing reserved for it")
+    void handleBatch_customerNotFound() {
+        // given
+        var car = new Car(2L, "BMW", "7", CarType.PREMIUM, true);
+        given(loadCar.byIds(any())).willReturn(List.of(car));
+        given(loadCustomer.byIds(any())).willReturn(List.of());
+        given(reserveCar.reserveAll(any())).willReturn(Set.of());
+        given(saveRental.saveAll(any())).willAnswer(inv -> inv.getArgument(0));
+
+        // when
+        var items = useCase.handleBatch(List.of(new RentCar.Command(999L, 2L, 3)));
+
+        // then
+        assertThat(items).singleElement().satisfies(item -> {
+            assertThat(item.status()).isEqualTo(404);
+            assertThat(item.message()).isEqualTo("Customer not found: 999");
+        });
+        verify(reserveCar).reserveAll(Set.of());
+        verifyNoInteractions(awardPoints, pricingPolicy, loyaltyPolicy);
     }
 }
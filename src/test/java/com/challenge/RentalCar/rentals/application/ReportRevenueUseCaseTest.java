@@ -0,0 +1,70 @@
+package com.challenge.RentalCar.rentals.application;
+
+import com.challenge.RentalCar.inventory.domain.CarType;
+import com.challenge.RentalCar.rentals.port.in.ReportRevenue;
+import com.challenge.RentalCar.rentals.port.in.ReportRevenue.Day;
+import com.challenge.RentalCar.rentals.port.in.ReportRevenue.Totals;
+import com.challenge.RentalCar.rentals.port.out.LoadRevenue;
+import com.challenge.RentalCar.shared.metrics.UseCaseMetrics;
+import com.challenge.RentalCar.shared.money.Money;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+class ReportRevenueUseCaseTest {
+
+    private final LoadRevenue loadRevenue = mock(LoadRevenue.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final ReportRevenueUseCase useCase =
+            new ReportRevenueUseCase(loadRevenue, new UseCaseMetrics(meterRegistry));
+
+    private final LocalDate from = LocalDate.of(2025, 9, 1);
+    private final LocalDate to = LocalDate.of(2025, 9, 30);
+
+    @Test
+    @DisplayName("Rollup rows -> returned as they are, summed per type (every type present) and overall")
+    void handle_sumsRollupRows() {
+        // given
+        var days = List.of(
+                new Day(from, CarType.SUV, Money.of(45000), Money.ZERO, 3),
+                new Day(from.plusDays(1), CarType.SMALL, Money.of(10000), Money.of(6500), 1),
+                new Day(from.plusDays(4), CarType.SUV, Money.ZERO, Money.of(54000), 0));
+        given(loadRevenue.between(from, to)).willReturn(days);
+
+        // when
+        var report = useCase.handle(new ReportRevenue.Query(from, to));
+
+        // then
+        assertThat(report.days()).isEqualTo(days);
+        assertThat(report.byType()).containsEntry(CarType.SUV, new Totals(Money.of(45000), Money.of(54000), 3))
+                .containsEntry(CarType.SMALL, new Totals(Money.of(10000), Money.of(6500), 1))
+                .containsEntry(CarType.PREMIUM, new Totals(Money.ZERO, Money.ZERO, 0));
+        assertThat(report.total()).isEqualTo(new Totals(Money.of(55000), Money.of(60500), 4));
+        assertThat(meterRegistry.find(UseCaseMetrics.TIMER)
+                .tags("usecase", "revenue", "outcome", "ok").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("to before from -> 400 without reading the rollup")
+    void handle_invertedWindow() {
+        // when
+        Throwable thrown = catchThrowable(() -> useCase.handle(new ReportRevenue.Query(to, from)));
+
+        // then
+        assertThat(thrown).isInstanceOf(ResponseStatusException.class);
+        assertThat(((ResponseStatusException) thrown).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        verify(loadRevenue, never()).between(any(), any());
+    }
+}
@@ -0,0 +1,113 @@
+package com.challenge.RentalCar.rentals.application;
+
+import com.challenge.RentalCar.inventory.domain.Car;
+import com.challenge.RentalCar.inventory.domain.CarType;
+import com.challenge.RentalCar.rentals.port.in.ReportUtilization;
+import com.challenge.RentalCar.rentals.port.in.ReportUtilization.Granularity;
+import com.challenge.RentalCar.rentals.port.out.LoadCar;
+import com.challenge.RentalCar.rentals.port.out.ScanRentalIntervals;
+import com.challenge.RentalCar.rentals.port.out.ScanRentalIntervals.Interval;
+import com.challenge.RentalCar.shared.metrics.UseCaseMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+class ReportUtilizationUseCaseTest {
+
+    private static final LocalDate FROM = LocalDate.of(2025, 9, 1);  // a Monday
+
+    private final LoadCar loadCar = mock(LoadCar.class);
+    private final List<long[]> scannedRanges = new CopyOnWriteArrayList<>();
+    // car 1 (SMALL): Sep 1-4 and Sep 3-5 overlap; car 2 (SMALL) idle; car 7 (SUV): Aug 30 - Sep 9
+    private final List<Interval> rentals = List.of(
+            new Interval(1, CarType.SMALL, FROM, FROM.plusDays(4)),
+            new Interval(1, CarType.SMALL, FROM.plusDays(2), FROM.plusDays(5)),
+            new Interval(7, CarType.SUV, FROM.minusDays(2), FROM.plusDays(9)));
+    private final ScanRentalIntervals scan = (fromCarId, toCarId, from, to, sink) -> {
+        scannedRanges.add(new long[]{fromCarId, toCarId});
+        rentals.stream().filter(i -> i.carId() >= fromCarId && i.carId() <= toCarId).forEach(sink);
+    };
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ReportUtilizationUseCase useCase =
+            new ReportUtilizationUseCase(loadCar, scan, new UseCaseMetrics(meterRegistry), 2, 1);
+
+    @AfterEach
+    void close() {
+        useCase.close();
+    }
+
+    private static Car car(long id, CarType type) {
+        return new Car(id, "b", "m", type, true);
+    }
+
+    @Test
+    @DisplayName("Shares per type and week, and per car over the window; every car-id range is scanned once")
+    void handle_weeklyShares() {
+        // given: two full weeks, Sep 1-14
+        given(loadCar.all()).willReturn(List.of(car(1, CarType.SMALL), car(2, CarType.SMALL), car(7, CarType.SUV)));
+
+        // when
+        var report = useCase.handle(new ReportUtilization.Query(FROM, FROM.plusDays(13), Granularity.WEEK));
+
+        // then: car 1 rented Sep 1-5 (5 days), car 7 Sep 1-9 (9 days) inside the window
+        assertThat(report.periods()).hasSize(2);
+        assertThat(report.periods().get(0).start()).isEqualTo(FROM);
+        assertThat(report.periods().get(0).end()).isEqualTo(FROM.plusDays(6));
+        assertThat(report.periods().get(0).byType()).containsEntry(CarType.SMALL, 5 / 14.0)
+                .containsEntry(CarType.SUV, 1.0).containsEntry(CarType.PREMIUM, 0.0);
+        assertThat(report.periods().get(1).byType()).containsEntry(CarType.SMALL, 0.0)
+                .containsEntry(CarType.SUV, 2 / 7.0);
+        assertThat(report.byType()).containsEntry(CarType.SMALL, 5 / 28.0).containsEntry(CarType.SUV, 9 / 14.0);
+        assertThat(report.cars()).containsExactly(
+                new ReportUtilization.CarShare(1, CarType.SMALL, 5, 5 / 14.0),
+                new ReportUtilization.CarShare(2, CarType.SMALL, 0, 0.0),
+                new ReportUtilization.CarShare(7, CarType.SUV, 9, 9 / 14.0));
+        assertThat(scannedRanges).extracting(r -> Map.entry(r[0], r[1]))
+                .containsExactlyInAnyOrder(Map.entry(1L, 1L), Map.entry(2L, 2L), Map.entry(7L, 7L));
+    }
+
+    @Test
+    @DisplayName("Months are calendar months clipped to the window")
+    void handle_monthlyPeriodsClipped() {
+        // given
+        given(loadCar.all()).willReturn(List.of());
+
+        // when
+        var report = useCase.handle(new ReportUtilization.Query(
+                LocalDate.of(2025, 1, 15), LocalDate.of(2025, 3, 10), Granularity.MONTH));
+
+        // then
+        assertThat(report.periods()).extracting(ReportUtilization.Period::start, ReportUtilization.Period::end)
+                .containsExactly(
+                        tuple(LocalDate.of(2025, 1, 15), LocalDate.of(2025, 1, 31)),
+                        tuple(LocalDate.of(2025, 2, 1), LocalDate.of(2025, 2, 28)),
+                        tuple(LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 10)));
+        assertThat(scannedRanges).isEmpty();
+    }
+
+    @Test
+    @DisplayName("to before from -> 400")
+    void handle_invertedWindow() {
+        // when
+        Throwable thrown = catchThrowable(() ->
+                useCase.handle(new ReportUtilization.Query(FROM, FROM.minusDays(1), Granularity.DAY)));
+
+        // then
+        assertThat(thrown).isInstanceOf(ResponseStatusException.class).hasMessageContaining("400");
+        assertThat(meterRegistry.find(UseCaseMetrics.TIMER)
+                .tags("usecase", "utilization", "outcome", "bad_request").timer().count()).isEqualTo(1);
+    }
+}
@@ -1,23 +1,31 @@
 package com.challenge.RentalCar.rentals.application;
 
-import com.challenge.RentalCar.inventory.domain.Car;
 import com.challenge.RentalCar.inventory.domain.CarType;
 import com.challenge.RentalCar.rentals.domain.Rental;
 import com.challenge.RentalCar.rentals.port.in.ReturnCar;
-import com.challenge.RentalCar.rentals.port.out.LoadCar;
+import com.challenge.RentalCar.rentals.port.out.BookCar;
+import com.challenge.RentalCar.rentals.port.out.LoadPickUps;
 import com.challenge.RentalCar.rentals.port.out.LoadRental;
-import com.challenge.RentalCar.rentals.port.out.SaveCar;
+import com.challenge.RentalCar.rentals.port.out.ProjectRentals;
+import com.challenge.RentalCar.rentals.port.out.RecordRevenue;
+import com.challenge.RentalCar.rentals.port.out.ReleaseCar;
+import com.challenge.RentalCar.rentals.port.out.ReserveCar;
 import com.challenge.RentalCar.rentals.port.out.SaveRental;
 import com.challenge.RentalCar.rentals.domain.rules.PricingPolicy;
+import com.challenge.RentalCar.shared.metrics.UseCaseMetrics;
+import com.challenge.RentalCar.shared.money.Money;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
-import org.mockito.ArgumentCaptor;
 
 import java.time.LocalDate;
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.BDDMockito.*;
 import static org.mockito.Mockito.never;
@@ -26,15 +34,23 @@ class ReturnCarUseCaseTest {
 
     private final LoadRental loadRental = mock(LoadRental.class);
     private final SaveRental saveRental = mock(SaveRental.class);
-    private final LoadCar loadCar = mock(LoadCar.class);
-    private final SaveCar saveCar = mock(SaveCar.class);
+    private final ProjectRentals projectRentals = mock(ProjectRentals.class);
+    private final ReleaseCar releaseCar = mock(ReleaseCar.class);
+    private final ReserveCar reserveCar = mock(ReserveCar.class);
+    private final LoadPickUps loadPickUps = mock(LoadPickUps.class);
+    private final BookCar bookCar = mock(BookCar.class);
+    private final RecordRevenue recordRevenue = mock(RecordRevenue.class);
     private final PricingPolicy pricingPolicy = mock(PricingPolicy.class);
 
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final UseCaseMetrics metrics = new UseCaseMetrics(meterRegistry);
+
     private final ReturnCarUseCase useCase =
-            new ReturnCarUseCase(loadRental, saveRental, loadCar, saveCar, pricingPolicy);
+            new ReturnCarUseCase(loadRental, saveRental, projectRentals, releaseCar, reserveCar, loadPickUps, bookCar,
+                    recordRevenue, pricingPolicy, metrics);
 
     private static Rental rental(Long id, long customerId, long carId, CarType type,
-                                 String startDate, int days, double prepaid, Rental.Status status) {
+                                 String startDate, int days, Money prepaid, Rental.Status status) {
         return Rental.reconstitute(
                 id, customerId, carId, type,
                 LocalDate.parse(startDate), days, prepaid, status
@@ -42,20 +58,18 @@ class ReturnCarUseCaseTest {
     }
 
     @Test
-    @DisplayName("On-time return -> surcharge 0, rental marked RETURNED, car set available=true")
+    @DisplayName("On-time return -> surcharge 0, rental marked RETURNED, car released")
     void handle_onTimeReturn() {
         // given
-        var rental = rental(1L, 1L, 4L, CarType.SMALL, "2025-09-07", 9, 410.0, Rental.Status.OPEN);
+        var rental = rental(1L, 1L, 4L, CarType.SMALL, "2025-09-07", 9, Money.of(41000), Rental.Status.OPEN);
         var planned = LocalDate.of(2025, 9, 16); // 7th + 9 days
 
-        given(pricingPolicy.latePerDay(CarType.SMALL)).willReturn(65.0);
+        given(pricingPolicy.latePerDay(CarType.SMALL)).willReturn(Money.of(6500));
         given(loadRental.byId(1L)).willReturn(Optional.of(rental));
 
-        var car = new Car(4L, "Seat", "Ibiza", CarType.SMALL, false);
-        given(loadCar.byId(4L)).willReturn(Optional.of(car));
+        given(releaseCar.release(4L)).willReturn(true);
 
-        willAnswer(inv -> inv.getArgument(0)).given(saveRental).save(any(Rental.class));
-        willAnswer(inv -> inv.getArgument(0)).given(saveCar).save(any(Car.class));
+        given(saveRental.markReturned(any())).willReturn(true);
 
         // when
         ReturnCar.Result result =
@@ -63,34 +77,73 @@ class ReturnCarUseCaseTest {
 
         // then
         assertThat(result.rentalId()).isEqualTo(1L);
-        assertThat(result.surcharge()).isEqualTo(0.0);
+        assertThat(result.surcharge()).isEqualTo(Money.ZERO);
 
-        var rentalCap = ArgumentCaptor.forClass(Rental.class);
-        verify(saveRental).save(rentalCap.capture());
-        assertThat(rentalCap.getValue().getStatus()).isEqualTo(Rental.Status.RETURNED);
+        verify(saveRental).markReturned(new SaveRental.Return(1L, planned, Money.ZERO));
+        verify(saveRental, never()).save(any());
+        verify(projectRentals).returned(1L);
+        assertThat(rental.getStatus()).isEqualTo(Rental.Status.RETURNED);
+        assertThat(rental.getActualReturnDate()).isEqualTo(planned);
 
-        var carCap = ArgumentCaptor.forClass(Car.class);
-        verify(saveCar).save(carCap.capture());
-        assertThat(carCap.getValue().isAvailable()).isTrue();
+        verify(releaseCar).release(4L);
+        verify(bookCar).unbook(4L, LocalDate.of(2025, 9, 7), planned);
 
         verify(pricingPolicy).latePerDay(CarType.SMALL);
     }
 
+    @Test
+    @DisplayName("Booking returned before its start date -> dates freed, car left as it is")
+    void handle_futureBookingCancelled() {
+        // given
+        var start = LocalDate.now().plusDays(10);
+        var booking = rental(8L, 1L, 4L, CarType.SMALL, start.toString(), 3, Money.of(15000), Rental.Status.OPEN);
+        given(loadRental.byId(8L)).willReturn(Optional.of(booking));
+        given(pricingPolicy.latePerDay(CarType.SMALL)).willReturn(Money.of(6500));
+        given(saveRental.markReturned(any())).willReturn(true);
+
+        // when
+        var result = useCase.handle(new ReturnCar.Command(8L, LocalDate.now()));
+
+        // then
+        assertThat(result.surcharge()).isEqualTo(Money.ZERO);
+        verify(releaseCar, never()).release(anyLong());
+        verify(bookCar).unbook(4L, start, start.plusDays(3));
+    }
+
+    @Test
+    @DisplayName("Late return while the car's next booking has started -> car handed to that booking, not released")
+    void handle_lateReturnHandsOver() {
+        // given
+        var rental = rental(9L, 1L, 4L, CarType.SMALL, "2025-09-07", 3, Money.of(15000), Rental.Status.OPEN);
+        given(loadRental.byId(9L)).willReturn(Optional.of(rental));
+        given(pricingPolicy.latePerDay(CarType.SMALL)).willReturn(Money.of(6500));
+        given(saveRental.markReturned(any())).willReturn(true);
+        given(releaseCar.release(4L)).willReturn(true);
+        given(loadPickUps.startedCarIds(List.of(4L), LocalDate.now())).willReturn(Set.of(4L));
+
+        // when
+        useCase.handle(new ReturnCar.Command(9L, LocalDate.of(2025, 9, 12)));
+
+        // then
+        var order = inOrder(releaseCar, loadPickUps, reserveCar);
+        order.verify(releaseCar).release(4L);
+        order.verify(loadPickUps).startedCarIds(List.of(4L), LocalDate.now());
+        order.verify(reserveCar).reserveAll(Set.of(4L));
+    }
+
     @Test
     @DisplayName("Late return by 2 days (SMALL) -> surcharge = 2 * latePerDay")
     void handle_lateReturn_twoDays() {
         // given
-        var rental = rental(2L, 1L, 4L, CarType.SMALL, "2025-09-07", 9, 410.0, Rental.Status.OPEN);
+        var rental = rental(2L, 1L, 4L, CarType.SMALL, "2025-09-07", 9, Money.of(41000), Rental.Status.OPEN);
         var actual = LocalDate.of(2025, 9, 18);
 
         given(loadRental.byId(2L)).willReturn(Optional.of(rental));
-        given(pricingPolicy.latePerDay(CarType.SMALL)).willReturn(65.0);
+        given(pricingPolicy.latePerDay(CarType.SMALL)).willReturn(Money.of(6500));
 
-        var car = new Car(4L, "Seat", "Ibiza", CarType.SMALL, false);
-        given(loadCar.byId(4L)).willReturn(Optional.of(car));
+        given(releaseCar.release(4L)).willReturn(true);
 
-        willAnswer(inv -> inv.getArgument(0)).given(saveRental).save(any(Rental.class));
-        willAnswer(inv -> inv.getArgument(0)).given(saveCar).save(any(Car.class));
+        given(saveRental.markReturned(any())).willReturn(true);
 
         // when
         ReturnCar.Result result =
@@ -98,18 +151,20 @@ class ReturnCarUseCaseTest {
 
         // then
         assertThat(result.rentalId()).isEqualTo(2L);
-        assertThat(result.surcharge()).isEqualTo(130.0);
+        assertThat(result.surcharge()).isEqualTo(Money.of(13000));
 
-        verify(saveRental).save(any(Rental.class));
-        verify(saveCar).save(argThat(Car::isAvailable));
+        verify(saveRental).markReturned(new SaveRental.Return(2L, actual, Money.of(13000)));
+        verify(releaseCar).release(4L);
         verify(pricingPolicy).latePerDay(CarType.SMALL);
+        verify(recordRevenue).returned(List.of(rental));
+        assertThat(rental.getSurcharge()).isEqualTo(Money.of(13000));
     }
 
     @Test
     @DisplayName("Idempotent: already RETURNED -> surcharge 0 and no further actions")
     void handle_alreadyReturned_isIdempotent() {
         // given
-        var rental = rental(3L, 1L, 2L, CarType.SUV, "2025-09-01", 10, 1290.0, Rental.Status.RETURNED);
+        var rental = rental(3L, 1L, 2L, CarType.SUV, "2025-09-01", 10, Money.of(129000), Rental.Status.RETURNED);
         given(loadRental.byId(3L)).willReturn(Optional.of(rental));
 
         // when
@@ -118,14 +173,34 @@ class ReturnCarUseCaseTest {
 
         // then
         assertThat(result.rentalId()).isEqualTo(3L);
-        assertThat(result.surcharge()).isEqualTo(0.0);
+        assertThat(result.surcharge()).isEqualTo(Money.ZERO);
 
-        verify(saveRental, never()).save(any());
-        verify(loadCar, never()).byId(anyLong());
-        verify(saveCar, never()).save(any());
+        verify(saveRental, never()).markReturned(any());
+        verify(projectRentals, never()).returned(anyLong());
+        verify(releaseCar, never()).release(anyLong());
         verify(pricingPolicy, never()).latePerDay(any());
     }
 
+    @Test
+    @DisplayName("Concurrent return won the race -> surcharge 0, car not released twice")
+    void handle_lostReturnRace_isIdempotent() {
+        // given
+        var rental = rental(6L, 1L, 2L, CarType.SUV, "2025-09-01", 10, Money.of(129000), Rental.Status.OPEN);
+        given(loadRental.byId(6L)).willReturn(Optional.of(rental));
+        given(pricingPolicy.latePerDay(CarType.SUV)).willReturn(Money.of(18000));
+        given(saveRental.markReturned(argThat(r -> r.rentalId() == 6L))).willReturn(false);
+
+        // when
+        ReturnCar.Result result =
+                useCase.handle(new ReturnCar.Command(6L, LocalDate.of(2025, 9, 20)));
+
+        // then
+        assertThat(result.surcharge()).isEqualTo(Money.ZERO);
+        verify(projectRentals, never()).returned(anyLong());
+        verify(releaseCar, never()).release(anyLong());
+        verify(recordRevenue, never()).returned(any());
+    }
+
     @Test
     @DisplayName("Rental not found -> throws NoSuchElementException")
     void handle_rentalNotFound() {
@@ -139,23 +214,24 @@ class ReturnCarUseCaseTest {
         // then
         assertThat(thrown).isInstanceOf(NoSuchElementException.class);
 
-        verify(saveRental, never()).save(any());
-        verify(loadCar, never()).byId(anyLong());
-        verify(saveCar, never()).save(any());
+        verify(saveRental, never()).markReturned(any());
+        verify(releaseCar, never()).release(anyLong());
         verify(pricingPolicy, never()).latePerDay(any());
+        assertThat(meterRegistry.find(UseCaseMetrics.TIMER)
+                .tags("usecase", "return", "outcome", "not_found", "car_type", "none").timer().count()).isEqualTo(1);
     }
 
     @Test
-    @DisplayName("Car not found after saving rental as RETURNED -> throws NoSuchElementException (rental already saved)")
+    @DisplayName("Car not found after marking rental RETURNED -> throws NoSuchElementException")
     void handle_carNotFound_afterSavingRental() {
         // given
-        var rental = rental(5L, 1L, 999L, CarType.PREMIUM, "2025-09-01", 2, 600.0, Rental.Status.OPEN);
+        var rental = rental(5L, 1L, 999L, CarType.PREMIUM, "2025-09-01", 2, Money.of(60000), Rental.Status.OPEN);
         given(loadRental.byId(5L)).willReturn(Optional.of(rental));
-        given(pricingPolicy.latePerDay(CarType.PREMIUM)).willReturn(360.0);
+        given(pricingPolicy.latePerDay(CarType.PREMIUM)).willReturn(Money.of(36000));
 
-        given(loadCar.byId(999L)).willReturn(Optional.empty());
+        given(releaseCar.release(999L)).willReturn(false);
 
-        willAnswer(inv -> inv.getArgument(0)).given(saveRental).save(any(Rental.class));
+        given(saveRental.markReturned(any())).willReturn(true);
 
         // when
         Throwable thrown = catchThrowable(() ->
@@ -164,8 +240,73 @@ class ReturnCarUseCaseTest {
         // then
         assertThat(thrown).isInstanceOf(NoSuchElementException.class);
 
-        verify(saveRental).save(argThat(rn -> rn.getStatus() == Rental.Status.RETURNED));
-        verify(loadCar).byId(999L);
-        verify(saveCar, never()).save(any());
+        verify(saveRental).markReturned(new SaveRental.Return(5L, LocalDate.of(2025, 9, 3), Money.ZERO));
+        verify(releaseCar).release(999L);
+    }
+
+    @Test
+    @DisplayName("Batch -> one IN load, one batch each for rentals, views, cars and revenue, surcharges in request order")
+    void handleBatch_mixed() {
+        // given
+        var late = rental(1L, 1L, 4L, CarType.SMALL, "2025-09-07", 9, Money.of(41000), Rental.Status.OPEN);
+        var onTime = rental(2L, 2L, 5L, CarType.SUV, "2025-09-10", 2, Money.of(30000), Rental.Status.OPEN);
+        var done = rental(3L, 1L, 6L, CarType.SUV, "2025-09-01", 1, Money.of(15000), Rental.Status.RETURNED);
+        given(loadRental.byIds(Set.of(1L, 2L, 3L, 404L))).willReturn(List.of(late, onTime, done));
+        given(saveRental.markAllReturned(anyCollection())).willReturn(Set.of(1L, 2L));
+        given(pricingPolicy.latePerDay(CarType.SMALL)).willReturn(Money.of(6500));
+        given(pricingPolicy.latePerDay(CarType.SUV)).willReturn(Money.of(18000));
+
+        // when
+        var items = useCase.handleBatch(List.of(
+                new ReturnCar.Command(1L, LocalDate.of(2025, 9, 18)),
+                new ReturnCar.Command(404L, LocalDate.of(2025, 9, 18)),
+                new ReturnCar.Command(2L, LocalDate.of(2025, 9, 12)),
+                new ReturnCar.Command(3L, LocalDate.of(2025, 9, 18)),
+                new ReturnCar.Command(2L, null)));
+
+        // then
+        assertThat(items).extracting(ReturnCar.BatchItem::status).containsExactly(200, 404, 200, 200, 400);
+        assertThat(items.get(0).result()).isEqualTo(new ReturnCar.Result(1L, Money.of(13000)));
+        assertThat(items.get(1).message()).isEqualTo("Rental not found: 404");
+        assertThat(items.get(2).result()).isEqualTo(new ReturnCar.Result(2L, Money.ZERO));
+        assertThat(items.get(3).result()).isEqualTo(new ReturnCar.Result(3L, Money.ZERO));
+
+        verify(saveRental).markAllReturned(argThat(returns -> List.copyOf(returns).equals(List.of(
+                new SaveRental.Return(1L, LocalDate.of(2025, 9, 18), Money.of(13000)),
+                new SaveRental.Return(2L, LocalDate.of(2025, 9, 12), Money.ZERO)))));
+        verify(projectRentals).returnedAll(Set.of(1L, 2L));
+        verify(recordRevenue).returned(List.of(late, onTime));
+        assertThat(late.getSurcharge()).isEqualTo(Money.of(13000));
+        verify(releaseCar).releaseAll(argThat(ids -> ids.size() == 2 && ids.containsAll(List.of(4L, 5L))));
+        verify(loadRental, never()).byId(anyLong());
+        verify(saveRental, never()).markReturned(any());
+        verify(releaseCar, never()).release(anyLong());
+    }
+
+    @Test
+    @DisplayName("Batch -> a rental listed twice or lost to a concurrent return answers 0 and frees nothing twice")
+    void handleBatch_duplicatesAndLostRace() {
+        // given: 7 was returned by someone else between the load and the lock
+        var first = rental(6L, 1L, 4L, CarType.SMALL, "2025-09-07", 1, Money.of(5000), Rental.Status.OPEN);
+        var raced = rental(7L, 1L, 5L, CarType.SMALL, "2025-09-07", 1, Money.of(5000), Rental.Status.OPEN);
+        given(loadRental.byIds(Set.of(6L, 7L))).willReturn(List.of(first, raced));
+        given(saveRental.markAllReturned(anyCollection())).willReturn(Set.of(6L));
+        given(pricingPolicy.latePerDay(CarType.SMALL)).willReturn(Money.of(6500));
+
+        // when
+        var items = useCase.handleBatch(List.of(
+                new ReturnCar.Command(6L, LocalDate.of(2025, 9, 10)),
+                new ReturnCar.Command(6L, LocalDate.of(2025, 9, 10)),
+                new ReturnCar.Command(7L, LocalDate.of(2025, 9, 10))));
+
+        // then
+        assertThat(items).extracting(ReturnCar.BatchItem::result).containsExactly(
+                new ReturnCar.Result(6L, Money.of(13000)), new ReturnCar.Result(6L, Money.ZERO), new ReturnCar.Result(7L, Money.ZERO));
+        verify(saveRental).markAllReturned(argThat(returns -> returns.size() == 2));
+        verify(releaseCar).releaseAll(List.of(4L));
+        verify(recordRevenue).returned(List.of(first));
+        assertThat(raced.getStatus()).isEqualTo(Rental.Status.OPEN);
+        assertThat(meterRegistry.find(UseCaseMetrics.TIMER)
+                .tags("usecase", "return_batch", "outcome", "ok").timer().count()).isEqualTo(1);
     }
 }
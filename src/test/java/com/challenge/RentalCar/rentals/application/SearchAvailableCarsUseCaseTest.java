@@ -0,0 +1,102 @@
+package com.challenge.RentalCar.rentals.application;
+
+import com.challenge.RentalCar.inventory.domain.Car;
+import com.challenge.RentalCar.inventory.domain.CarType;
+import com.challenge.RentalCar.rentals.port.in.SearchAvailableCars;
+import com.challenge.RentalCar.rentals.port.out.LoadBookings;
+import com.challenge.RentalCar.rentals.port.out.LoadCar;
+import com.challenge.RentalCar.shared.metrics.UseCaseMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+class SearchAvailableCarsUseCaseTest {
+
+    private final LoadCar loadCar = mock(LoadCar.class);
+    private final LoadBookings loadBookings = mock(LoadBookings.class);
+
+    private final SearchAvailableCarsUseCase useCase =
+            new SearchAvailableCarsUseCase(loadCar, loadBookings, new UseCaseMetrics(new SimpleMeterRegistry()));
+
+    private final Car bmw = new Car(1L, "BMW", "7", CarType.PREMIUM, true);
+    private final Car kia = new Car(2L, "Kia", "Sorento", CarType.SUV, true);
+    private final Car nissan = new Car(3L, "Nissan", "Juke", CarType.SUV, false);
+    private final Car jeep = new Car(4L, "Jeep", "Compass", CarType.SUV, true);
+
+    @Test
+    @DisplayName("Later window -> cars of the type with no overlapping booking, whether they are out now or not")
+    void handle_futureWindow() {
+        // given
+        var from = LocalDate.now().plusDays(7);
+        var to = from.plusDays(3);
+        given(loadCar.all()).willReturn(List.of(bmw, kia, nissan, jeep));
+        given(loadBookings.isFree(anyLong(), any(), any())).willReturn(true);
+        given(loadBookings.isFree(4L, from, to)).willReturn(false);
+        given(loadBookings.bookedBetween(from, to)).willReturn(Set.of());
+
+        // when
+        var cars = useCase.handle(new SearchAvailableCars.Query(CarType.SUV, from, to));
+
+        // then
+        assertThat(cars).extracting(SearchAvailableCars.AvailableCar::id).containsExactly(2L, 3L);
+        verify(loadBookings, never()).isFree(eq(1L), any(), any());
+    }
+
+    @Test
+    @DisplayName("Car booked by another instance since the index was built -> dropped after the rentals check")
+    void handle_confirmedAgainstRentals() {
+        // given
+        var from = LocalDate.now().plusDays(7);
+        var to = from.plusDays(3);
+        given(loadCar.all()).willReturn(List.of(kia, jeep));
+        given(loadBookings.isFree(anyLong(), any(), any())).willReturn(true);
+        given(loadBookings.bookedBetween(from, to)).willReturn(Set.of(4L, 9L));
+
+        // when
+        var cars = useCase.handle(new SearchAvailableCars.Query(CarType.SUV, from, to));
+
+        // then
+        assertThat(cars).extracting(SearchAvailableCars.AvailableCar::id).containsExactly(2L);
+    }
+
+    @Test
+    @DisplayName("Window starting today -> a car still out (overdue) is not offered even without a booking")
+    void handle_startsToday() {
+        // given
+        var from = LocalDate.now();
+        given(loadCar.all()).willReturn(List.of(bmw, kia, nissan));
+        given(loadBookings.isFree(anyLong(), any(), any())).willReturn(true);
+
+        // when
+        var cars = useCase.handle(new SearchAvailableCars.Query(null, from, from.plusDays(1)));
+
+        // then
+        assertThat(cars).extracting(SearchAvailableCars.AvailableCar::id).containsExactly(1L, 2L);
+    }
+
+    @Test
+    @DisplayName("Empty or past window -> BAD_REQUEST without a lookup")
+    void handle_invalidWindow() {
+        var today = LocalDate.now();
+        for (var query : List.of(new SearchAvailableCars.Query(null, today.plusDays(2), today.plusDays(2)),
+                new SearchAvailableCars.Query(null, today.minusDays(1), today.plusDays(2)))) {
+            Throwable thrown = catchThrowable(() -> useCase.handle(query));
+            assertThat(thrown).isInstanceOf(ResponseStatusException.class);
+            assertThat(((ResponseStatusException) thrown).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        }
+        verifyNoInteractions(loadCar, loadBookings);
+    }
+}
@@ -0,0 +1,63 @@
+package com.challenge.RentalCar.rentals.application;
+
+import com.challenge.RentalCar.customers.domain.Customer;
+import com.challenge.RentalCar.rentals.port.in.SummarizeCustomer;
+import com.challenge.RentalCar.rentals.port.out.LoadCustomer;
+import com.challenge.RentalCar.rentals.port.out.LoadRentalTotals;
+import com.challenge.RentalCar.shared.error.NotFoundException;
+import com.challenge.RentalCar.shared.metrics.UseCaseMetrics;
+import com.challenge.RentalCar.shared.money.Money;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+class SummarizeCustomerUseCaseTest {
+
+    private final LoadCustomer loadCustomer = mock(LoadCustomer.class);
+    private final LoadRentalTotals loadTotals = mock(LoadRentalTotals.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final SummarizeCustomerUseCase useCase =
+            new SummarizeCustomerUseCase(loadCustomer, loadTotals, new UseCaseMetrics(meterRegistry));
+
+    @Test
+    @DisplayName("Known customer -> points from the customer, everything else from the one aggregate row")
+    void handle_combinesCustomerAndTotals() {
+        // given
+        given(loadCustomer.byId(1L)).willReturn(Optional.of(new Customer(1L, "Alice", 7)));
+        given(loadTotals.forCustomer(1L))
+                .willReturn(new LoadRentalTotals.Totals(12, 2, Money.of(345000), LocalDate.of(2025, 9, 18)));
+
+        // when
+        var summary = useCase.handle(1L);
+
+        // then
+        assertThat(summary).isEqualTo(new SummarizeCustomer.Summary(
+                1L, "Alice", 7, 12, 2, Money.of(345000), LocalDate.of(2025, 9, 18)));
+        assertThat(meterRegistry.find(UseCaseMetrics.TIMER)
+                .tags("usecase", "customer_summary", "outcome", "ok").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Unknown customer -> NotFoundException and no aggregate query")
+    void handle_customerNotFound() {
+        // given
+        given(loadCustomer.byId(9L)).willReturn(Optional.empty());
+
+        // when
+        Throwable thrown = catchThrowable(() -> useCase.handle(9L));
+
+        // then
+        assertThat(thrown).isInstanceOf(NotFoundException.class).hasMessage("Customer not found: 9");
+        verify(loadTotals, never()).forCustomer(anyLong());
+    }
+}
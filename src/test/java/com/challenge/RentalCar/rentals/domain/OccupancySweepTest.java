@@ -0,0 +1,73 @@
+package com.challenge.RentalCar.rentals.domain;
+
+import com.challenge.RentalCar.inventory.domain.CarType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OccupancySweepTest {
+
+    // window [10, 20) in two periods: [10, 15) and [15, 20)
+    private OccupancySweep sweep() {
+        return new OccupancySweep(10, 20, new long[]{10, 15});
+    }
+
+    @Test
+    @DisplayName("Overlapping and touching rentals of one car are merged, so no day counts twice")
+    void accept_mergesOverlaps() {
+        // given
+        var sweep = sweep();
+
+        // when
+        sweep.accept(1, CarType.SUV, 10, 13);
+        sweep.accept(1, CarType.SUV, 12, 14);
+        sweep.accept(1, CarType.SUV, 14, 15);
+        sweep.finish();
+
+        // then
+        assertThat(sweep.rentedDays(1)).isEqualTo(5);
+        assertThat(sweep.rentedDays(CarType.SUV, 0)).isEqualTo(5);
+        assertThat(sweep.rentedDays(CarType.SUV, 1)).isZero();
+    }
+
+    @Test
+    @DisplayName("A run is clipped to the window and split across the periods it covers")
+    void accept_clipsAndSplits() {
+        // given
+        var sweep = sweep();
+
+        // when
+        sweep.accept(1, CarType.SMALL, 5, 12);
+        sweep.accept(2, CarType.SMALL, 13, 30);
+        sweep.accept(3, CarType.SMALL, 25, 30);
+        sweep.finish();
+
+        // then
+        assertThat(sweep.rentedDays(1)).isEqualTo(2);
+        assertThat(sweep.rentedDays(2)).isEqualTo(7);
+        assertThat(sweep.rentedDays(3)).isZero();
+        assertThat(sweep.rentedDays(CarType.SMALL, 0)).isEqualTo(4);
+        assertThat(sweep.rentedDays(CarType.SMALL, 1)).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("merge() adds up sweeps over disjoint car ranges")
+    void merge_addsCounts() {
+        // given
+        var left = sweep();
+        left.accept(1, CarType.PREMIUM, 10, 12);
+        left.finish();
+        var right = sweep();
+        right.accept(2, CarType.PREMIUM, 16, 18);
+        right.finish();
+
+        // when
+        var merged = left.merge(right);
+
+        // then
+        assertThat(merged.rentedDays(CarType.PREMIUM, 0)).isEqualTo(2);
+        assertThat(merged.rentedDays(CarType.PREMIUM, 1)).isEqualTo(2);
+        assertThat(merged.rentedDays(2)).isEqualTo(2);
+    }
+}
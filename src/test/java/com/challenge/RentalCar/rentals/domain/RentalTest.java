@@ -1,6 +1,7 @@
 package com.challenge.RentalCar.rentals.domain;
 
 import com.challenge.RentalCar.inventory.domain.CarType;
+import com.challenge.RentalCar.shared.money.Money;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
@@ -17,7 +18,7 @@ class RentalTest {
         long customerId = 1L;
         long carId = 4L;
         int days = 9;
-        double prepaid = 410.0;
+        var prepaid = Money.of(41000);
         LocalDate today = LocalDate.now();
 
         // when
@@ -38,7 +39,7 @@ class RentalTest {
     @DisplayName("assignId(): sets the generated identifier")
     void assignId_setsId() {
         // given
-        Rental rental = Rental.open(1L, 2L, CarType.SUV, 2, 300.0);
+        Rental rental = Rental.open(1L, 2L, CarType.SUV, 2, Money.of(30000));
 
         // when
         rental.assignId(123L);
@@ -48,16 +49,19 @@ class RentalTest {
     }
 
     @Test
-    @DisplayName("markReturned(): sets status to RETURNED")
+    @DisplayName("markReturned(): sets status to RETURNED and keeps the return date and surcharge")
     void markReturned_setsReturned() {
         // given
-        Rental rental = Rental.open(1L, 2L, CarType.PREMIUM, 3, 900.0);
+        Rental rental = Rental.open(1L, 2L, CarType.PREMIUM, 3, Money.of(90000));
+        var date = LocalDate.now().plusDays(4);
 
         // when
-        rental.markReturned();
+        rental.markReturned(date, Money.of(36000));
 
         // then
         assertThat(rental.getStatus()).isEqualTo(Rental.Status.RETURNED);
+        assertThat(rental.getActualReturnDate()).isEqualTo(date);
+        assertThat(rental.getSurcharge()).isEqualTo(Money.of(36000));
     }
 
     @Test
@@ -68,7 +72,7 @@ class RentalTest {
 
         // when
         Rental rental = Rental.reconstitute(
-                77L, 10L, 20L, CarType.SUV, start, 9, 1290.0, Rental.Status.RETURNED
+                77L, 10L, 20L, CarType.SUV, start, 9, Money.of(129000), Rental.Status.RETURNED
         );
 
         // then
@@ -78,7 +82,21 @@ class RentalTest {
         assertThat(rental.getType()).isEqualTo(CarType.SUV);
         assertThat(rental.getStartDate()).isEqualTo(start);
         assertThat(rental.getDaysBooked()).isEqualTo(9);
-        assertThat(rental.getPrepaidAmount()).isEqualTo(1290.0);
+        assertThat(rental.getPrepaidAmount()).isEqualTo(Money.of(129000));
         assertThat(rental.getStatus()).isEqualTo(Rental.Status.RETURNED);
     }
+
+    @Test
+    @DisplayName("daysLate(): whole days past startDate + daysBooked, never negative")
+    void daysLate_countsFromPlannedReturnDate() {
+        // given
+        var rental = Rental.reconstitute(
+                1L, 1L, 4L, CarType.SMALL, LocalDate.of(2025, 9, 7), 9, Money.of(41000), Rental.Status.OPEN);
+
+        // when / then
+        assertThat(rental.getPlannedReturnDate()).isEqualTo(LocalDate.of(2025, 9, 16));
+        assertThat(rental.daysLate(LocalDate.of(2025, 9, 10))).isZero();
+        assertThat(rental.daysLate(LocalDate.of(2025, 9, 16))).isZero();
+        assertThat(rental.daysLate(LocalDate.of(2025, 9, 19))).isEqualTo(3);
+    }
 }
@@ -0,0 +1,97 @@
+package com.challenge.RentalCar.rentals.domain.rules;
+
+import com.challenge.RentalCar.inventory.domain.CarType;
+import com.challenge.RentalCar.shared.money.Money;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DefaultPricingPolicyTest {
+
+    private final DefaultPricingPolicy policy = new DefaultPricingPolicy(300, 150, 50);
+
+    @Test
+    @DisplayName("basePrice(): matches the previous per-day loop to the öre for the configured rates")
+    void basePrice_matchesPerDayLoop() {
+        for (var type : CarType.values()) {
+            for (int days = 1; days <= 5_000; days++) {
+                assertThat(policy.basePrice(type, days))
+                        .as("%s for %d days", type, days)
+                        .isEqualTo(Money.of(Math.round(perDayLoop(300, 150, 50, type, days) * 100)));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("basePrice(): tier boundaries for SUV and SMALL")
+    void basePrice_tierBoundaries() {
+        assertThat(policy.basePrice(CarType.SUV, 7)).isEqualTo(Money.of(105000));
+        assertThat(policy.basePrice(CarType.SUV, 8)).isEqualTo(Money.of(117000));
+        assertThat(policy.basePrice(CarType.SUV, 30)).isEqualTo(Money.of(381000));
+        assertThat(policy.basePrice(CarType.SUV, 31)).isEqualTo(Money.of(388500));
+        assertThat(policy.basePrice(CarType.SMALL, 7)).isEqualTo(Money.of(35000));
+        assertThat(policy.basePrice(CarType.SMALL, 9)).isEqualTo(Money.of(41000));
+        assertThat(policy.basePrice(CarType.PREMIUM, 10)).isEqualTo(Money.of(300000));
+    }
+
+    @Test
+    @DisplayName("basePrice(): non-integral rates are rounded to the öre once per tier, then every day costs exactly that")
+    void basePrice_nonIntegralRates() {
+        var odd = new DefaultPricingPolicy(299.99, 149.95, 49.99);
+        for (var type : CarType.values()) {
+            for (int days = 1; days <= 2_000; days++) {
+                assertThat(odd.basePrice(type, days).minorUnits())
+                        .as("%s for %d days", type, days)
+                        .isEqualTo(perDayLoopMinorUnits(29_999, 14_995, 4_999, type, days));
+            }
+        }
+        // 149.95 * 0.50 = 74.975 a day is charged as 74.98
+        assertThat(odd.basePrice(CarType.SUV, 31)).isEqualTo(Money.of(7 * 14_995 + 23 * 11_996 + 7_498));
+    }
+
+    @Test
+    @DisplayName("latePerDay(): unchanged per type")
+    void latePerDay_perType() {
+        assertThat(policy.latePerDay(CarType.PREMIUM)).isEqualTo(Money.of(36000));
+        assertThat(policy.latePerDay(CarType.SUV)).isEqualTo(Money.of(18000));
+        assertThat(policy.latePerDay(CarType.SMALL)).isEqualTo(Money.of(6500));
+    }
+
+    /**
+     * The pricing this policy replaced, kept as the reference.
+     */
+    private static double perDayLoop(double premium, double suv, double small, CarType type, int days) {
+        return switch (type) {
+            case PREMIUM -> premium * days;
+            case SUV -> {
+                double total = 0;
+                for (int d = 1; d <= days; d++) {
+                    if (d <= 7) total += suv;
+                    else if (d <= 30) total += suv * 0.80;
+                    else total += suv * 0.50;
+                }
+                yield total;
+            }
+            case SMALL -> {
+                if (days <= 7) yield small * days;
+                yield small * 7 + (small * 0.60) * (days - 7);
+            }
+        };
+    }
+
+    /**
+     * The same loop in whole öre, with each tier's daily rate rounded half up.
+     */
+    private static long perDayLoopMinorUnits(long premium, long suv, long small, CarType type, int days) {
+        long total = 0;
+        for (int d = 1; d <= days; d++) {
+            total += switch (type) {
+                case PREMIUM -> premium;
+                case SUV -> d <= 7 ? suv : d <= 30 ? Math.round(suv * 0.80) : Math.round(suv * 0.50);
+                case SMALL -> d <= 7 ? small : Math.round(small * 0.60);
+            };
+        }
+        return total;
+    }
+}
@@ -0,0 +1,41 @@
+package com.challenge.RentalCar.rentals.domain.rules;
+
+import com.challenge.RentalCar.inventory.domain.CarType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PriceTableTest {
+
+    private final PricingPolicy policy = new DefaultPricingPolicy(300, 150, 50);
+
+    @Test
+    @DisplayName("basePrice(): every cell of the table equals the policy's price")
+    void basePrice_matchesPolicy() {
+        var table = new PriceTable(policy, 60);
+
+        for (var type : CarType.values()) {
+            for (int days = 0; days <= 60; days++) {
+                assertThat(table.basePrice(type, days)).isEqualTo(policy.basePrice(type, days).minorUnits());
+            }
+            assertThat(table.latePerDay(type)).isEqualTo(policy.latePerDay(type).minorUnits());
+        }
+    }
+
+    @Test
+    @DisplayName("basePrice(): beyond maxDays falls back to the policy")
+    void basePrice_beyondTable() {
+        var table = new PriceTable(policy, 7);
+
+        assertThat(table.basePrice(CarType.SUV, 8)).isEqualTo(policy.basePrice(CarType.SUV, 8).minorUnits());
+        assertThat(table.basePrice(CarType.SMALL, 400)).isEqualTo(policy.basePrice(CarType.SMALL, 400).minorUnits());
+    }
+
+    @Test
+    @DisplayName("constructor: maxDays must be positive")
+    void constructor_rejectsEmptyTable() {
+        assertThatThrownBy(() -> new PriceTable(policy, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,67 @@
+package com.challenge.RentalCar.rentals.domain.rules;
+
+import com.challenge.RentalCar.inventory.domain.CarType;
+import com.challenge.RentalCar.shared.money.Money;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Currency;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TieredPricingPolicyTest {
+
+    private static final Map<CarType, Money> RATES =
+            Map.of(CarType.PREMIUM, Money.of(10_000), CarType.SUV, Money.of(1_000), CarType.SMALL, Money.of(100));
+    private static final Map<CarType, Money> LATE =
+            Map.of(CarType.PREMIUM, Money.of(100), CarType.SUV, Money.of(200), CarType.SMALL, Money.of(300));
+
+    @Test
+    @DisplayName("basePrice(): sums every tier crossed plus the days inside the last one")
+    void basePrice_sumsTiers() {
+        var policy = new TieredPricingPolicy(RATES, Map.of(
+                CarType.PREMIUM, List.of(new PricingTier(0, 1.0), new PricingTier(2, 0.5), new PricingTier(5, 0.25)),
+                CarType.SUV, List.of(new PricingTier(0, 1.0)),
+                CarType.SMALL, List.of(new PricingTier(0, 1.0))), LATE);
+
+        assertThat(policy.basePrice(CarType.PREMIUM, 1)).isEqualTo(Money.of(10_000));
+        assertThat(policy.basePrice(CarType.PREMIUM, 2)).isEqualTo(Money.of(20_000));
+        assertThat(policy.basePrice(CarType.PREMIUM, 4)).isEqualTo(Money.of(30_000));
+        assertThat(policy.basePrice(CarType.PREMIUM, 9)).isEqualTo(Money.of(45_000));
+        assertThat(policy.basePrice(CarType.SUV, 3)).isEqualTo(Money.of(3_000));
+        assertThat(policy.latePerDay(CarType.SMALL)).isEqualTo(Money.of(300));
+    }
+
+    @Test
+    @DisplayName("constructor: rejects missing types, tiers not starting at day 0 and unordered tiers")
+    void constructor_validatesTiers() {
+        var single = List.of(new PricingTier(0, 1.0));
+
+        assertThatThrownBy(() -> new TieredPricingPolicy(RATES,
+                Map.of(CarType.PREMIUM, single, CarType.SUV, single), LATE))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("SMALL");
+        assertThatThrownBy(() -> new TieredPricingPolicy(RATES,
+                Map.of(CarType.PREMIUM, single, CarType.SUV, single, CarType.SMALL, List.of(new PricingTier(3, 1.0))), LATE))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new TieredPricingPolicy(RATES,
+                Map.of(CarType.PREMIUM, single, CarType.SUV, single,
+                        CarType.SMALL, List.of(new PricingTier(0, 1.0), new PricingTier(7, 0.6), new PricingTier(7, 0.5))), LATE))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("constructor: rejects rates in more than one currency")
+    void constructor_rejectsMixedCurrencies() {
+        var single = List.of(new PricingTier(0, 1.0));
+        var euro = Currency.getInstance("EUR");
+
+        assertThatThrownBy(() -> new TieredPricingPolicy(
+                Map.of(CarType.PREMIUM, Money.of(10_000), CarType.SUV, Money.of(1_000), CarType.SMALL, new Money(100, euro)),
+                Map.of(CarType.PREMIUM, single, CarType.SUV, single, CarType.SMALL, single), LATE))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,141 @@
+package com.challenge.RentalCar.shared.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReadThroughCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final Function<Long, Optional<String>> loader = id -> {
+        loads.incrementAndGet();
+        return id < 0 ? Optional.empty() : Optional.of("v" + id);
+    };
+
+    private ReadThroughCache<Long, String> cache(boolean enabled, int maxSize) {
+        return new ReadThroughCache<>("test", enabled, maxSize, Duration.ofSeconds(10), now::get);
+    }
+
+    @Test
+    @DisplayName("get() should call the loader once and serve later lookups from memory")
+    void get_loadsOnceThenHits() {
+        // given
+        var cache = cache(true, 10);
+
+        // when
+        cache.get(1L, loader);
+        var result = cache.get(1L, loader);
+
+        // then
+        assertThat(result).contains("v1");
+        assertThat(loads).hasValue(1);
+        assertThat(cache.stats().hits()).isEqualTo(1);
+        assertThat(cache.stats().misses()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("get() should not cache absent values")
+    void get_doesNotCacheEmpty() {
+        // given
+        var cache = cache(true, 10);
+
+        // when
+        cache.get(-1L, loader);
+        cache.get(-1L, loader);
+
+        // then
+        assertThat(loads).hasValue(2);
+        assertThat(cache.stats().size()).isZero();
+    }
+
+    @Test
+    @DisplayName("get() should evict the least recently used entry past maxSize")
+    void get_evictsLeastRecentlyUsed() {
+        // given
+        var cache = cache(true, 2);
+        cache.get(1L, loader);
+        cache.get(2L, loader);
+        cache.get(1L, loader);
+
+        // when
+        cache.get(3L, loader);
+        loads.set(0);
+        cache.get(1L, loader);
+        cache.get(2L, loader);
+
+        // then
+        assertThat(loads).hasValue(1);
+        assertThat(cache.stats().evictions()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("get() should reload entries older than the TTL")
+    void get_reloadsAfterTtl() {
+        // given
+        var cache = cache(true, 10);
+        cache.get(1L, loader);
+
+        // when
+        now.addAndGet(Duration.ofSeconds(9).toNanos());
+        cache.get(1L, loader);
+        now.addAndGet(Duration.ofSeconds(2).toNanos());
+        cache.get(1L, loader);
+
+        // then
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("invalidate() should force the next lookup to reload")
+    void invalidate_forcesReload() {
+        // given
+        var cache = cache(true, 10);
+        cache.get(1L, loader);
+
+        // when
+        cache.invalidateAfterCommit(1L);
+        cache.get(1L, loader);
+
+        // then
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("get() should not store a value loaded while an invalidation happened")
+    void get_dropsValueLoadedDuringInvalidation() {
+        // given
+        var cache = cache(true, 10);
+
+        // when
+        cache.get(1L, id -> {
+            cache.invalidate(id);
+            return Optional.of("stale");
+        });
+
+        // then
+        assertThat(cache.get(1L, loader)).contains("v1");
+    }
+
+    @Test
+    @DisplayName("a disabled cache should always call the loader")
+    void disabled_alwaysLoads() {
+        // given
+        var cache = cache(false, 10);
+
+        // when
+        cache.get(1L, loader);
+        cache.get(1L, loader);
+
+        // then
+        assertThat(loads).hasValue(2);
+        assertThat(cache.stats().enabled()).isFalse();
+    }
+}
@@ -0,0 +1,100 @@
+package com.challenge.RentalCar.shared.concurrency;
+
+import com.challenge.RentalCar.shared.error.NotFoundException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+class ParallelLookupsTest {
+
+    @Test
+    @DisplayName("both(): enabled -> the two lookups are in flight at the same time, on virtual threads")
+    void both_runsConcurrently() {
+        // given
+        var lookups = new ParallelLookups(true);
+        var barrier = new CyclicBarrier(2);
+
+        // when: each lookup only returns once the other one has started
+        var result = lookups.both(
+                () -> await(barrier, "car"),
+                () -> await(barrier, "customer"),
+                (a, b) -> a + "+" + b);
+
+        // then
+        assertThat(result).isEqualTo("car+customer");
+    }
+
+    @Test
+    @DisplayName("both(): the first failure is rethrown as is and interrupts the other lookup before returning")
+    void both_firstFailureCancelsTheOther() {
+        // given
+        var lookups = new ParallelLookups(true);
+        var started = new CountDownLatch(1);
+        var interrupted = new AtomicBoolean();
+
+        // when
+        Throwable thrown = catchThrowable(() -> lookups.both(
+                () -> {
+                    try {
+                        started.countDown();
+                        Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+                        return "car";
+                    } catch (InterruptedException e) {
+                        interrupted.set(true);
+                        throw new IllegalStateException(e);
+                    }
+                },
+                () -> {
+                    awaitQuietly(started);
+                    throw new NotFoundException("Customer", 9L);
+                },
+                (a, b) -> a + b));
+
+        // then
+        assertThat(thrown).isInstanceOf(NotFoundException.class).hasMessage("Customer not found: 9");
+        assertThat(interrupted).isTrue();
+    }
+
+    @Test
+    @DisplayName("both(): disabled -> runs first, then second, on the caller's thread")
+    void both_disabledRunsSequentially() {
+        // given
+        var lookups = new ParallelLookups(false);
+        var caller = Thread.currentThread();
+        var order = new StringBuilder();
+
+        // when
+        lookups.both(
+                () -> order.append(Thread.currentThread() == caller ? "first;" : "?"),
+                () -> order.append(Thread.currentThread() == caller ? "second" : "?"),
+                (a, b) -> null);
+
+        // then
+        assertThat(order).hasToString("first;second");
+    }
+
+    private static String await(CyclicBarrier barrier, String value) {
+        try {
+            assertThat(Thread.currentThread().isVirtual()).isTrue();
+            barrier.await(5, TimeUnit.SECONDS);
+            return value;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.challenge.RentalCar.shared.idempotency;
+
+import com.challenge.RentalCar.rentals.port.in.RentCar;
+import com.challenge.RentalCar.shared.cache.CacheRegistry;
+import com.challenge.RentalCar.shared.money.Money;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IdempotentRequestsTest {
+
+    private final EmbeddedDatabase db = new EmbeddedDatabaseBuilder()
+            .setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+    private final JdbcTemplate jdbc = new JdbcTemplate(db);
+    private final AtomicInteger runs = new AtomicInteger();
+    private final RentCar.Command cmd = new RentCar.Command(1L, 2L, 3);
+    private final RentCar.Result result = new RentCar.Result(42L, Money.of(15000), 1);
+
+    {
+        jdbc.execute("""
+                create table idempotency_keys (idem_key varchar(216) primary key, request varchar(2000) not null,
+                response varchar(2000), created_at bigint not null)""");
+    }
+
+    @AfterEach
+    void shutdown() {
+        db.shutdown();
+    }
+
+    private IdempotentRequests requests() {
+        var caches = new CacheRegistry(new MockEnvironment().withProperty("cache.idempotency.enabled", "true"));
+        return new IdempotentRequests(jdbc, new ObjectMapper(), caches, Duration.ofHours(24));
+    }
+
+    private Supplier<CompletableFuture<RentCar.Result>> counted(CompletableFuture<RentCar.Result> outcome) {
+        return () -> {
+            runs.incrementAndGet();
+            return outcome;
+        };
+    }
+
+    @Test
+    @DisplayName("execute() should run the command once and replay its result for the same key")
+    void execute_replaysRecordedResult() {
+        // given
+        var requests = requests();
+        requests.execute("rent", "k", cmd, RentCar.Result.class, counted(CompletableFuture.completedFuture(result)));
+
+        // when
+        var replayed = requests.execute("rent", "k", cmd, RentCar.Result.class,
+                counted(CompletableFuture.completedFuture(new RentCar.Result(43L, Money.of(15000), 1))));
+
+        // then
+        assertThat(replayed.join()).isEqualTo(result);
+        assertThat(runs).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("execute() should replay from the idempotency_keys table when the hot tier has nothing")
+    void execute_replaysFromTable() {
+        // given: recorded by another instance
+        requests().execute("rent", "k", cmd, RentCar.Result.class, counted(CompletableFuture.completedFuture(result)));
+
+        // when
+        var replayed = requests().execute("rent", "k", cmd, RentCar.Result.class,
+                counted(CompletableFuture.completedFuture(result)));
+
+        // then
+        assertThat(replayed.join()).isEqualTo(result);
+        assertThat(runs).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("execute() should replay a response recorded while amounts were plain numbers")
+    void execute_replaysLegacyNumericAmount() {
+        // given: recorded before amounts were Money
+        var requests = requests();
+        jdbc.update("insert into idempotency_keys values (?, ?, ?, ?)", "rent:k",
+                "{\"customerId\":1,\"carId\":2,\"days\":3,\"startDate\":null}",
+                "{\"rentalId\":42,\"prepaidAmount\":150.0,\"loyaltyPointsAwarded\":1}", System.currentTimeMillis());
+
+        // when
+        var replayed = requests.execute("rent", "k", cmd, RentCar.Result.class,
+                counted(CompletableFuture.completedFuture(new RentCar.Result(43L, Money.of(15000), 1))));
+
+        // then
+        assertThat(replayed.join()).isEqualTo(result);
+        assertThat(runs).hasValue(0);
+    }
+
+    @Test
+    @DisplayName("execute() should let a concurrent duplicate wait for the running command")
+    void execute_duplicateWaitsForFirst() {
+        // given
+        var requests = requests();
+        var pending = new CompletableFuture<RentCar.Result>();
+        var first = requests.execute("rent", "k", cmd, RentCar.Result.class, counted(pending));
+
+        // when
+        var duplicate = requests.execute("rent", "k", cmd, RentCar.Result.class, counted(pending));
+        assertThat(duplicate).isNotDone();
+        pending.complete(result);
+
+        // then
+        assertThat(first.join()).isEqualTo(result);
+        assertThat(duplicate.join()).isEqualTo(result);
+        assertThat(runs).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("execute() should reject a key reused for a different request with 422")
+    void execute_rejectsDifferentRequest() {
+        // given
+        var requests = requests();
+        requests.execute("rent", "k", cmd, RentCar.Result.class, counted(CompletableFuture.completedFuture(result)));
+
+        // when / then
+        assertThatThrownBy(() -> requests.execute("rent", "k", new RentCar.Command(1L, 2L, 4),
+                RentCar.Result.class, counted(CompletableFuture.completedFuture(result))))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("422");
+        assertThat(runs).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("execute() should not record a failed command, so a retry runs it again")
+    void execute_doesNotRecordFailures() {
+        // given
+        var requests = requests();
+        var failed = requests.execute("rent", "k", cmd, RentCar.Result.class,
+                counted(CompletableFuture.failedFuture(new IllegalStateException("boom"))));
+
+        // when
+        var retried = requests.execute("rent", "k", cmd, RentCar.Result.class,
+                counted(CompletableFuture.completedFuture(result)));
+
+        // then
+        assertThat(failed).isCompletedExceptionally();
+        assertThat(retried.join()).isEqualTo(result);
+        assertThat(runs).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("execute() should answer 409 without running the command while the key is reserved without a result")
+    void execute_reservedKeyIsNotRunAgain() {
+        // given: reserved by a run on another instance, or one that stopped before recording its result
+        jdbc.update("insert into idempotency_keys (idem_key, request, created_at) values (?, ?, ?)", "rent:k",
+                "{\"customerId\":1,\"carId\":2,\"days\":3,\"startDate\":null}", System.currentTimeMillis());
+
+        // when / then
+        assertThatThrownBy(() -> requests().execute("rent", "k", cmd, RentCar.Result.class,
+                counted(CompletableFuture.completedFuture(result))))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("409");
+        assertThat(runs).hasValue(0);
+    }
+
+    @Test
+    @DisplayName("execute() should reclaim a key whose reservation has expired")
+    void execute_reclaimsExpiredReservation() {
+        // given
+        jdbc.update("insert into idempotency_keys (idem_key, request, created_at) values (?, ?, ?)", "rent:k",
+                "{}", System.currentTimeMillis() - Duration.ofHours(25).toMillis());
+
+        // when
+        var done = requests().execute("rent", "k", cmd, RentCar.Result.class,
+                counted(CompletableFuture.completedFuture(result)));
+
+        // then
+        assertThat(done.join()).isEqualTo(result);
+        assertThat(runs).hasValue(1);
+        assertThat(jdbc.queryForObject("select count(*) from idempotency_keys where response is not null",
+                Integer.class)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("execute() should still return the result of a command whose result could not be recorded")
+    void execute_recordFailureKeepsResult() {
+        // given
+        var requests = requests();
+
+        // when: the table goes away between the reservation and the record
+        var done = requests.execute("rent", "k", cmd, RentCar.Result.class, () -> {
+            jdbc.execute("alter table idempotency_keys rename to idempotency_keys_gone");
+            return counted(CompletableFuture.completedFuture(result)).get();
+        });
+
+        // then
+        assertThat(done.join()).isEqualTo(result);
+        assertThat(runs).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("execute() should reject a blank key with 400")
+    void execute_rejectsBlankKey() {
+        assertThatThrownBy(() -> requests().execute("rent", " ", cmd, RentCar.Result.class,
+                counted(CompletableFuture.completedFuture(result))))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("400");
+        assertThat(runs).hasValue(0);
+    }
+}
@@ -0,0 +1,109 @@
+package com.challenge.RentalCar.shared.money;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MoneyTest {
+
+    private static final Currency EUR = Currency.getInstance("EUR");
+
+    @Test
+    @DisplayName("Sums of many amounts stay exact where double drifts")
+    void plus_isExact() {
+        // given
+        var total = Money.ZERO;
+        double drifting = 0;
+
+        // when
+        for (int i = 0; i < 10_000; i++) {
+            total = total.plus(Money.of(10));
+            drifting += 0.10;
+        }
+
+        // then
+        assertThat(total).isEqualTo(Money.of(100_000));
+        assertThat(drifting).isNotEqualTo(1000.0);
+    }
+
+    @Test
+    @DisplayName("ofMajor() and times(double) round half up to the nearest minor unit")
+    void rounding_halfUp() {
+        assertThat(Money.ofMajor(149.95, Money.CURRENCY)).isEqualTo(Money.of(14_995));
+        assertThat(Money.ofMajor(0.005, Money.CURRENCY)).isEqualTo(Money.of(1));
+        assertThat(Money.of(14_995).times(0.50)).isEqualTo(Money.of(7_498));
+        assertThat(Money.of(5_000).times(0.60)).isEqualTo(Money.of(3_000));
+    }
+
+    @Test
+    @DisplayName("Amounts of different currencies never mix")
+    void plus_rejectsOtherCurrency() {
+        assertThatThrownBy(() -> Money.of(100).plus(new Money(100, EUR)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Overflow throws instead of wrapping around")
+    void times_overflowThrows() {
+        assertThatThrownBy(() -> Money.of(Long.MAX_VALUE / 2).times(3))
+                .isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    @DisplayName("toBigDecimal() and toString() use the currency's fraction digits")
+    void majorUnitViews() {
+        assertThat(Money.of(129_000).toBigDecimal()).isEqualTo(new BigDecimal("1290.00"));
+        assertThat(Money.of(6_500)).hasToString("65.00 SEK");
+    }
+
+    @Test
+    @DisplayName("MoneyConverter stores minor units and refuses other currencies")
+    void converter_roundTrip() {
+        // given
+        var converter = new MoneyConverter();
+
+        // when / then
+        assertThat(converter.convertToDatabaseColumn(Money.of(41_000))).isEqualTo(41_000L);
+        assertThat(converter.convertToEntityAttribute(41_000L)).isEqualTo(Money.of(41_000));
+        assertThat(converter.convertToDatabaseColumn(null)).isNull();
+        assertThatThrownBy(() -> converter.convertToDatabaseColumn(new Money(100, EUR)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("JSON: written as the decimal major-unit amount; numbers and the minor-unit object read back")
+    void json_decimalAmount() throws Exception {
+        // given
+        var mapper = new ObjectMapper();
+
+        // when / then
+        assertThat(mapper.writeValueAsString(Money.of(129_000))).isEqualTo("1290.00");
+        assertThat(mapper.readValue("1290.00", Money.class)).isEqualTo(Money.of(129_000));
+        assertThat(mapper.readValue("1290.0", Money.class)).isEqualTo(Money.of(129_000));
+        assertThat(mapper.readValue("65", Money.class)).isEqualTo(Money.of(6_500));
+        assertThat(mapper.readValue("149.955", Money.class)).isEqualTo(Money.of(14_996));
+    }
+
+    @Test
+    @DisplayName("JSON: amounts are formatted from the long, sign, zero padding and extremes included")
+    void json_formatsFromLong() throws Exception {
+        // given
+        var mapper = new ObjectMapper();
+
+        // when / then
+        assertThat(mapper.writeValueAsString(Money.of(5))).isEqualTo("0.05");
+        assertThat(mapper.writeValueAsString(Money.of(-1_250))).isEqualTo("-12.50");
+        assertThat(mapper.writeValueAsString(Money.ZERO)).isEqualTo("0.00");
+        assertThat(mapper.writeValueAsString(new Money(7, Currency.getInstance("JPY")))).isEqualTo("7");
+        assertThat(mapper.writeValueAsString(Money.of(Long.MIN_VALUE)))
+                .isEqualTo(BigDecimal.valueOf(Long.MIN_VALUE, 2).toPlainString());
+        assertThat(mapper.writeValueAsString(Money.of(Long.MAX_VALUE)))
+                .isEqualTo(BigDecimal.valueOf(Long.MAX_VALUE, 2).toPlainString());
+    }
+}
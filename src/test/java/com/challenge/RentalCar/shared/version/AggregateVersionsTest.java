@@ -0,0 +1,70 @@
+package com.challenge.RentalCar.shared.version;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static com.challenge.RentalCar.shared.version.AggregateVersions.Aggregate.CARS;
+import static com.challenge.RentalCar.shared.version.AggregateVersions.Aggregate.RENTALS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AggregateVersionsTest {
+
+    private final AggregateVersions versions = new AggregateVersions();
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Outside a transaction the bump is immediate and only moves its own aggregate")
+    void bump_withoutTransaction_isImmediate() {
+        // given
+        var before = versions.etag(CARS);
+
+        // when
+        versions.bumpAfterCommit(CARS);
+
+        // then
+        assertThat(versions.current(CARS)).isEqualTo(1);
+        assertThat(versions.current(RENTALS)).isZero();
+        assertThat(versions.etag(CARS)).isNotEqualTo(before).startsWith("\"cars-").endsWith("-1\"");
+    }
+
+    @Test
+    @DisplayName("Inside a transaction the version only moves on commit, never on rollback")
+    void bump_insideTransaction_waitsForCommit() {
+        // given
+        TransactionSynchronizationManager.initSynchronization();
+        versions.bumpAfterCommit(RENTALS);
+        var rolledBack = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+
+        TransactionSynchronizationManager.initSynchronization();
+        versions.bumpAfterCommit(RENTALS);
+        var committed = TransactionSynchronizationManager.getSynchronizations();
+
+        // when / then
+        assertThat(versions.current(RENTALS)).isZero();
+        rolledBack.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        assertThat(versions.current(RENTALS)).isZero();
+        committed.forEach(TransactionSynchronization::afterCommit);
+        assertThat(versions.current(RENTALS)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Two instances never hand out the same ETag for the same version")
+    void etag_carriesStartEpoch() throws InterruptedException {
+        // given
+        Thread.sleep(2);
+        var restarted = new AggregateVersions();
+
+        // when / then
+        assertThat(restarted.etag(CARS)).isNotEqualTo(versions.etag(CARS));
+    }
+}